@@ -24,6 +24,8 @@ import java.util.ServiceLoader;
 import java.util.Set;
 
 import org.microshed.testing.internal.InternalLogger;
+import org.microshed.testing.internal.LifecycleEvents;
+import org.microshed.testing.spi.LifecycleEvent;
 
 /**
  * Defines an approach for configuring and starting the test enviornment. Examples of a test environment might be:
@@ -37,7 +39,7 @@ import org.microshed.testing.internal.InternalLogger;
 public interface ApplicationEnvironment {
 
     public static class Resolver {
-        private static ApplicationEnvironment loaded = null;
+        private static volatile ApplicationEnvironment loaded = null;
 
         private Resolver() {
             // static singleton
@@ -53,8 +55,19 @@ public interface ApplicationEnvironment {
          *         </ol>
          */
         public static ApplicationEnvironment load() {
-            if (loaded != null)
+            ApplicationEnvironment env = loaded;
+            if (env != null)
+                return env;
+            synchronized (Resolver.class) {
+                if (loaded == null) {
+                    loaded = select();
+                    LifecycleEvents.fire(LifecycleEvent.Type.ENVIRONMENT_SELECTED, null, loaded.getClass().getName());
+                }
                 return loaded;
+            }
+        }
+
+        private static ApplicationEnvironment select() {
 
             // First check explicilty configured environment via system property or env var
             String strategy = System.getProperty(ENV_CLASS);
@@ -72,8 +85,7 @@ public interface ApplicationEnvironment {
                                                     " was found, but it does not implement the required interface " + ApplicationEnvironment.class);
                 } else {
                     try {
-                        loaded = (ApplicationEnvironment) found.newInstance();
-                        return loaded;
+                        return (ApplicationEnvironment) found.newInstance();
                     } catch (InstantiationException | IllegalAccessException e) {
                         throw new IllegalStateException("Unable to initialize " + found, e);
                     }
@@ -94,8 +106,7 @@ public interface ApplicationEnvironment {
                             .sorted((c1, c2) -> c1.getClass().getCanonicalName().compareTo(c2.getClass().getCanonicalName()))
                             .sorted((c1, c2) -> Integer.compare(c2.getPriority(), c1.getPriority()))
                             .findFirst();
-            loaded = selectedEnv.orElseThrow(() -> new IllegalStateException("No available " + ApplicationEnvironment.class.getSimpleName() + " was discovered."));
-            return loaded;
+            return selectedEnv.orElseThrow(() -> new IllegalStateException("No available " + ApplicationEnvironment.class.getSimpleName() + " was discovered."));
         }
 
         /**
@@ -121,6 +132,13 @@ public interface ApplicationEnvironment {
      */
     public static final String ENV_CLASS = "MICROSHED_TEST_ENV_CLASS";
 
+    /**
+     * The name of the system property that may be set to the Kafka bootstrap servers used by
+     * <code>@KafkaProducerClient</code> and <code>@KafkaConsumerClient</code> fields when the environment does
+     * not provide bootstrap servers for a test class.
+     */
+    public static final String KAFKA_BOOTSTRAP_SERVERS = "org.microshed.kafka.bootstrap.servers";
+
     /**
      * @return true if the ApplicationEnvironment is currently available
      *         false otherwise
@@ -138,6 +156,18 @@ public interface ApplicationEnvironment {
         return DEFAULT_PRIORITY;
     }
 
+    /**
+     * This method may be called by the test framework on a background thread as soon as the
+     * test classes to be run are known, before {@link #preConfigure(Class)} is called for the
+     * specified class. Implementations may use this method to begin starting the environment
+     * for the specified class early, in which case {@link #start()} must wait for any work
+     * started by this method to complete.
+     *
+     * @param testClass The test class that will be run later
+     */
+    public default void prestart(Class<?> testClass) {
+    }
+
     /**
      * This method is typically called by the test framework.
      * Implementations should use this method to apply the environment configuration to the
@@ -158,6 +188,31 @@ public interface ApplicationEnvironment {
      */
     public void start();
 
+    /**
+     * This method is typically called by the test framework.
+     * Implementations that support running multiple test classes concurrently should override this
+     * method to start the environment of the specified class, independently of {@link #preConfigure(Class)}
+     * having been called for other classes in the meantime.
+     * This method is invoked after {@link #preConfigure(Class)}
+     *
+     * @param testClass The test class to start the environment for
+     */
+    public default void start(Class<?> testClass) {
+        start();
+    }
+
+    /**
+     * This method is typically called by the test framework for test classes that request it with
+     * {@link org.microshed.testing.jupiter.MicroShedTest#resetApplication()}.
+     * Implementations that share a running application between test classes should use this method
+     * to restart the application of the specified class, if it already served other test classes.
+     * This method is invoked after {@link #start(Class)} completes.
+     *
+     * @param testClass The test class to reset the application for
+     */
+    public default void resetApplication(Class<?> testClass) {
+    }
+
     /**
      * This method is typically called by the test framework.
      * Implementations should use this method to apply the environment configuration to the
@@ -169,11 +224,39 @@ public interface ApplicationEnvironment {
     public default void postConfigure(Class<?> testClass) {
     }
 
+    /**
+     * This method is typically called by the test framework.
+     * Implementations should use this method to release any resources that were acquired
+     * on behalf of the specified class.
+     * This method is invoked after all tests in the specified class have completed.
+     *
+     * @param testClass The test class that has completed
+     */
+    public default void cleanup(Class<?> testClass) {
+    }
+
     /**
      * @return The URL that the application under test is available at
      */
     public String getApplicationURL();
 
+    /**
+     * @param testClass The test class to get the application URL for
+     * @return The URL that the application under test for the specified class is available at
+     */
+    public default String getApplicationURL(Class<?> testClass) {
+        return getApplicationURL();
+    }
+
+    /**
+     * @param testClass The test class to get the Kafka bootstrap servers for
+     * @return The Kafka bootstrap servers available to the specified class, or the value of the
+     *         {@link #KAFKA_BOOTSTRAP_SERVERS} system property if the environment does not provide any
+     */
+    public default String getKafkaBootstrapServers(Class<?> testClass) {
+        return System.getProperty(KAFKA_BOOTSTRAP_SERVERS, "");
+    }
+
     public default boolean configureRestAssured() {
         return true;
     }
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing;
+
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.microshed.testing.internal.InternalLogger;
+import org.microshed.testing.internal.LocalRuntime;
+
+/**
+ * Configuration that launches the application runtime as a child process of the test JVM, from a local installation
+ * or a runnable jar, instead of in a container. The runtime is started once for all test classes, on free ports, and
+ * is stopped when the JVM exits. See {@link LocalRuntime} for the supported runtimes.
+ * <p>
+ * Like the {@link ManuallyStartedConfiguration}, no containers are started in this environment.
+ */
+public class LocalProcessConfiguration extends ManuallyStartedConfiguration {
+
+    /**
+     * The name of the system property or environment variable that enables this environment. It may be set to the
+     * location of the runtime, or to <code>true</code> to look for the runtime in the default build output locations
+     * of the Liberty and Quarkus build plugins.
+     */
+    public static final String LOCAL_RUNTIME = "microshed_local_runtime";
+
+    /**
+     * The name of the system property or environment variable that selects the Liberty server to run, if the
+     * installation contains more than one server
+     */
+    public static final String LOCAL_SERVER_NAME = "microshed_local_server";
+
+    /**
+     * The name of the system property or environment variable that may be set to the application file to deploy
+     * to runtimes that do not contain the application already, such as Payara Micro
+     */
+    public static final String LOCAL_APP_FILE = "microshed_local_app";
+
+    /**
+     * The name of the system property or environment variable that may be set to the number of seconds to wait
+     * for the runtime to start
+     */
+    public static final String LOCAL_START_TIMEOUT = "microshed_local_start_timeout";
+
+    static final int DEFAULT_START_TIMEOUT_SECONDS = 120;
+    static final String[] DEFAULT_LOCATIONS = { "target/liberty/wlp", "build/wlp", "target/quarkus-app", "build/quarkus-app" };
+
+    private static final InternalLogger LOG = InternalLogger.get(LocalProcessConfiguration.class);
+
+    private static LocalRuntime runtime;
+    private static RuntimeException failure;
+    private static boolean started;
+
+    public LocalProcessConfiguration() {
+        // The URL of the application must be known as soon as the environment is selected, since ApplicationContainers
+        // are created with it before any test class is configured
+        if (isAvailable())
+            prepare();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        String value = resolveProperty(LOCAL_RUNTIME);
+        return !value.isEmpty() && !"false".equalsIgnoreCase(value);
+    }
+
+    @Override
+    public int getPriority() {
+        // This environment is only available when explicitly enabled, so it takes precedence over the other built-in environments
+        return ApplicationEnvironment.DEFAULT_PRIORITY - 1;
+    }
+
+    @Override
+    public void prestart(Class<?> testClass) {
+        try {
+            start();
+        } catch (RuntimeException ignore) {
+            // The failure is reported again when start() is invoked for the test class
+        }
+    }
+
+    @Override
+    public void start() {
+        synchronized (LocalProcessConfiguration.class) {
+            prepare();
+            if (failure != null)
+                throw failure;
+            if (started) {
+                if (!runtime.isAlive())
+                    throw new ExtensionConfigurationException(runtime + " is no longer running");
+                return;
+            }
+            try {
+                runtime.start(Duration.ofSeconds(startTimeout()));
+                started = true;
+            } catch (RuntimeException e) {
+                // Do not start the runtime again for every remaining test class
+                failure = e;
+                throw e;
+            }
+        }
+    }
+
+    private static synchronized void prepare() {
+        if (runtime != null || failure != null)
+            return;
+        try {
+            int httpPort = port(MICROSHED_HTTP_PORT);
+            int httpsPort = port(MICROSHED_HTTPS_PORT);
+            String serverName = resolveProperty(LOCAL_SERVER_NAME);
+            runtime = LocalRuntime.of(location(Paths.get("")), serverName.isEmpty() ? null : serverName, () -> appFile(Paths.get("")), httpPort, httpsPort);
+            String contextRoot = resolveProperty(MICROSHED_APP_CONTEXT_ROOT);
+            if (contextRoot.isEmpty())
+                contextRoot = runtime.getContextRoot();
+            if (!contextRoot.startsWith("/"))
+                contextRoot = "/" + contextRoot;
+            setRuntimeURL("http://localhost:" + httpPort + contextRoot);
+            LOG.info("Using " + runtime + " at " + getRuntimeURL());
+        } catch (RuntimeException e) {
+            // Report the problem when the environment is started, rather than while it is being selected
+            failure = e;
+        }
+    }
+
+    /**
+     * @param baseDir The directory that the default locations are relative to
+     * @return The location of the runtime to launch
+     */
+    static Path location(Path baseDir) {
+        String value = resolveProperty(LOCAL_RUNTIME);
+        if (!"true".equalsIgnoreCase(value))
+            return Paths.get(value);
+        for (String location : DEFAULT_LOCATIONS) {
+            if (Files.exists(baseDir.resolve(location)))
+                return baseDir.resolve(location);
+        }
+        throw new ExtensionConfigurationException("No local runtime was found in any of the default locations " + String.join(", ", DEFAULT_LOCATIONS) +
+                                                  ". Set " + LOCAL_RUNTIME + " to the location of the runtime instead.");
+    }
+
+    /**
+     * @param baseDir The directory that the default build output directories are relative to
+     * @return The application file to deploy to runtimes that do not contain the application already
+     */
+    static Path appFile(Path baseDir) {
+        String value = resolveProperty(LOCAL_APP_FILE);
+        if (!value.isEmpty())
+            return Paths.get(value);
+        List<Path> wars = new ArrayList<>();
+        for (String dir : new String[] { "target", "build/libs" }) {
+            if (!Files.isDirectory(baseDir.resolve(dir)))
+                continue;
+            try (Stream<Path> files = Files.list(baseDir.resolve(dir))) {
+                wars.addAll(files.filter(f -> f.getFileName().toString().endsWith(".war")).collect(Collectors.toList()));
+            } catch (IOException e) {
+                LOG.debug("Unable to list " + dir, e);
+            }
+        }
+        if (wars.size() != 1)
+            throw new ExtensionConfigurationException("Expected exactly one war file in target/ or build/libs/ to deploy, but found " + wars +
+                                                      ". Set " + LOCAL_APP_FILE + " to the application to deploy.");
+        return wars.get(0);
+    }
+
+    static int port(String property) {
+        String value = resolveProperty(property);
+        if (!value.isEmpty()) {
+            int port = parseInt(property, value);
+            if (port < 1 || port > 65535)
+                throw new ExtensionConfigurationException("The " + property + " property must be a port number between 1 and 65535, but was: " + value);
+            return port;
+        }
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new ExtensionConfigurationException("Unable to find a free port for the local runtime", e);
+        }
+    }
+
+    static int startTimeout() {
+        String value = resolveProperty(LOCAL_START_TIMEOUT);
+        if (value.isEmpty())
+            return DEFAULT_START_TIMEOUT_SECONDS;
+        int timeout = parseInt(LOCAL_START_TIMEOUT, value);
+        if (timeout < 1)
+            throw new ExtensionConfigurationException("The " + LOCAL_START_TIMEOUT + " property must be a positive number of seconds, but was: " + value);
+        return timeout;
+    }
+
+    private static int parseInt(String property, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ExtensionConfigurationException("The " + property + " property must be a number, but was: " + value, e);
+        }
+    }
+
+}
@@ -18,6 +18,8 @@
  */
 package org.microshed.testing;
 
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+
 import java.net.MalformedURLException;
 import java.net.URL;
 
@@ -106,11 +108,6 @@ public class ManuallyStartedConfiguration implements ApplicationEnvironment {
         }
     }
 
-    private static String resolveProperty(String key) {
-        String value = System.getProperty(key, System.getenv(key));
-        return value == null ? "" : value;
-    }
-
     @Override
     public void start() {
         // already started -- no-op
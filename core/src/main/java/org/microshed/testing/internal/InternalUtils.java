@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Helpers for reading MicroShed Testing settings and computing content hashes
+ */
+public class InternalUtils {
+
+    private InternalUtils() {
+        // static utility
+    }
+
+    /**
+     * @param key The name of a system property, or environment variable if the system property is not set
+     * @return The trimmed value of the setting, or an empty string if it is not set
+     */
+    public static String resolveProperty(String key) {
+        String value = System.getProperty(key, System.getenv(key));
+        return value == null ? "" : value.trim();
+    }
+
+    public static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return The lowercase hex encoding of the supplied bytes
+     */
+    public static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes)
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return hex.toString();
+    }
+
+    /**
+     * @return The lowercase hex encoded SHA-256 digest of the supplied string
+     */
+    public static String sha256(String content) {
+        return sha256(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The lowercase hex encoded SHA-256 digest of the supplied bytes
+     */
+    public static String sha256(byte[] content) {
+        return toHex(newSha256Digest().digest(content));
+    }
+
+    /**
+     * @return The lowercase hex encoded SHA-256 digest of the content of the supplied file
+     */
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest = newSha256Digest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            byte[] buffer = new byte[64 * 1024];
+            while (in.read(buffer) != -1) {
+                // only digesting
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import org.microshed.testing.spi.LifecycleEvent;
+import org.microshed.testing.spi.LifecycleListener;
+
+/**
+ * Delivers {@link LifecycleEvent} instances to the {@link LifecycleListener} implementations
+ * found with the {@link ServiceLoader}
+ */
+public class LifecycleEvents {
+
+    private static final InternalLogger LOG = InternalLogger.get(LifecycleEvents.class);
+    private static volatile List<LifecycleListener> listeners;
+
+    private LifecycleEvents() {
+        // static utility
+    }
+
+    /**
+     * @return true if any listeners are registered, so that events are only created when they will be delivered
+     */
+    public static boolean hasListeners() {
+        return !listeners().isEmpty();
+    }
+
+    public static void fire(LifecycleEvent.Type type, Class<?> testClass, String subject) {
+        fire(type, testClass, subject, null, null);
+    }
+
+    public static void fire(LifecycleEvent.Type type, Class<?> testClass, String subject, String detail, Throwable failure) {
+        List<LifecycleListener> listeners = listeners();
+        if (listeners.isEmpty())
+            return;
+        LifecycleEvent event = new LifecycleEvent(type, System.nanoTime(), testClass, subject, detail, failure);
+        for (LifecycleListener listener : listeners) {
+            try {
+                listener.onEvent(event);
+            } catch (Throwable t) {
+                LOG.warn("LifecycleListener " + listener.getClass().getName() + " failed to handle event " + event, t);
+            }
+        }
+    }
+
+    private static List<LifecycleListener> listeners() {
+        List<LifecycleListener> result = listeners;
+        if (result != null)
+            return result;
+        synchronized (LifecycleEvents.class) {
+            if (listeners == null) {
+                List<LifecycleListener> found = new ArrayList<>();
+                try {
+                    ServiceLoader.load(LifecycleListener.class).forEach(found::add);
+                } catch (Throwable t) {
+                    LOG.warn("Unable to load LifecycleListener implementations", t);
+                }
+                found.forEach(l -> LOG.debug("Found LifecycleListener " + l.getClass()));
+                listeners = Collections.unmodifiableList(found);
+            }
+            return listeners;
+        }
+    }
+
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.internal;
+
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonWriter;
+import jakarta.json.stream.JsonGenerator;
+
+/**
+ * Records how long each phase of preparing the test environment takes, per test class and per container,
+ * and writes the recorded phases as a JSON report and in the Chrome trace event format at the end of the
+ * test run. The trace can be opened with <code>chrome://tracing</code> or <a href="https://ui.perfetto.dev">Perfetto</a>.
+ * <p>
+ * Recording is disabled unless the {@value #TIMING_REPORT} system property or environment variable is set.
+ */
+public class LifecycleTimings {
+
+    /**
+     * The name of the system property or environment variable that may be set to <code>true</code> to
+     * write a timing report to the build output directory, or to the directory the report should be written to
+     */
+    public static final String TIMING_REPORT = "microshed_timing_report";
+
+    public static final String CATEGORY_CLASS = "class";
+    public static final String CATEGORY_CONTAINER = "container";
+    public static final String CATEGORY_IMAGE = "image";
+    public static final String CATEGORY_PROCESS = "process";
+
+    static final String REPORT_FILE = "microshed-timings.json";
+    static final String TRACE_FILE = "microshed-timings.trace.json";
+
+    private static final InternalLogger LOG = InternalLogger.get(LifecycleTimings.class);
+    private static final long ORIGIN = System.nanoTime();
+    private static final Instant ORIGIN_TIME = Instant.now();
+    private static final Path REPORT_DIR = reportDirectory();
+    private static final List<Phase> phases = new ArrayList<>();
+    private static int written;
+    private static boolean shutdownHookAdded;
+
+    /**
+     * A single timed phase
+     */
+    public static class Phase {
+        public final String category;
+        public final String subject;
+        public final String phase;
+        public final String thread;
+        /** The start of the phase, in ns relative to the start of the test run */
+        public final long start;
+        /** The duration of the phase, in ns */
+        public final long duration;
+        /** true if the phase encloses other phases of the same subject */
+        public final boolean parent;
+
+        Phase(String category, String subject, String phase, String thread, long start, long duration, boolean parent) {
+            this.category = category;
+            this.subject = subject;
+            this.phase = phase;
+            this.thread = thread;
+            this.start = start;
+            this.duration = duration;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * A phase that is recorded when it is closed, for use with try-with-resources
+     */
+    public static class Span implements AutoCloseable {
+        private final String category;
+        private final String subject;
+        private final String phase;
+        private final long start = System.nanoTime();
+
+        private Span(String category, String subject, String phase) {
+            this.category = category;
+            this.subject = subject;
+            this.phase = phase;
+        }
+
+        @Override
+        public void close() {
+            record(category, subject, phase, start, System.nanoTime());
+        }
+    }
+
+    private LifecycleTimings() {
+        // static utility
+    }
+
+    /**
+     * @return true if a timing report will be written at the end of the test run
+     */
+    public static boolean isEnabled() {
+        return REPORT_DIR != null;
+    }
+
+    /**
+     * Begin timing a phase, which is recorded when the returned span is closed
+     */
+    public static Span span(String category, String subject, String phase) {
+        return new Span(category, subject, phase);
+    }
+
+    /**
+     * Record a phase that has completed
+     *
+     * @param category The kind of subject, such as {@link #CATEGORY_CLASS} or {@link #CATEGORY_CONTAINER}
+     * @param subject The test class, container, or image the phase belongs to
+     * @param phase The name of the phase
+     * @param startNanos The start of the phase, as obtained from {@link System#nanoTime()}
+     * @param endNanos The end of the phase, as obtained from {@link System#nanoTime()}
+     */
+    public static void record(String category, String subject, String phase, long startNanos, long endNanos) {
+        record(category, subject, phase, startNanos, endNanos, false);
+    }
+
+    /**
+     * Record a completed phase that encloses other phases of the same subject, such as the scheduled start of a
+     * container, which includes waiting for its image, creating it, and waiting for it to become ready. Enclosing
+     * phases are shown on the timeline, but are not counted in the total phase time of the subject.
+     *
+     * @see #record(String, String, String, long, long)
+     */
+    public static void recordParent(String category, String subject, String phase, long startNanos, long endNanos) {
+        record(category, subject, phase, startNanos, endNanos, true);
+    }
+
+    private static void record(String category, String subject, String phase, long startNanos, long endNanos, boolean parent) {
+        if (!isEnabled() || startNanos < 0 || endNanos < startNanos)
+            return;
+        Phase p = new Phase(category, subject, phase, Thread.currentThread().getName(), startNanos - ORIGIN, endNanos - startNanos, parent);
+        synchronized (phases) {
+            phases.add(p);
+            if (!shutdownHookAdded) {
+                // Normally the report is written when the test plan finishes, but not every launcher notifies listeners
+                Runtime.getRuntime().addShutdownHook(new Thread(LifecycleTimings::writeReport, "microshed-timing-report"));
+                shutdownHookAdded = true;
+            }
+        }
+    }
+
+    /**
+     * Write the report of all phases recorded so far, if any phases were recorded since the report was last written
+     */
+    public static void writeReport() {
+        List<Phase> snapshot;
+        synchronized (phases) {
+            if (!isEnabled() || phases.size() == written)
+                return;
+            snapshot = new ArrayList<>(phases);
+            written = snapshot.size();
+        }
+        try {
+            Files.createDirectories(REPORT_DIR);
+            write(REPORT_DIR.resolve(REPORT_FILE), toReport(snapshot, ORIGIN_TIME));
+            write(REPORT_DIR.resolve(TRACE_FILE), toTrace(snapshot));
+            LOG.info("Wrote timing report of the test environment to " + REPORT_DIR.resolve(REPORT_FILE).toAbsolutePath());
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Unable to write timing report to " + REPORT_DIR.toAbsolutePath(), e);
+        }
+    }
+
+    static JsonObject toReport(List<Phase> phases, Instant origin) {
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        Map<String, String[]> keys = new LinkedHashMap<>();
+        long end = 0;
+        JsonArrayBuilder phaseArray = Json.createArrayBuilder();
+        for (Phase p : sorted(phases)) {
+            phaseArray.add(Json.createObjectBuilder()
+                            .add("category", p.category)
+                            .add("subject", p.subject)
+                            .add("phase", p.phase)
+                            .add("thread", p.thread)
+                            .add("startMillis", millis(p.start))
+                            .add("durationMillis", millis(p.duration))
+                            .add("parent", p.parent));
+            String key = p.category + '\u0000' + p.subject;
+            long[] total = totals.computeIfAbsent(key, k -> new long[] { Long.MAX_VALUE, 0, 0 });
+            total[0] = Math.min(total[0], p.start);
+            total[1] = Math.max(total[1], p.start + p.duration);
+            // Enclosing phases would count the time of the phases they contain twice
+            if (!p.parent)
+                total[2] += p.duration;
+            keys.putIfAbsent(key, new String[] { p.category, p.subject });
+            end = Math.max(end, p.start + p.duration);
+        }
+
+        // Subjects with the longest wall clock span first, since those dominate the duration of the test run
+        List<String> bySpan = new ArrayList<>(totals.keySet());
+        bySpan.sort(Comparator.comparingLong((String k) -> totals.get(k)[1] - totals.get(k)[0]).reversed());
+        JsonArrayBuilder subjectArray = Json.createArrayBuilder();
+        for (String key : bySpan) {
+            long[] total = totals.get(key);
+            subjectArray.add(Json.createObjectBuilder()
+                            .add("category", keys.get(key)[0])
+                            .add("subject", keys.get(key)[1])
+                            .add("wallClockMillis", millis(total[1] - total[0]))
+                            .add("totalPhaseMillis", millis(total[2])));
+        }
+        return Json.createObjectBuilder()
+                        .add("startedAt", origin.toString())
+                        .add("durationMillis", millis(end))
+                        .add("subjects", subjectArray)
+                        .add("phases", phaseArray)
+                        .build();
+    }
+
+    static JsonObject toTrace(List<Phase> phases) {
+        JsonArrayBuilder events = Json.createArrayBuilder();
+        events.add(metadata("process_name", 0, "MicroShed Testing"));
+        // Each subject gets its own track, so that phases of the same container or class are shown together
+        Map<String, Integer> tracks = new LinkedHashMap<>();
+        for (Phase p : sorted(phases)) {
+            String key = p.category + ' ' + p.subject;
+            Integer tid = tracks.get(key);
+            if (tid == null) {
+                tid = tracks.size() + 1;
+                tracks.put(key, tid);
+                events.add(metadata("thread_name", tid, key));
+                events.add(Json.createObjectBuilder()
+                                .add("name", "thread_sort_index")
+                                .add("ph", "M")
+                                .add("pid", 1)
+                                .add("tid", tid)
+                                .add("args", Json.createObjectBuilder().add("sort_index", tid)));
+            }
+            events.add(Json.createObjectBuilder()
+                            .add("name", p.phase)
+                            .add("cat", p.category)
+                            .add("ph", "X")
+                            .add("ts", TimeUnit.NANOSECONDS.toMicros(p.start))
+                            .add("dur", TimeUnit.NANOSECONDS.toMicros(p.duration))
+                            .add("pid", 1)
+                            .add("tid", tid)
+                            .add("args", Json.createObjectBuilder()
+                                            .add("subject", p.subject)
+                                            .add("thread", p.thread)));
+        }
+        return Json.createObjectBuilder()
+                        .add("traceEvents", events)
+                        .add("displayTimeUnit", "ms")
+                        .build();
+    }
+
+    private static JsonObjectBuilder metadata(String name, int tid, String value) {
+        return Json.createObjectBuilder()
+                        .add("name", name)
+                        .add("ph", "M")
+                        .add("pid", 1)
+                        .add("tid", tid)
+                        .add("args", Json.createObjectBuilder().add("name", value));
+    }
+
+    private static List<Phase> sorted(List<Phase> phases) {
+        List<Phase> result = new ArrayList<>(phases);
+        result.sort(Comparator.comparingLong(p -> p.start));
+        return Collections.unmodifiableList(result);
+    }
+
+    private static void write(Path file, JsonObject json) throws IOException {
+        Map<String, Object> config = Collections.singletonMap(JsonGenerator.PRETTY_PRINTING, true);
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                        JsonWriter writer = Json.createWriterFactory(config).createWriter(w)) {
+            writer.writeObject(json);
+        }
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static Path reportDirectory() {
+        String value = resolveProperty(TIMING_REPORT);
+        if (value.isEmpty() || "false".equalsIgnoreCase(value))
+            return null;
+        if (!"true".equalsIgnoreCase(value))
+            return Paths.get(value);
+        // Default to the build output directory of Gradle or Maven
+        if (Files.isDirectory(Paths.get("build")))
+            return Paths.get("build");
+        if (Files.isDirectory(Paths.get("target")))
+            return Paths.get("target");
+        return Paths.get(".");
+    }
+
+}
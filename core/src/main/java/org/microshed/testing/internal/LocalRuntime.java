@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.internal;
+
+import static org.microshed.testing.internal.LifecycleTimings.CATEGORY_PROCESS;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+
+/**
+ * An application runtime that is launched as a child process of the test JVM, from a local installation or a
+ * runnable jar. The following runtimes are supported:
+ * <ul>
+ * <li>Liberty, from a <code>wlp</code> installation directory with the application already installed in a server</li>
+ * <li>Payara Micro, from a <code>payara-micro.jar</code>, deploying a war file</li>
+ * <li>Quarkus, from a fast-jar (<code>quarkus-run.jar</code> or the <code>quarkus-app</code> directory containing it)</li>
+ * </ul>
+ */
+public class LocalRuntime {
+
+    private static final InternalLogger LOG = InternalLogger.get(LocalRuntime.class);
+    private static final boolean isWindows = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+    private static final int STOP_TIMEOUT_SECONDS = 10;
+    private static final int OUTPUT_TAIL_LINES = 20;
+
+    // CWWKF0011I: The defaultServer server is ready to run a smarter planet.
+    private static final Pattern LIBERTY_READY = Pattern.compile("CWWKF0011I");
+    private static final Pattern LIBERTY_FATAL = Pattern.compile("CWWKZ0002E|CWWKZ0004E|CWWKE0005E");
+    // Payara Micro 6.2023.12 #badassmicrofish (build 1234) ready in 5,678 (ms)
+    private static final Pattern PAYARA_MICRO_READY = Pattern.compile("Payara Micro .* ready in");
+    private static final Pattern PAYARA_MICRO_FATAL = Pattern.compile("Exception while loading the app");
+    // myservice 1.0 on JVM (powered by Quarkus 3.8.1) started in 1.234s. Listening on: http://0.0.0.0:8080
+    private static final Pattern QUARKUS_READY = Pattern.compile("started in .*Listening on");
+
+    private final String description;
+    private final List<String> command;
+    private final Pattern readyMessage;
+    private final Pattern fatalMessage;
+    private final String contextRoot;
+    // files written before the runtime is launched, such as configuration overrides
+    private final Map<Path, String> generatedFiles = new LinkedHashMap<>();
+    private Process process;
+
+    private LocalRuntime(String description, List<String> command, Pattern readyMessage, Pattern fatalMessage, String contextRoot) {
+        this.description = description;
+        this.command = command;
+        this.readyMessage = readyMessage;
+        this.fatalMessage = fatalMessage;
+        this.contextRoot = contextRoot;
+    }
+
+    /**
+     * @param location A Liberty installation (the <code>wlp</code> directory), a Payara Micro jar, or a Quarkus fast-jar
+     * @param serverName The Liberty server to run, or null to run the only server of the installation
+     * @param appFile Supplies the application to deploy, for runtimes that do not contain the application already
+     * @param httpPort The HTTP port the runtime should listen on
+     * @param httpsPort The HTTPS port the runtime should listen on
+     * @throws ExtensionConfigurationException If the location does not contain a supported runtime
+     */
+    public static LocalRuntime of(Path location, String serverName, Supplier<Path> appFile, int httpPort, int httpsPort) {
+        String fileName = location.getFileName() == null ? "" : location.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (Files.isRegularFile(location.resolve("bin").resolve("server"))) {
+            String server = serverName != null ? serverName : defaultLibertyServer(location);
+            Path serverDir = location.resolve("usr").resolve("servers").resolve(server);
+            if (!Files.isDirectory(serverDir))
+                throw new ExtensionConfigurationException("The Liberty server " + server + " does not exist in " + location.toAbsolutePath());
+            List<String> command = Arrays.asList(location.resolve("bin").resolve(isWindows ? "server.bat" : "server").toString(), "run", server);
+            LocalRuntime liberty = new LocalRuntime("Liberty server " + server, command, LIBERTY_READY, LIBERTY_FATAL, "/");
+            // Overrides take precedence over server.xml and bootstrap.properties, and apply to servers that use the
+            // ${default.http.port} variables as well as to servers that configure the default endpoint directly
+            String overrides = "<server>\n" +
+                               "    <variable name=\"default.http.port\" value=\"" + httpPort + "\"/>\n" +
+                               "    <variable name=\"default.https.port\" value=\"" + httpsPort + "\"/>\n" +
+                               "    <httpEndpoint id=\"defaultHttpEndpoint\" httpPort=\"" + httpPort + "\" httpsPort=\"" + httpsPort + "\"/>\n" +
+                               "</server>\n";
+            liberty.generatedFiles.put(serverDir.resolve("configDropins").resolve("overrides").resolve("microshed-local-ports.xml"), overrides);
+            return liberty;
+        }
+        if (Files.isRegularFile(location) && fileName.startsWith("payara-micro") && fileName.endsWith(".jar")) {
+            Path app = appFile.get();
+            String appName = app.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+            List<String> command = Arrays.asList(java(), "-jar", location.toString(),
+                                                 "--deploy", app.toString(),
+                                                 "--port", String.valueOf(httpPort),
+                                                 "--sslport", String.valueOf(httpsPort),
+                                                 "--nocluster");
+            return new LocalRuntime("Payara Micro", command, PAYARA_MICRO_READY, PAYARA_MICRO_FATAL, "/" + appName);
+        }
+        Path quarkusJar = Files.isDirectory(location) ? location.resolve("quarkus-run.jar") : location;
+        if (Files.isRegularFile(quarkusJar) && "quarkus-run.jar".equals(quarkusJar.getFileName().toString())) {
+            List<String> command = Arrays.asList(java(),
+                                                 "-Dquarkus.http.port=" + httpPort,
+                                                 "-Dquarkus.http.ssl-port=" + httpsPort,
+                                                 "-jar", quarkusJar.toString());
+            return new LocalRuntime("Quarkus application", command, QUARKUS_READY, null, "/");
+        }
+        throw new ExtensionConfigurationException("The location " + location.toAbsolutePath() + " is not a Liberty installation, " +
+                                                  "a Payara Micro jar, or a Quarkus fast-jar");
+    }
+
+    /**
+     * @return The context root the application is available at by default
+     */
+    public String getContextRoot() {
+        return contextRoot;
+    }
+
+    List<String> getCommand() {
+        return command;
+    }
+
+    public boolean isAlive() {
+        return process != null && process.isAlive();
+    }
+
+    /**
+     * Launch the runtime and wait until it reports that it is ready. The runtime is stopped when the JVM exits.
+     *
+     * @param timeout How long to wait for the runtime to become ready
+     * @throws ExtensionConfigurationException If the runtime fails to start within the timeout
+     */
+    public synchronized void start(Duration timeout) {
+        long start = System.nanoTime();
+        Path log;
+        try {
+            for (Map.Entry<Path, String> file : generatedFiles.entrySet()) {
+                Files.createDirectories(file.getKey().getParent());
+                Files.write(file.getKey(), file.getValue().getBytes(StandardCharsets.UTF_8));
+            }
+            log = Files.createTempFile("microshed-local-", ".log");
+            LOG.info("Starting " + description + " with: " + String.join(" ", command));
+            LOG.info("Output of " + description + " is written to " + log.toAbsolutePath());
+            process = new ProcessBuilder(command)
+                            .redirectErrorStream(true)
+                            .redirectOutput(log.toFile())
+                            .start();
+        } catch (IOException e) {
+            throw new ExtensionConfigurationException("Unable to start " + description, e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "microshed-local-runtime-stop"));
+        awaitReady(log, timeout);
+        long end = System.nanoTime();
+        LifecycleTimings.record(CATEGORY_PROCESS, description, "start", start, end);
+        LOG.info("Started " + description + " in " + TimeUnit.NANOSECONDS.toMillis(end - start) + "ms");
+    }
+
+    /**
+     * Stop the runtime, including any processes it launched itself
+     */
+    public synchronized void stop() {
+        if (!isAlive())
+            return;
+        LOG.info("Stopping " + description);
+        List<ProcessHandle> descendants = process.descendants().collect(Collectors.toList());
+        process.destroy();
+        descendants.forEach(ProcessHandle::destroy);
+        try {
+            if (!process.waitFor(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                LOG.warn(description + " did not stop within " + STOP_TIMEOUT_SECONDS + "s, killing it");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        process.destroyForcibly();
+        descendants.forEach(ProcessHandle::destroyForcibly);
+    }
+
+    private void awaitReady(Path log, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long backoff = 10;
+        StringBuilder output = new StringBuilder();
+        byte[] buffer = new byte[8192];
+        int scanned = 0;
+        try (InputStream in = Files.newInputStream(log)) {
+            while (true) {
+                // Check whether the process exited before reading, so that its last output is read as well
+                boolean exited = !process.isAlive();
+                for (int read; (read = in.read(buffer)) > 0;) {
+                    output.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+                    backoff = 10;
+                }
+                // Only match complete lines
+                int end = output.lastIndexOf("\n") + 1;
+                if (end > scanned) {
+                    CharSequence lines = output.subSequence(scanned, end);
+                    if (fatalMessage != null && fatalMessage.matcher(lines).find())
+                        throw startFailure("failed to start", output);
+                    if (readyMessage.matcher(lines).find())
+                        return;
+                    scanned = end;
+                }
+                if (exited)
+                    throw startFailure("exited with code " + process.exitValue(), output);
+                if (System.nanoTime() - deadline > 0)
+                    throw startFailure("did not start within " + timeout.getSeconds() + "s", output);
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, 100);
+            }
+        } catch (IOException e) {
+            stop();
+            throw new ExtensionConfigurationException("Unable to read the output of " + description + " from " + log, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stop();
+            throw new ExtensionConfigurationException("Interrupted while waiting for " + description + " to start", e);
+        }
+    }
+
+    private ExtensionConfigurationException startFailure(String reason, CharSequence output) {
+        stop();
+        List<String> lines = Arrays.asList(output.toString().split("\\r?\\n"));
+        String tail = String.join("\n", lines.subList(Math.max(0, lines.size() - OUTPUT_TAIL_LINES), lines.size()));
+        return new ExtensionConfigurationException(description + " " + reason + ". The last lines of its output were:\n" + tail);
+    }
+
+    /**
+     * @return The only server of a Liberty installation, or <code>defaultServer</code> if there are none or several
+     */
+    private static String defaultLibertyServer(Path wlp) {
+        List<String> servers = new ArrayList<>();
+        try (Stream<Path> dirs = Files.list(wlp.resolve("usr").resolve("servers"))) {
+            dirs.filter(Files::isDirectory).forEach(dir -> servers.add(dir.getFileName().toString()));
+        } catch (IOException ignore) {
+        }
+        return servers.size() == 1 ? servers.get(0) : "defaultServer";
+    }
+
+    private static String java() {
+        return Paths.get(System.getProperty("java.home"), "bin", isWindows ? "java.exe" : "java").toString();
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+
+}
@@ -35,9 +35,10 @@ class KafkaConfigAnnotationProcessor {
 
     private final Map<Class<?>, String> defaultSerailizers = new HashMap<>();
     private final Map<Class<?>, String> defaultDeserailizers = new HashMap<>();
-    private final String globalBootstrapServers = System.getProperty("org.microshed.kafka.bootstrap.servers");
+    private final String defaultBootstrapServers;
 
-    KafkaConfigAnnotationProcessor() {
+    KafkaConfigAnnotationProcessor(String defaultBootstrapServers) {
+        this.defaultBootstrapServers = defaultBootstrapServers == null ? "" : defaultBootstrapServers;
         defaultSerailizers.put(byte[].class, "org.apache.kafka.common.serialization.ByteArraySerializer");
         defaultSerailizers.put(ByteBuffer.class, "org.apache.kafka.common.serialization.ByteBufferSerializer");
         defaultSerailizers.put(Double.class, "org.apache.kafka.common.serialization.DoubleSerializer");
@@ -62,7 +63,7 @@ class KafkaConfigAnnotationProcessor {
     Properties getProducerProperties(Field producerField) {
         KafkaProducerClient producerConfig = producerField.getAnnotation(KafkaProducerClient.class);
         Properties properties = new Properties();
-        String bootstrapServers = producerConfig.bootstrapServers().isEmpty() ? globalBootstrapServers : producerConfig.bootstrapServers();
+        String bootstrapServers = producerConfig.bootstrapServers().isEmpty() ? defaultBootstrapServers : producerConfig.bootstrapServers();
         if (bootstrapServers.isEmpty())
             throw new ExtensionConfigurationException("To use @KafkaProducerClient on a KafkaProducer a bootstrap server must be " +
                                                       "defined in the @KafkaProducerClient annotation or using the " +
@@ -99,7 +100,7 @@ class KafkaConfigAnnotationProcessor {
     Properties getConsumerProperties(Field consumerField) {
         KafkaConsumerClient consumerConfig = consumerField.getAnnotation(KafkaConsumerClient.class);
         Properties properties = new Properties();
-        String bootstrapServers = consumerConfig.bootstrapServers().isEmpty() ? globalBootstrapServers : consumerConfig.bootstrapServers();
+        String bootstrapServers = consumerConfig.bootstrapServers().isEmpty() ? defaultBootstrapServers : consumerConfig.bootstrapServers();
         if (bootstrapServers.isEmpty())
             throw new ExtensionConfigurationException("To use @KafkaConsumerClient on a KafkaConsumer a bootstrap server must be " +
                                                       "defined in the @KafkaConsumerClient annotation or using the " +
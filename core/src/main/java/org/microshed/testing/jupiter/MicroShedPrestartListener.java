@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.jupiter;
+
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.microshed.testing.ApplicationEnvironment;
+import org.microshed.testing.internal.InternalLogger;
+import org.microshed.testing.internal.LifecycleTimings;
+
+/**
+ * JUnit Platform listener that begins preparing the test environment for all <code>@MicroShedTest</code>
+ * classes as soon as the test plan is known, so that work such as starting containers overlaps with
+ * test discovery and the execution of earlier test classes.
+ * <p>
+ * Test classes are prestarted in execution order on a background thread, staying at most
+ * {@value #DEFAULT_LOOKAHEAD} classes ahead of the classes that have finished running by default.
+ */
+public class MicroShedPrestartListener implements TestExecutionListener {
+
+    /**
+     * The name of the system property or environment variable that may be set to <code>false</code>
+     * to disable prestarting the test environment
+     */
+    public static final String PRESTART_ENABLED = "microshed_prestart";
+
+    /**
+     * The name of the system property or environment variable that defines how many test classes may
+     * be prestarted ahead of the test classes that have completed
+     */
+    public static final String PRESTART_LOOKAHEAD = "microshed_prestart_classes";
+
+    private static final InternalLogger LOG = InternalLogger.get(MicroShedPrestartListener.class);
+    private static final int DEFAULT_LOOKAHEAD = 2;
+
+    private final Map<String, Class<?>> testClasses = new LinkedHashMap<>();
+    private volatile Semaphore window;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        if ("false".equalsIgnoreCase(resolveProperty(PRESTART_ENABLED)))
+            return;
+
+        for (TestIdentifier root : testPlan.getRoots()) {
+            for (TestIdentifier id : testPlan.getDescendants(root)) {
+                Class<?> testClass = getTestClass(id);
+                if (testClass != null && AnnotationSupport.isAnnotated(testClass, MicroShedTest.class))
+                    testClasses.put(id.getUniqueId(), testClass);
+            }
+        }
+        if (testClasses.isEmpty())
+            return;
+
+        window = new Semaphore(lookahead());
+        List<Class<?>> toPrestart = new ArrayList<>(testClasses.values());
+        Thread prestartThread = new Thread(() -> prestart(toPrestart), "microshed-prestart");
+        prestartThread.setDaemon(true);
+        prestartThread.start();
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        classDone(testIdentifier);
+    }
+
+    @Override
+    public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+        classDone(testIdentifier);
+    }
+
+    private void classDone(TestIdentifier testIdentifier) {
+        Semaphore window = this.window;
+        if (window != null && testClasses.containsKey(testIdentifier.getUniqueId()))
+            window.release();
+    }
+
+    private void prestart(List<Class<?>> classes) {
+        ApplicationEnvironment env;
+        try {
+            env = ApplicationEnvironment.Resolver.load();
+        } catch (Throwable t) {
+            LOG.warn("Not prestarting the test environment because no ApplicationEnvironment could be loaded", t);
+            return;
+        }
+        for (Class<?> testClass : classes) {
+            try {
+                window.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try (LifecycleTimings.Span span = LifecycleTimings.span(LifecycleTimings.CATEGORY_CLASS, testClass.getName(), "prestart")) {
+                // Initialize the test class the same way as MicroShedTestExtension does before its environment is started
+                MicroShedTestExtension.initializeSharedConfig(testClass);
+                env.prestart(testClass);
+            } catch (Throwable t) {
+                // The environment reports the failure again when the test class runs, so the test class fails rather than the test plan
+                LOG.warn("Unable to prestart the test environment for " + testClass, t);
+            }
+        }
+    }
+
+    private static Class<?> getTestClass(TestIdentifier id) {
+        if (!id.isContainer() || !id.getSource().isPresent())
+            return null;
+        TestSource source = id.getSource().get();
+        if (!(source instanceof ClassSource))
+            return null;
+        try {
+            return ((ClassSource) source).getJavaClass();
+        } catch (Exception | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static int lookahead() {
+        String value = resolveProperty(PRESTART_LOOKAHEAD);
+        try {
+            return value.isEmpty() ? DEFAULT_LOOKAHEAD : Math.max(1, Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            LOG.warn("Ignoring invalid value for " + PRESTART_LOOKAHEAD + ": " + value);
+            return DEFAULT_LOOKAHEAD;
+        }
+    }
+
+}
@@ -36,4 +36,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 @ExtendWith(MicroShedTestExtension.class)
 public @interface MicroShedTest {
 
+    /**
+     * Restart the application before the tests of the annotated class run, if the running application already
+     * served other test classes, for example because its containers are shared with a
+     * {@link org.microshed.testing.SharedContainerConfig}. Restarting only the application is much faster than
+     * starting a new container, and gives the test class an application without state left behind by earlier
+     * test classes. The application is not restarted while other test classes use it concurrently.
+     *
+     * @return true if the application should be restarted before the tests of the annotated class run
+     */
+    boolean resetApplication() default false;
+
 }
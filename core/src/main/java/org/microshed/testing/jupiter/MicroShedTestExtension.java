@@ -18,6 +18,9 @@
  */
 package org.microshed.testing.jupiter;
 
+import static org.microshed.testing.internal.LifecycleTimings.CATEGORY_CLASS;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.ExtensionConfigurationException;
 import org.junit.jupiter.api.extension.ExtensionContext;
@@ -25,6 +28,8 @@ import org.junit.platform.commons.support.AnnotationSupport;
 import org.microshed.testing.ApplicationEnvironment;
 import org.microshed.testing.SharedContainerConfig;
 import org.microshed.testing.internal.InternalLogger;
+import org.microshed.testing.internal.LifecycleEvents;
+import org.microshed.testing.internal.LifecycleTimings;
 import org.microshed.testing.jaxrs.BasicAuthConfig;
 import org.microshed.testing.jaxrs.RESTClient;
 import org.microshed.testing.jaxrs.RestClientBuilder;
@@ -32,6 +37,7 @@ import org.microshed.testing.jwt.JwtBuilder;
 import org.microshed.testing.jwt.JwtConfig;
 import org.microshed.testing.kafka.KafkaConsumerClient;
 import org.microshed.testing.kafka.KafkaProducerClient;
+import org.microshed.testing.spi.LifecycleEvent;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
@@ -44,36 +50,104 @@ import java.util.*;
  * Currently this is tied to Testcontainers managing runtime build/deployment, but in a future version
  * it could be refactored to allow for a different framework managing the runtime build/deployment.
  */
-public class MicroShedTestExtension implements BeforeAllCallback {
+public class MicroShedTestExtension implements BeforeAllCallback, AfterAllCallback {
 
     private static final InternalLogger LOG = InternalLogger.get(MicroShedTestExtension.class);
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(MicroShedTestExtension.class);
 
     @Override
     public void beforeAll(ExtensionContext context) throws Exception {
-        beforeAll(context.getRequiredTestClass());
+        ApplicationEnvironment env = startEnvironment(context.getRequiredTestClass());
+        // Keep the environment with the class it was started for, since test classes may run concurrently
+        context.getStore(NAMESPACE).put(ApplicationEnvironment.class, env);
     }
 
     public void beforeAll(Class<?> testClass) throws Exception {
-        // Explicitly trigger static initialization of any SharedContainerConfig before we do further processing
-        if (testClass.isAnnotationPresent(SharedContainerConfig.class)) {
-            Class.forName(testClass.getAnnotation(SharedContainerConfig.class).value().getName());
+        startEnvironment(testClass);
+    }
+
+    /**
+     * Configure and start the test environment of a test class
+     *
+     * @return The environment that was started for the test class
+     */
+    ApplicationEnvironment startEnvironment(Class<?> testClass) throws Exception {
+        LifecycleEvents.fire(LifecycleEvent.Type.CLASS_STARTING, testClass, testClass.getName());
+        try {
+            ApplicationEnvironment env = setUp(testClass);
+            LifecycleEvents.fire(LifecycleEvent.Type.CLASS_READY, testClass, testClass.getName());
+            return env;
+        } catch (Exception | Error e) {
+            LifecycleEvents.fire(LifecycleEvent.Type.CLASS_FAILED, testClass, testClass.getName(), null, e);
+            throw e;
         }
+    }
+
+    private ApplicationEnvironment setUp(Class<?> testClass) throws Exception {
+        initializeSharedConfig(testClass);
 
         ApplicationEnvironment config = ApplicationEnvironment.Resolver.load();
         LOG.info("Using ApplicationEnvironment class: " + config.getClass().getCanonicalName());
-        config.preConfigure(testClass);
-        config.start();
+        configure(testClass, config);
+        return config;
+    }
+
+    /**
+     * Start the selected environment for a test class, reset its application if the class requests it with
+     * {@link MicroShedTest#resetApplication()}, and apply the environment configuration to the class
+     */
+    static void configure(Class<?> testClass, ApplicationEnvironment config) {
+        String subject = testClass.getName();
+        try (LifecycleTimings.Span span = LifecycleTimings.span(CATEGORY_CLASS, subject, "preConfigure")) {
+            config.preConfigure(testClass);
+        }
+        try (LifecycleTimings.Span span = LifecycleTimings.span(CATEGORY_CLASS, subject, "start")) {
+            config.start(testClass);
+        }
+        if (AnnotationSupport.findAnnotation(testClass, MicroShedTest.class).map(MicroShedTest::resetApplication).orElse(false)) {
+            try (LifecycleTimings.Span span = LifecycleTimings.span(CATEGORY_CLASS, subject, "application reset")) {
+                config.resetApplication(testClass);
+            }
+        }
         postConfigure(testClass, config);
     }
 
+    /**
+     * Explicitly trigger static initialization of any SharedContainerConfig of a test class before its
+     * environment is configured or prestarted
+     */
+    static void initializeSharedConfig(Class<?> testClass) throws ClassNotFoundException {
+        SharedContainerConfig sharedConfig = testClass.getAnnotation(SharedContainerConfig.class);
+        if (sharedConfig != null) {
+            Class.forName(sharedConfig.value().getName(), true, sharedConfig.value().getClassLoader());
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws Exception {
+        ApplicationEnvironment env = context.getStore(NAMESPACE).remove(ApplicationEnvironment.class, ApplicationEnvironment.class);
+        if (env != null)
+            env.cleanup(context.getRequiredTestClass());
+        LifecycleEvents.fire(LifecycleEvent.Type.CLASS_FINISHED, context.getRequiredTestClass(), context.getRequiredTestClass().getName());
+    }
+
     public static void postConfigure(Class<?> testClass, ApplicationEnvironment env) {
-        configureRestAssured(env);
-        injectRestClients(testClass);
-        injectKafkaClients(testClass);
-        env.postConfigure(testClass);
+        String subject = testClass.getName();
+        try (LifecycleTimings.Span span = LifecycleTimings.span(CATEGORY_CLASS, subject, "RestAssured configuration")) {
+            configureRestAssured(testClass, env);
+        }
+        try (LifecycleTimings.Span span = LifecycleTimings.span(CATEGORY_CLASS, subject, "REST client injection")) {
+            injectRestClients(testClass, env);
+        }
+        try (LifecycleTimings.Span span = LifecycleTimings.span(CATEGORY_CLASS, subject, "Kafka client injection")) {
+            injectKafkaClients(testClass, env);
+        }
+        try (LifecycleTimings.Span span = LifecycleTimings.span(CATEGORY_CLASS, subject, "postConfigure")) {
+            env.postConfigure(testClass);
+        }
     }
 
-    private static void injectRestClients(Class<?> clazz) {
+    private static void injectRestClients(Class<?> clazz, ApplicationEnvironment env) {
         List<Field> restClientFields = new ArrayList<>();
         restClientFields.addAll(AnnotationSupport.findAnnotatedFields(clazz, RESTClient.class));
         // Also tolerate people using the MicroProfile @RestClient annotation instead
@@ -89,7 +163,8 @@ public class MicroShedTestExtension implements BeforeAllCallback {
                     Modifier.isFinal(restClientField.getModifiers())) {
                 throw new ExtensionConfigurationException("REST client field must be public, static, and non-final: " + restClientField);
             }
-            RestClientBuilder rcBuilder = new RestClientBuilder();
+            RestClientBuilder rcBuilder = new RestClientBuilder()
+                            .withAppContextRoot(env.getApplicationURL(clazz));
             JwtConfig jwtAnno = restClientField.getDeclaredAnnotation(JwtConfig.class);
             BasicAuthConfig basicAnno = restClientField.getDeclaredAnnotation(BasicAuthConfig.class);
             if (jwtAnno != null && basicAnno != null)
@@ -111,20 +186,21 @@ public class MicroShedTestExtension implements BeforeAllCallback {
             try {
                 restClientField.set(null, restClient);
                 LOG.debug("Injected rest client for " + restClientField);
+                clientInjected(clazz, restClientField);
             } catch (Exception e) {
                 throw new ExtensionConfigurationException("Unable to inject field " + restClientField, e);
             }
         }
     }
 
-    private static void injectKafkaClients(Class<?> clazz) {
+    private static void injectKafkaClients(Class<?> clazz, ApplicationEnvironment env) {
         // Verify kafka-client and testcontainers-kafka is on classpath
         Class<?> KafkaProducer = tryLoad("org.apache.kafka.clients.producer.KafkaProducer");
         Class<?> KafkaConsumer = tryLoad("org.apache.kafka.clients.consumer.KafkaConsumer");
         if (KafkaProducer == null || KafkaConsumer == null)
             return;
 
-        KafkaConfigAnnotationProcessor kafkaProcessor = new KafkaConfigAnnotationProcessor();
+        KafkaConfigAnnotationProcessor kafkaProcessor = new KafkaConfigAnnotationProcessor(env.getKafkaBootstrapServers(clazz));
 
         List<Field> kafkaProducerFields = AnnotationSupport.findAnnotatedFields(clazz, KafkaProducerClient.class);
         for (Field producerField : kafkaProducerFields) {
@@ -143,6 +219,7 @@ public class MicroShedTestExtension implements BeforeAllCallback {
                 Object producer = KafkaProducer.getConstructor(Properties.class).newInstance(properties);
                 producerField.set(null, producer);
                 LOG.debug("Injected kafka producer for " + producerField + " with config " + producerField.getAnnotation(KafkaProducerClient.class));
+                clientInjected(clazz, producerField);
             } catch (Exception e) {
                 throw new ExtensionConfigurationException("Unable to inject field " + producerField, e);
             }
@@ -166,6 +243,7 @@ public class MicroShedTestExtension implements BeforeAllCallback {
                 Object consumer = KafkaConsumer.getConstructor(Properties.class).newInstance(properties);
                 consumerField.set(null, consumer);
                 LOG.debug("Injected kafka consumer for " + consumerField + " with config " + consumerConfig);
+                clientInjected(clazz, consumerField);
                 if (consumerConfig.topics().length > 0) {
                     Collection<String> topics = Arrays.asList(consumerConfig.topics());
                     KafkaConsumer.getMethod("subscribe", Collection.class).invoke(consumer, topics);
@@ -177,8 +255,12 @@ public class MicroShedTestExtension implements BeforeAllCallback {
         }
     }
 
+    private static void clientInjected(Class<?> testClass, Field field) {
+        LifecycleEvents.fire(LifecycleEvent.Type.CLIENT_INJECTED, testClass, field.getName(), field.getType().getName(), null);
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
-    private static void configureRestAssured(ApplicationEnvironment config) {
+    private static void configureRestAssured(Class<?> testClass, ApplicationEnvironment config) {
         if (!config.configureRestAssured())
             return;
 
@@ -187,7 +269,9 @@ public class MicroShedTestExtension implements BeforeAllCallback {
             return;
 
         try {
-            URL appURL = new URL(config.getApplicationURL());
+            // REST Assured only supports global defaults, so classes running concurrently should
+            // use per-request specifications instead of relying on these values
+            URL appURL = new URL(config.getApplicationURL(testClass));
             String baseURI = appURL.getProtocol() + "://" + appURL.getHost();
             int port = appURL.getPort();
             String basePath = appURL.getPath();
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.spi;
+
+import java.util.Optional;
+
+/**
+ * An event in the lifecycle of the test environment, which is delivered to all {@link LifecycleListener} instances
+ */
+public class LifecycleEvent {
+
+    public static enum Type {
+        /** The {@link org.microshed.testing.ApplicationEnvironment} to use was selected. The subject is the name of its class. */
+        ENVIRONMENT_SELECTED,
+        /** The test environment of a test class is being set up */
+        CLASS_STARTING,
+        /** An image was scheduled to be built in the background */
+        IMAGE_BUILDING,
+        /** An image was built. The detail is the name of the image. */
+        IMAGE_BUILT,
+        /** An image failed to build */
+        IMAGE_BUILD_FAILED,
+        /** A container is starting */
+        CONTAINER_STARTING,
+        /** A container was started and is ready */
+        CONTAINER_READY,
+        /** A container failed to start */
+        CONTAINER_FAILED,
+        /** A client was injected into a field of a test class. The subject is the name of the field, and the detail is its type. */
+        CLIENT_INJECTED,
+        /** The test environment of a test class is ready, and the tests of the class are about to run */
+        CLASS_READY,
+        /** The test environment of a test class could not be set up */
+        CLASS_FAILED,
+        /** All tests of a test class have run */
+        CLASS_FINISHED
+    }
+
+    private final Type type;
+    private final long timestamp;
+    private final Class<?> testClass;
+    private final String subject;
+    private final String detail;
+    private final Throwable failure;
+
+    public LifecycleEvent(Type type, long timestamp, Class<?> testClass, String subject, String detail, Throwable failure) {
+        this.type = type;
+        this.timestamp = timestamp;
+        this.testClass = testClass;
+        this.subject = subject;
+        this.detail = detail;
+        this.failure = failure;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The time the event occurred, as obtained from {@link System#nanoTime()}. Timestamps are monotonic,
+     *         so the difference between the timestamps of two events is the time that elapsed between them.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return The test class the event relates to, if it is known. Events about containers that are shared
+     *         between test classes, and about images, are not related to a single test class.
+     */
+    public Optional<Class<?>> getTestClass() {
+        return Optional.ofNullable(testClass);
+    }
+
+    /**
+     * @return What the event is about, such as the name of a container, image, or field. For events about test
+     *         classes, this is the name of the test class.
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * @return Additional information about the event, if any
+     */
+    public Optional<String> getDetail() {
+        return Optional.ofNullable(detail);
+    }
+
+    /**
+     * @return The cause of a failure, for {@link Type#IMAGE_BUILD_FAILED}, {@link Type#CONTAINER_FAILED},
+     *         and {@link Type#CLASS_FAILED} events
+     */
+    public Optional<Throwable> getFailure() {
+        return Optional.ofNullable(failure);
+    }
+
+    @Override
+    public String toString() {
+        return type + "[" + subject + (detail == null ? "" : ", " + detail) + "]@" + timestamp;
+    }
+
+}
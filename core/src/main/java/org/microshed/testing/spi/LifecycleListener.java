@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.spi;
+
+/**
+ * A listener that is notified of the lifecycle of the test environment, for example to export metrics
+ * or build a timeline of a test run. Implementations are discovered with the {@link java.util.ServiceLoader},
+ * by listing them in a <code>META-INF/services/org.microshed.testing.spi.LifecycleListener</code> file.
+ * <p>
+ * Events are delivered synchronously on the thread that caused them, which may be a background thread that
+ * starts containers or builds images. Implementations must therefore be thread-safe, and should return
+ * quickly. Exceptions thrown by a listener are logged and otherwise ignored.
+ */
+public interface LifecycleListener {
+
+    /**
+     * @param event The event that occurred
+     */
+    void onEvent(LifecycleEvent event);
+
+}
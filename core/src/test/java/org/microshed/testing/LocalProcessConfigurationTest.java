@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LocalProcessConfigurationTest {
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    public void clearProperties() {
+        System.clearProperty(LocalProcessConfiguration.LOCAL_RUNTIME);
+        System.clearProperty(LocalProcessConfiguration.LOCAL_APP_FILE);
+        System.clearProperty(LocalProcessConfiguration.LOCAL_START_TIMEOUT);
+        System.clearProperty(ManuallyStartedConfiguration.MICROSHED_HTTP_PORT);
+    }
+
+    @Test
+    public void testExplicitLocation() {
+        System.setProperty(LocalProcessConfiguration.LOCAL_RUNTIME, "/opt/wlp");
+        assertEquals(Paths.get("/opt/wlp"), LocalProcessConfiguration.location(dir));
+    }
+
+    @Test
+    public void testDefaultLocation() throws Exception {
+        System.setProperty(LocalProcessConfiguration.LOCAL_RUNTIME, "true");
+        assertThrows(ExtensionConfigurationException.class, () -> LocalProcessConfiguration.location(dir));
+
+        Files.createDirectories(dir.resolve("build/quarkus-app"));
+        assertEquals(dir.resolve("build/quarkus-app"), LocalProcessConfiguration.location(dir));
+
+        // The default locations are checked in order, Liberty before Quarkus
+        Files.createDirectories(dir.resolve("target/liberty/wlp"));
+        assertEquals(dir.resolve("target/liberty/wlp"), LocalProcessConfiguration.location(dir));
+    }
+
+    @Test
+    public void testExplicitAppFile() {
+        System.setProperty(LocalProcessConfiguration.LOCAL_APP_FILE, "/apps/myservice.war");
+        assertEquals(Paths.get("/apps/myservice.war"), LocalProcessConfiguration.appFile(dir));
+    }
+
+    @Test
+    public void testDefaultAppFile() throws Exception {
+        assertThrows(ExtensionConfigurationException.class, () -> LocalProcessConfiguration.appFile(dir));
+
+        Files.createDirectories(dir.resolve("build/libs"));
+        Files.createFile(dir.resolve("build/libs/myservice.jar"));
+        Path war = Files.createFile(dir.resolve("build/libs/myservice.war"));
+        assertEquals(war, LocalProcessConfiguration.appFile(dir));
+
+        Files.createDirectories(dir.resolve("target"));
+        Files.createFile(dir.resolve("target/other.war"));
+        ExtensionConfigurationException e = assertThrows(ExtensionConfigurationException.class, () -> LocalProcessConfiguration.appFile(dir));
+        assertTrue(e.getMessage().contains(LocalProcessConfiguration.LOCAL_APP_FILE), e.getMessage());
+    }
+
+    @Test
+    public void testPort() {
+        int port = LocalProcessConfiguration.port(ManuallyStartedConfiguration.MICROSHED_HTTP_PORT);
+        assertTrue(port > 0 && port <= 65535, "Not a free port: " + port);
+
+        System.setProperty(ManuallyStartedConfiguration.MICROSHED_HTTP_PORT, "9080");
+        assertEquals(9080, LocalProcessConfiguration.port(ManuallyStartedConfiguration.MICROSHED_HTTP_PORT));
+    }
+
+    @Test
+    public void testInvalidPort() {
+        for (String value : new String[] { "http", "0", "65536" }) {
+            System.setProperty(ManuallyStartedConfiguration.MICROSHED_HTTP_PORT, value);
+            ExtensionConfigurationException e = assertThrows(ExtensionConfigurationException.class,
+                                                             () -> LocalProcessConfiguration.port(ManuallyStartedConfiguration.MICROSHED_HTTP_PORT));
+            assertTrue(e.getMessage().contains(ManuallyStartedConfiguration.MICROSHED_HTTP_PORT), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testStartTimeout() {
+        assertEquals(LocalProcessConfiguration.DEFAULT_START_TIMEOUT_SECONDS, LocalProcessConfiguration.startTimeout());
+
+        System.setProperty(LocalProcessConfiguration.LOCAL_START_TIMEOUT, "30");
+        assertEquals(30, LocalProcessConfiguration.startTimeout());
+
+        for (String value : new String[] { "30s", "0" }) {
+            System.setProperty(LocalProcessConfiguration.LOCAL_START_TIMEOUT, value);
+            ExtensionConfigurationException e = assertThrows(ExtensionConfigurationException.class, LocalProcessConfiguration::startTimeout);
+            assertTrue(e.getMessage().contains(LocalProcessConfiguration.LOCAL_START_TIMEOUT), e.getMessage());
+        }
+    }
+
+}
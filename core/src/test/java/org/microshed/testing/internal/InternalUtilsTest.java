@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class InternalUtilsTest {
+
+    private static final String ABC_SHA256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testSha256() throws Exception {
+        assertEquals(ABC_SHA256, InternalUtils.sha256("abc"));
+        assertEquals(ABC_SHA256, InternalUtils.sha256("abc".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(ABC_SHA256, InternalUtils.sha256(Files.write(dir.resolve("abc.txt"), "abc".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void testToHex() {
+        assertEquals("", InternalUtils.toHex(new byte[0]));
+        assertEquals("00010aff", InternalUtils.toHex(new byte[] { 0, 1, 10, (byte) 0xFF }));
+    }
+
+    @Test
+    public void testResolveProperty() {
+        String key = "microshed_test_" + System.nanoTime();
+        assertEquals("", InternalUtils.resolveProperty(key));
+        System.setProperty(key, "  value ");
+        try {
+            assertEquals("value", InternalUtils.resolveProperty(key));
+        } finally {
+            System.clearProperty(key);
+        }
+    }
+
+}
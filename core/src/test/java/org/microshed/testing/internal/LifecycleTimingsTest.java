@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.JsonObject;
+
+import org.junit.jupiter.api.Test;
+
+public class LifecycleTimingsTest {
+
+    @Test
+    public void testParentPhaseIsNotCountedTwice() {
+        List<LifecycleTimings.Phase> phases = Arrays.asList(
+                        phase("scheduled start", 0, 100, true),
+                        phase("create", 10, 30, false),
+                        phase("readiness wait", 40, 50, false));
+
+        JsonObject report = LifecycleTimings.toReport(phases, Instant.EPOCH);
+        JsonObject subject = report.getJsonArray("subjects").getJsonObject(0);
+        assertEquals(100, subject.getJsonNumber("wallClockMillis").longValue());
+        assertEquals(80, subject.getJsonNumber("totalPhaseMillis").longValue());
+
+        JsonObject scheduledStart = report.getJsonArray("phases").getJsonObject(0);
+        assertEquals("scheduled start", scheduledStart.getString("phase"));
+        assertTrue(scheduledStart.getBoolean("parent"));
+        assertFalse(report.getJsonArray("phases").getJsonObject(1).getBoolean("parent"));
+    }
+
+    private static LifecycleTimings.Phase phase(String name, long startMillis, long durationMillis, boolean parent) {
+        return new LifecycleTimings.Phase(LifecycleTimings.CATEGORY_CONTAINER, "mpapp", name, "main",
+                        TimeUnit.MILLISECONDS.toNanos(startMillis), TimeUnit.MILLISECONDS.toNanos(durationMillis), parent);
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LocalRuntimeTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testLiberty() throws Exception {
+        Path wlp = liberty("echo ready");
+        Files.createDirectories(wlp.resolve("usr/servers/myServer"));
+
+        LocalRuntime runtime = LocalRuntime.of(wlp, null, () -> fail("No application file is needed"), 9080, 9443);
+        assertEquals("Liberty server myServer", runtime.toString());
+        assertEquals("/", runtime.getContextRoot());
+        List<String> command = runtime.getCommand();
+        assertEquals(Arrays.asList("run", "myServer"), command.subList(1, command.size()));
+    }
+
+    @Test
+    public void testLibertyServerNotFound() throws Exception {
+        Path wlp = liberty("echo ready");
+        Files.createDirectories(wlp.resolve("usr/servers/myServer"));
+
+        assertThrows(ExtensionConfigurationException.class, () -> LocalRuntime.of(wlp, "otherServer", () -> null, 9080, 9443));
+    }
+
+    @Test
+    public void testPayaraMicro() throws Exception {
+        Path jar = Files.createFile(dir.resolve("payara-micro-6.2024.1.jar"));
+
+        LocalRuntime runtime = LocalRuntime.of(jar, null, () -> dir.resolve("myservice.war"), 9080, 9443);
+        assertEquals("/myservice", runtime.getContextRoot());
+        String command = String.join(" ", runtime.getCommand());
+        assertTrue(command.contains("-jar " + jar), command);
+        assertTrue(command.contains("--deploy " + dir.resolve("myservice.war")), command);
+        assertTrue(command.contains("--port 9080 --sslport 9443"), command);
+    }
+
+    @Test
+    public void testQuarkus() throws Exception {
+        Path app = Files.createDirectories(dir.resolve("quarkus-app"));
+        Files.createFile(app.resolve("quarkus-run.jar"));
+
+        LocalRuntime runtime = LocalRuntime.of(app, null, () -> null, 9080, 9443);
+        assertEquals("/", runtime.getContextRoot());
+        List<String> command = runtime.getCommand();
+        assertTrue(command.contains("-Dquarkus.http.port=9080"), command.toString());
+        assertTrue(command.contains("-Dquarkus.http.ssl-port=9443"), command.toString());
+        assertEquals(app.resolve("quarkus-run.jar").toString(), command.get(command.size() - 1));
+    }
+
+    @Test
+    public void testUnsupportedLocation() throws Exception {
+        Path jar = Files.createFile(dir.resolve("app.jar"));
+
+        assertThrows(ExtensionConfigurationException.class, () -> LocalRuntime.of(jar, null, () -> null, 9080, 9443));
+        assertThrows(ExtensionConfigurationException.class, () -> LocalRuntime.of(dir, null, () -> null, 9080, 9443));
+    }
+
+    @Test
+    public void testStartWhenReady() throws Exception {
+        LocalRuntime runtime = startLiberty("echo 'CWWKF0011I: The defaultServer server is ready to run a smarter planet.'",
+                                            "exec sleep 60");
+        try {
+            runtime.start(Duration.ofSeconds(30));
+            assertTrue(runtime.isAlive());
+            String overrides = new String(Files.readAllBytes(dir.resolve("wlp/usr/servers/defaultServer/configDropins/overrides/microshed-local-ports.xml")),
+                            StandardCharsets.UTF_8);
+            assertTrue(overrides.contains("httpPort=\"9080\" httpsPort=\"9443\""), overrides);
+        } finally {
+            runtime.stop();
+        }
+        assertFalse(runtime.isAlive());
+    }
+
+    @Test
+    public void testStartFailsOnFatalMessage() throws Exception {
+        LocalRuntime runtime = startLiberty("echo 'CWWKZ0002E: An exception occurred while starting the application myservice.'",
+                                            "exec sleep 60");
+        ExtensionConfigurationException e = assertThrows(ExtensionConfigurationException.class, () -> runtime.start(Duration.ofSeconds(30)));
+        assertTrue(e.getMessage().contains("failed to start"), e.getMessage());
+        assertTrue(e.getMessage().contains("CWWKZ0002E"), e.getMessage());
+        assertFalse(runtime.isAlive());
+    }
+
+    @Test
+    public void testStartFailsOnExit() throws Exception {
+        LocalRuntime runtime = startLiberty("echo 'CWWKE0005E: The runtime environment could not be launched.' >&2", "exit 3");
+        ExtensionConfigurationException e = assertThrows(ExtensionConfigurationException.class, () -> runtime.start(Duration.ofSeconds(30)));
+        assertTrue(e.getMessage().contains("CWWKE0005E"), e.getMessage());
+        assertFalse(runtime.isAlive());
+
+        LocalRuntime exits = startLiberty("echo 'Launching defaultServer'", "exit 3");
+        e = assertThrows(ExtensionConfigurationException.class, () -> exits.start(Duration.ofSeconds(30)));
+        assertTrue(e.getMessage().contains("exited with code 3"), e.getMessage());
+        assertTrue(e.getMessage().contains("Launching defaultServer"), e.getMessage());
+    }
+
+    @Test
+    public void testStartTimeout() throws Exception {
+        LocalRuntime runtime = startLiberty("echo 'Launching defaultServer'", "exec sleep 60");
+        ExtensionConfigurationException e = assertThrows(ExtensionConfigurationException.class, () -> runtime.start(Duration.ofSeconds(1)));
+        assertTrue(e.getMessage().contains("did not start within 1s"), e.getMessage());
+        assertFalse(runtime.isAlive());
+    }
+
+    /**
+     * Create a Liberty installation with a single server, whose server script runs the supplied shell commands
+     */
+    private LocalRuntime startLiberty(String... script) throws Exception {
+        assumeFalse(System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows"), "The fake server script requires a POSIX shell");
+        Path wlp = liberty(script);
+        Files.createDirectories(wlp.resolve("usr/servers/defaultServer"));
+        return LocalRuntime.of(wlp, null, () -> null, 9080, 9443);
+    }
+
+    private Path liberty(String... script) throws Exception {
+        Path wlp = dir.resolve("wlp");
+        Path server = Files.createDirectories(wlp.resolve("bin")).resolve("server");
+        Files.write(server, ("#!/bin/sh\n" + String.join("\n", script) + "\n").getBytes(StandardCharsets.UTF_8));
+        server.toFile().setExecutable(true);
+        return wlp;
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.jupiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.microshed.testing.ApplicationEnvironment;
+
+public class MicroShedTestExtensionTest {
+
+    @Test
+    public void testApplicationIsResetWhenRequested() {
+        RecordingEnvironment env = new RecordingEnvironment();
+        MicroShedTestExtension.configure(ResetApplication.class, env);
+        assertEquals(Arrays.asList("preConfigure", "start", "resetApplication", "postConfigure"), env.calls);
+    }
+
+    @Test
+    public void testApplicationIsNotResetByDefault() {
+        RecordingEnvironment env = new RecordingEnvironment();
+        MicroShedTestExtension.configure(KeepApplication.class, env);
+        assertEquals(Arrays.asList("preConfigure", "start", "postConfigure"), env.calls);
+    }
+
+    @Test
+    public void testApplicationIsNotResetWithoutAnnotation() {
+        RecordingEnvironment env = new RecordingEnvironment();
+        MicroShedTestExtension.configure(MicroShedTestExtensionTest.class, env);
+        assertEquals(Arrays.asList("preConfigure", "start", "postConfigure"), env.calls);
+    }
+
+    @MicroShedTest(resetApplication = true)
+    static class ResetApplication {
+    }
+
+    @MicroShedTest
+    static class KeepApplication {
+    }
+
+    static class RecordingEnvironment implements ApplicationEnvironment {
+
+        final List<String> calls = new ArrayList<>();
+
+        @Override
+        public void preConfigure(Class<?> testClass) {
+            calls.add("preConfigure");
+        }
+
+        @Override
+        public void start() {
+            calls.add("start");
+        }
+
+        @Override
+        public void resetApplication(Class<?> testClass) {
+            calls.add("resetApplication");
+        }
+
+        @Override
+        public void postConfigure(Class<?> testClass) {
+            calls.add("postConfigure");
+        }
+
+        @Override
+        public String getApplicationURL() {
+            return "http://localhost:9080/myservice";
+        }
+
+        @Override
+        public boolean configureRestAssured() {
+            return false;
+        }
+    }
+
+}
@@ -19,14 +19,24 @@
 package org.testcontainers.containers.liberty;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
-import java.util.ArrayList;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.extension.ExtensionConfigurationException;
@@ -35,9 +45,16 @@ import org.microshed.testing.internal.InternalLogger;
 import org.microshed.testing.testcontainers.ApplicationContainer;
 import org.microshed.testing.testcontainers.config.HollowTestcontainersConfiguration;
 import org.microshed.testing.testcontainers.config.TestcontainersConfiguration;
+import org.microshed.testing.testcontainers.internal.ImageCache;
+import org.microshed.testing.testcontainers.internal.LayeredApplicationImage;
+import org.microshed.testing.testcontainers.internal.LazyDockerfile;
+import org.microshed.testing.testcontainers.internal.Redeployment;
 import org.microshed.testing.testcontainers.spi.ServerAdapter;
+import org.testcontainers.containers.BindMode;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.images.builder.ImageFromDockerfile;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.images.builder.dockerfile.DockerfileBuilder;
 
 public class LibertyAdapter implements ServerAdapter {
 
@@ -45,6 +62,18 @@ public class LibertyAdapter implements ServerAdapter {
 
     private static String BASE_DOCKER_IMAGE = "openliberty/open-liberty:full-java17-openj9-ubi";
     private static final String CONFIG_FILE_PROP = "MICROSHED_TEST_LIBERTY_CONFIG_FILE";
+    private static final Pattern READY_MESSAGE = Pattern.compile("CWWKF0011I");
+    private static final Pattern FATAL_MESSAGE = Pattern.compile("CWWKZ0002E|CWWKZ0004E|CWWKE0005E");
+    private static final String DROPINS_DIR = "/config/dropins/";
+    // CWWKG0017I: The server configuration was successfully updated in 0.12 seconds.
+    // CWWKG0018I: The server configuration was not updated. No functional changes were detected.
+    // CWWKG0014E: The configuration parser detected a problem while parsing the root of the configuration.
+    private static final Pattern CONFIG_UPDATED_MESSAGE = Pattern.compile("CWWKG0017I|CWWKG0018I");
+    private static final Pattern CONFIG_ERROR_MESSAGE = Pattern.compile("CWWKG0014E");
+    private static final String APP_UPDATED_MESSAGE = "CWWKZ0003I";
+    // Overrides take precedence over variables defined in server.xml
+    private static final String LIVE_CONFIG_FILE = "/config/configDropins/overrides/microshed-live-config.xml";
+    private static final int CONFIG_UPDATE_TIMEOUT_SECONDS = 10;
 
     public static String getBaseDockerImage() {
         return BASE_DOCKER_IMAGE;
@@ -69,6 +98,18 @@ public class LibertyAdapter implements ServerAdapter {
         return 9443;
     }
 
+    @Override
+    public Optional<Pattern> getReadyLogPattern() {
+        // CWWKF0011I: The defaultServer server is ready to run a smarter planet.
+        return Optional.of(READY_MESSAGE);
+    }
+
+    @Override
+    public Optional<Pattern> getFatalLogPattern() {
+        // CWWKZ0002E: An exception occurred while starting the application myservice.
+        return Optional.of(FATAL_MESSAGE);
+    }
+
     @Override
     public void setConfigProperties(Map<String, String> properties) {
         String MP_TEST_CONFIG_FILE = System.getProperty(CONFIG_FILE_PROP, System.getenv(CONFIG_FILE_PROP));
@@ -87,51 +128,300 @@ public class LibertyAdapter implements ServerAdapter {
         }
         configFile.getParent().toFile().mkdirs();
 
-        // TODO: Liberty server.xml only supports MP JWT variables with dots but not underscores
-        if (properties.containsKey("mp_jwt_verify_publickey"))
-            properties.put("mp.jwt.verify.publickey", properties.remove("mp_jwt_verify_publickey"));
-        if (properties.containsKey("mp_jwt_verify_issuer"))
-            properties.put("mp.jwt.verify.issuer", properties.remove("mp_jwt_verify_issuer"));
-
-        List<String> lines = new ArrayList<>(properties.size() + 2);
-        lines.add("<server>");
-        //  <variable name="foo" value="bar"/>
-        properties.forEach((k, v) -> lines.add("  <variable name=\"" + k + "\" value=\"" + v + "\"/>"));
-        lines.add("</server>");
+        byte[] bytes = toServerXml(properties).getBytes(StandardCharsets.UTF_8);
         try {
-            Files.write(configFile, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            Thread.sleep(500); // wait for configuration updates
+            if (Files.isRegularFile(configFile) && Arrays.equals(bytes, Files.readAllBytes(configFile))) {
+                LOG.debug("Not updating " + configFile + " because the config properties did not change");
+                return;
+            }
+            Optional<Path> messagesLog = messagesLog(configFile).filter(Files::isRegularFile);
+            long logOffset = messagesLog.isPresent() ? Files.size(messagesLog.get()) : -1;
+
+            // Liberty reads every .xml file in configDropins, so the temp file must have another extension. The
+            // rename ensures the server never reads a partially written file.
+            Path tmp = configFile.resolveSibling(configFile.getFileName() + ".tmp");
+            Files.write(tmp, bytes);
+            try {
+                Files.move(tmp, configFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, configFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            if (messagesLog.isPresent()) {
+                awaitConfigUpdate(messagesLog.get(), logOffset, Duration.ofSeconds(CONFIG_UPDATE_TIMEOUT_SECONDS));
+            } else {
+                LOG.debug("Unable to find the messages.log of the server that reads " + configFile + ", waiting a fixed time for the configuration update instead");
+                Thread.sleep(500);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while writing configuration to " + configFile, e);
         } catch (Exception e) {
             throw new RuntimeException("Unable to write configuration to " + configFile, e);
         }
     }
 
+    @Override
+    public boolean supportsLiveConfig() {
+        return true;
+    }
+
+    @Override
+    public void setConfigProperties(ApplicationContainer app, Map<String, String> properties) {
+        int logOffset = Redeployment.logLength(app);
+        Redeployment.writeFile(app, toServerXml(properties), LIVE_CONFIG_FILE);
+        Redeployment.awaitLog(app, logOffset, CONFIG_UPDATED_MESSAGE, CONFIG_ERROR_MESSAGE, Duration.ofSeconds(getDefaultAppStartTimeout()));
+
+        // Applications read most of their configuration when they start, so restart them
+        restartApplications(app);
+    }
+
+    @Override
+    public boolean supportsApplicationReset() {
+        return true;
+    }
+
+    @Override
+    public void resetApplication(ApplicationContainer app) {
+        restartApplications(app);
+    }
+
+    /**
+     * Restart the applications in the dropins directory by touching them, which Liberty handles like an update
+     * of the application without restarting the server
+     */
+    private void restartApplications(ApplicationContainer app) {
+        int logOffset = Redeployment.logLength(app);
+        String touched = Redeployment.run(app, "for f in " + DROPINS_DIR + "*; do if [ -f \"$f\" ]; then touch \"$f\"; basename \"$f\"; fi; done");
+        List<Pattern> updated = appUpdatedMessages(touched);
+        if (!updated.isEmpty())
+            Redeployment.awaitLog(app, logOffset, updated, FATAL_MESSAGE, Duration.ofSeconds(getDefaultAppStartTimeout()));
+    }
+
+    /**
+     * @param fileNames The names of the application files in the dropins directory, one per line
+     * @return The patterns of the messages that Liberty logs once each of the applications is updated
+     */
+    static List<Pattern> appUpdatedMessages(String fileNames) {
+        // CWWKZ0003I: The application myservice updated in 0.567 seconds.
+        return Arrays.stream(fileNames.split("\\R"))
+                        .map(String::trim)
+                        .filter(name -> !name.isEmpty())
+                        .map(name -> Pattern.compile(APP_UPDATED_MESSAGE + ".*" + appNamePattern(appName(name))))
+                        .collect(Collectors.toList());
+    }
+
+    /**
+     * @return The name of the application that Liberty deploys from a file in the dropins directory, which is
+     *         the file name without its extension, or without both extensions for a loose application
+     */
+    static String appName(String fileName) {
+        return fileName.replaceFirst("\\.xml$", "").replaceFirst("\\.[^.]*$", "");
+    }
+
+    private static String appNamePattern(String appName) {
+        // Application names may contain '-' and '.', so an application must not match the name of another one
+        // that it is a prefix or suffix of, such as myservice and myservice-v2
+        return "(?<![\\w.-])" + Pattern.quote(appName) + "(?![\\w-]|\\.\\w)";
+    }
+
+    static String toServerXml(Map<String, String> properties) {
+        // Sort the properties so that the same properties always result in the same file
+        Map<String, String> variables = new TreeMap<>(properties);
+        // TODO: Liberty server.xml only supports MP JWT variables with dots but not underscores
+        if (variables.containsKey("mp_jwt_verify_publickey"))
+            variables.put("mp.jwt.verify.publickey", variables.remove("mp_jwt_verify_publickey"));
+        if (variables.containsKey("mp_jwt_verify_issuer"))
+            variables.put("mp.jwt.verify.issuer", variables.remove("mp_jwt_verify_issuer"));
+
+        StringBuilder content = new StringBuilder("<server>\n");
+        //  <variable name="foo" value="bar"/>
+        variables.forEach((k, v) -> content.append("  <variable name=\"").append(escapeXml(k))
+                        .append("\" value=\"").append(escapeXml(v)).append("\"/>\n"));
+        content.append("</server>\n");
+        return content.toString();
+    }
+
+    /**
+     * @return The messages.log of the server that the supplied configDropins file belongs to, or an empty Optional if
+     *         the file is not in the configDropins directory of a server, so that the server it belongs to is unknown
+     */
+    static Optional<Path> messagesLog(Path configFile) {
+        // <server dir>/configDropins/defaults/<configFile>
+        Path dropinsDir = configFile.toAbsolutePath().getParent().getParent();
+        Path serverDir = dropinsDir == null ? null : dropinsDir.getParent();
+        if (serverDir == null || serverDir.getFileName() == null || !"configDropins".equals(dropinsDir.getFileName().toString()))
+            return Optional.empty();
+        String outputDir = System.getProperty("WLP_OUTPUT_DIR", System.getenv("WLP_OUTPUT_DIR"));
+        Path logsDir = outputDir == null ? serverDir.resolve("logs") : Paths.get(outputDir, serverDir.getFileName().toString(), "logs");
+        return Optional.of(logsDir.resolve("messages.log"));
+    }
+
+    /**
+     * Wait until the server logs that it processed the configuration change, by following the messages.log
+     * from the supplied offset
+     *
+     * @return The message that the server logged, or an empty Optional if it did not log one within the timeout
+     */
+    static Optional<String> awaitConfigUpdate(Path messagesLog, long offset, Duration timeout) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long position = offset;
+        StringBuilder newLines = new StringBuilder();
+        long delay = 10;
+        while (true) {
+            long size = Files.size(messagesLog);
+            if (size < position) {
+                // The log rolled over
+                position = 0;
+                newLines.setLength(0);
+            }
+            if (size > position) {
+                try (SeekableByteChannel channel = Files.newByteChannel(messagesLog)) {
+                    channel.position(position);
+                    ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size - position, 1024 * 1024));
+                    position += channel.read(buffer);
+                    newLines.append(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+                }
+                Matcher error = CONFIG_ERROR_MESSAGE.matcher(newLines);
+                if (error.find()) {
+                    LOG.warn("Liberty reported a problem with the updated configuration. Check " + messagesLog);
+                    return Optional.of(error.group());
+                }
+                Matcher m = CONFIG_UPDATED_MESSAGE.matcher(newLines);
+                if (m.find()) {
+                    LOG.debug("Configuration update completed with " + m.group());
+                    return Optional.of(m.group());
+                }
+            }
+            if (System.nanoTime() > deadline) {
+                LOG.warn("Liberty did not report that the configuration update was processed within " + timeout.toMillis() + "ms. Check " + messagesLog);
+                return Optional.empty();
+            }
+            Thread.sleep(delay);
+            delay = Math.min(100, delay * 2);
+        }
+    }
+
+    static String escapeXml(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '&':
+                    sb.append("&amp;");
+                    break;
+                case '<':
+                    sb.append("&lt;");
+                    break;
+                case '>':
+                    sb.append("&gt;");
+                    break;
+                case '"':
+                    sb.append("&quot;");
+                    break;
+                case '\'':
+                    sb.append("&apos;");
+                    break;
+                case '\n':
+                    sb.append("&#10;");
+                    break;
+                case '\r':
+                    sb.append("&#13;");
+                    break;
+                case '\t':
+                    sb.append("&#9;");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public Optional<String> getBaseImage() {
+        return Optional.of(getBaseDockerImage());
+    }
+
     @Override
     public ImageFromDockerfile getDefaultImage(File appFile) {
+        if (LooseApplication.isEnabled()) {
+            final String xmlName = appFile.getName().replaceFirst("\\.[^.]*$", "") + ".war.xml";
+            final String xml = LooseApplication.of(Paths.get(".")).toXml();
+            // Compose a docker image equivalent to doing:
+            // FROM <configured base image>
+            // COPY <app>.war.xml /config/dropins
+            // The build output referenced by the loose application XML is bind-mounted when the container is configured
+            return new ImageFromDockerfile()
+                            .withFileFromTransferable("Dockerfile", new LazyDockerfile(() -> new DockerfileBuilder()
+                                            .from(ImageCache.build(getConfiguredBaseImage()))
+                                            .copy(xmlName, DROPINS_DIR + xmlName)
+                                            .build()))
+                            .withFileFromTransferable(xmlName, Transferable.of(xml));
+        }
+        if (LayeredApplicationImage.isEnabled(appFile)) {
+            return new LayeredApplicationImage(appFile, DROPINS_DIR)
+                            .withBaseImage(() -> ImageCache.build(getConfiguredBaseImage()))
+                            .build();
+        }
         final String appName = appFile.getName();
-        final File configDir = new File("src/main/liberty/config");
-        final boolean configDirExists = configDir.exists() && configDir.canRead();
         // Compose a docker image equivalent to doing:
-        // FROM FROM open-liberty:full-java11-openj9
-        // COPY src/main/liberty/config /config/
-        // RUN configure.sh
+        // FROM <configured base image>
         // ADD build/libs/<appFile> /config/dropins
+        // The application layer is kept thin so that it is the only part rebuilt when the application changes
+        return new ImageFromDockerfile()
+                        .withFileFromTransferable("Dockerfile", new LazyDockerfile(() -> new DockerfileBuilder()
+                                        .from(ImageCache.build(getConfiguredBaseImage()))
+                                        .add(DROPINS_DIR + appName, DROPINS_DIR + appName)
+                                        .build()))
+                        .withFileFromFile(DROPINS_DIR + appName, appFile);
+    }
+
+    @Override
+    public boolean supportsRedeploy() {
+        // Loose applications are updated in place by Liberty when the build output changes
+        return !LooseApplication.isEnabled();
+    }
+
+    @Override
+    public boolean requiresApplicationArchive() {
+        return !LooseApplication.isEnabled();
+    }
+
+    @Override
+    public void redeploy(ApplicationContainer app, File appFile) {
+        // CWWKZ0001I: Application myservice started in 1.234 seconds.
+        // CWWKZ0003I: The application myservice updated in 0.567 seconds.
+        String appName = appName(appFile.getName());
+        Pattern deployed = Pattern.compile("(CWWKZ0001I|CWWKZ0003I).*" + appNamePattern(appName));
+        int logOffset = Redeployment.logLength(app);
+        Redeployment.replaceFile(app, appFile, DROPINS_DIR + appFile.getName());
+        Redeployment.awaitLog(app, logOffset, deployed, FATAL_MESSAGE, Duration.ofSeconds(getDefaultAppStartTimeout()));
+    }
+
+    /**
+     * Compose a docker image equivalent to doing:
+     *
+     * <pre>
+     * FROM openliberty/open-liberty:full-java17-openj9-ubi
+     * COPY src/main/liberty/config /config/
+     * RUN configure.sh
+     * </pre>
+     *
+     * This image only depends on the base image and server configuration, so it is built once
+     * and then reused for as long as neither of them change.
+     */
+    ImageFromDockerfile getConfiguredBaseImage() {
+        final File configDir = new File("src/main/liberty/config");
+        final boolean configDirExists = configDir.exists() && configDir.canRead();
         ImageFromDockerfile image = new ImageFromDockerfile()
                         .withDockerfileFromBuilder(builder -> {
                             builder.from(getBaseDockerImage());
                             if (configDirExists) {
                                 builder.copy("/config", "/config");
                             }
-//                            // Best practice is to run configure.sh after the app is added, but we will
-//                            // run it before adding the app because due to how often the app changes while
-//                            // running tests this will yeild the most overall time saved
-                            // TODO: Cache does not work correctly when running the previous docker line
-                            // which causes configure.sh to be run every time. See https://github.com/MicroShed/microshed-testing/issues/122
-//                            builder.run("configure.sh");
-                            builder.add("/config/dropins/" + appName, "/config/dropins/" + appName);
+                            builder.run("configure.sh");
                             builder.build();
-                        })
-                        .withFileFromFile("/config/dropins/" + appName, appFile);
+                        });
         if (configDirExists)
             image.withFileFromFile("/config", configDir);
         return image;
@@ -139,9 +429,40 @@ public class LibertyAdapter implements ServerAdapter {
 
     @Override
     public void configure(Set<GenericContainer<?>> containers) {
+        configureLooseApplication(containers);
         configureKafka(containers);
     }
 
+    private void configureLooseApplication(Set<GenericContainer<?>> containers) {
+        if (!LooseApplication.isEnabled())
+            return;
+        Set<ApplicationContainer> apps = containers.stream()
+                        .filter(c -> c instanceof ApplicationContainer)
+                        .map(c -> (ApplicationContainer) c)
+                        .collect(Collectors.toSet());
+        if (apps.isEmpty())
+            return;
+        Map<Path, String> mounts = LooseApplication.of(Paths.get(".")).getMounts();
+        for (ApplicationContainer app : apps) {
+            Set<String> bound = app.getBinds().stream()
+                            .map(b -> b.getVolume().getPath())
+                            .collect(Collectors.toSet());
+            try {
+                mounts.forEach((hostPath, containerPath) -> {
+                    // Shared containers are configured once for every test class that uses them
+                    if (!bound.contains(containerPath))
+                        app.withFileSystemBind(hostPath.toString(), containerPath, BindMode.READ_ONLY);
+                });
+            } catch (UnsupportedOperationException e) {
+                throw new ExtensionConfigurationException("Loose applications (" + LooseApplication.LOOSE_APP_ENABLED + "=true) are deployed by " +
+                                                          "mounting the build output into the application container, which is not possible when " +
+                                                          "the container is not started by MicroShed Testing. Unset " + LooseApplication.LOOSE_APP_ENABLED +
+                                                          " to test an already running server.", e);
+            }
+            LOG.debug("Mounted the build output into " + app.toStringSimple() + " as a loose application: " + mounts);
+        }
+    }
+
     private void configureKafka(Set<GenericContainer<?>> containers) {
         Class<?> KafkaContainer = tryLoad("org.testcontainers.containers.KafkaContainer");
         if (KafkaContainer == null)
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.testcontainers.containers.liberty;
+
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+
+/**
+ * A Liberty loose application, which is deployed from the build output directories of the project rather than
+ * from a packaged war. The build output is bind-mounted into the container, and a loose application XML file
+ * placed in <code>/config/dropins</code> maps the mounted directories and jars to their location in the war.
+ */
+class LooseApplication {
+
+    /**
+     * The name of the system property or environment variable that may be set to <code>true</code> to deploy
+     * the application as a loose application instead of packaging it as a war
+     */
+    static final String LOOSE_APP_ENABLED = "microshed_liberty_loose_app";
+
+    /**
+     * The name of the system property or environment variable listing the runtime dependencies (jars) of the
+     * application, separated by the platform path separator. For example, with Gradle:
+     * <code>systemProperty 'microshed_liberty_loose_classpath', configurations.runtimeClasspath.asPath</code>
+     */
+    static final String LOOSE_APP_CLASSPATH = "microshed_liberty_loose_classpath";
+
+    private static final String MOUNT_ROOT = "/microshed/loose/";
+    private static final String[] CLASS_DIRS = { "build/classes/java/main", "build/classes/kotlin/main", "build/resources/main", "target/classes" };
+    private static final String WEBAPP_DIR = "src/main/webapp";
+
+    // host path -> path in the container
+    private final Map<Path, String> mounts = new LinkedHashMap<>();
+    private final StringBuilder xml = new StringBuilder();
+
+    private LooseApplication() {
+    }
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(resolveProperty(LOOSE_APP_ENABLED));
+    }
+
+    /**
+     * @param projectDir The root directory of the project, which contains the build output
+     */
+    static LooseApplication of(Path projectDir) {
+        LooseApplication app = new LooseApplication();
+        app.xml.append("<archive>\n");
+        int i = 0;
+        for (String dir : CLASS_DIRS) {
+            Path classes = projectDir.resolve(dir);
+            if (Files.isDirectory(classes))
+                app.add("dir", classes, MOUNT_ROOT + "classes/" + i++, "/WEB-INF/classes");
+        }
+        if (i == 0)
+            throw new ExtensionConfigurationException("Unable to deploy a loose application because no compiled classes were found in " +
+                                                      projectDir.toAbsolutePath().normalize() + ". Build the project first, or unset " + LOOSE_APP_ENABLED + ".");
+        Path webapp = projectDir.resolve(WEBAPP_DIR);
+        if (Files.isDirectory(webapp))
+            app.add("dir", webapp, MOUNT_ROOT + "webapp", "/");
+
+        Set<String> jarNames = new LinkedHashSet<>();
+        String classpath = resolveProperty(LOOSE_APP_CLASSPATH);
+        for (String entry : classpath.split(File.pathSeparator)) {
+            Path jar = Paths.get(entry.trim());
+            if (entry.trim().isEmpty() || !Files.isRegularFile(jar) || !jar.getFileName().toString().endsWith(".jar"))
+                continue;
+            String name = jar.getFileName().toString();
+            // Different dependencies may have jars of the same name
+            String fileName = name;
+            for (int n = 1; !jarNames.add(name); n++)
+                name = n + "-" + fileName;
+            app.add("file", jar, MOUNT_ROOT + "lib/" + name, "/WEB-INF/lib/" + name);
+        }
+        app.xml.append("</archive>\n");
+        return app;
+    }
+
+    private void add(String kind, Path hostPath, String mountPath, String targetInArchive) {
+        mounts.put(hostPath.toAbsolutePath().normalize(), mountPath);
+        xml.append("  <").append(kind)
+                        .append(" targetInArchive=\"").append(escape(targetInArchive))
+                        .append("\" sourceOnDisk=\"").append(escape(mountPath))
+                        .append("\"/>\n");
+    }
+
+    /**
+     * @return The directories and files to bind-mount into the container, mapped to their path in the container
+     */
+    Map<Path, String> getMounts() {
+        return mounts;
+    }
+
+    /**
+     * @return The content of the loose application XML file
+     */
+    String toXml() {
+        return xml.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+}
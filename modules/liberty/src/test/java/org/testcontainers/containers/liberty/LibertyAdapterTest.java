@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.testcontainers.containers.liberty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LibertyAdapterTest {
+
+    private static final String CONFIG_FILE_PROP = "MICROSHED_TEST_LIBERTY_CONFIG_FILE";
+
+    @TempDir
+    Path usrDir;
+
+    @AfterEach
+    public void clearProperties() {
+        System.clearProperty(CONFIG_FILE_PROP);
+        System.clearProperty("WLP_OUTPUT_DIR");
+    }
+
+    @Test
+    public void testToServerXml() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("b", "2");
+        properties.put("a", "<1>");
+        properties.put("mp_jwt_verify_publickey", "key");
+        properties.put("mp_jwt_verify_issuer", "issuer");
+
+        assertEquals("<server>\n" +
+                     "  <variable name=\"a\" value=\"&lt;1&gt;\"/>\n" +
+                     "  <variable name=\"b\" value=\"2\"/>\n" +
+                     "  <variable name=\"mp.jwt.verify.issuer\" value=\"issuer\"/>\n" +
+                     "  <variable name=\"mp.jwt.verify.publickey\" value=\"key\"/>\n" +
+                     "</server>\n", LibertyAdapter.toServerXml(properties));
+    }
+
+    @Test
+    public void testEscapeXml() {
+        assertEquals("plain value", LibertyAdapter.escapeXml("plain value"));
+        assertEquals("&amp;&lt;&gt;&quot;&apos;", LibertyAdapter.escapeXml("&<>\"'"));
+        assertEquals("a&#10;b&#13;c&#9;d", LibertyAdapter.escapeXml("a\nb\rc\td"));
+    }
+
+    @Test
+    public void testMessagesLog() {
+        assumeTrue(System.getenv("WLP_OUTPUT_DIR") == null);
+        Path configFile = usrDir.resolve("servers/myServer/configDropins/defaults/system-test-vars.xml");
+        assertEquals(Optional.of(usrDir.resolve("servers/myServer/logs/messages.log").toAbsolutePath()), LibertyAdapter.messagesLog(configFile));
+
+        System.setProperty("WLP_OUTPUT_DIR", usrDir.resolve("output").toString());
+        assertEquals(Optional.of(Paths.get(usrDir.resolve("output").toString(), "myServer", "logs", "messages.log")), LibertyAdapter.messagesLog(configFile));
+    }
+
+    @Test
+    public void testMessagesLogOfCustomConfigFile() {
+        // The server that reads a file outside of a configDropins directory is unknown
+        assertEquals(Optional.empty(), LibertyAdapter.messagesLog(Paths.get("/vars.xml")));
+        assertEquals(Optional.empty(), LibertyAdapter.messagesLog(Paths.get("/work/vars.xml")));
+        assertEquals(Optional.empty(), LibertyAdapter.messagesLog(usrDir.resolve("config/test/vars.xml")));
+    }
+
+    @Test
+    public void testCustomConfigFile() throws Exception {
+        Path configFile = usrDir.resolve("vars.xml");
+        System.setProperty(CONFIG_FILE_PROP, configFile.toString());
+        Map<String, String> properties = new HashMap<>();
+        properties.put("key", "value");
+
+        // Without a messages.log to follow, the update waits a fixed time instead
+        new LibertyAdapter().setConfigProperties(properties);
+        assertEquals(LibertyAdapter.toServerXml(properties), new String(Files.readAllBytes(configFile), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testAwaitConfigUpdate() throws Exception {
+        Path log = Files.write(usrDir.resolve("messages.log"), line("CWWKG0017I: The server configuration was successfully updated in 0.1 seconds."));
+        long offset = Files.size(log);
+
+        // Messages logged before the offset belong to earlier updates
+        appendLater(log, line("CWWKG0018I: The server configuration was not updated. No functional changes were detected."));
+        assertEquals(Optional.of("CWWKG0018I"), LibertyAdapter.awaitConfigUpdate(log, offset, Duration.ofSeconds(10)));
+    }
+
+    @Test
+    public void testAwaitConfigUpdateError() throws Exception {
+        Path log = Files.write(usrDir.resolve("messages.log"), line("CWWKF0011I: The defaultServer server is ready to run a smarter planet."));
+
+        appendLater(log, line("CWWKG0014E: The configuration parser detected a problem while parsing the root of the configuration."));
+        long start = System.nanoTime();
+        assertEquals(Optional.of("CWWKG0014E"), LibertyAdapter.awaitConfigUpdate(log, Files.size(log), Duration.ofSeconds(10)));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "Did not return as soon as the error was logged");
+    }
+
+    @Test
+    public void testAwaitConfigUpdateTimeout() throws Exception {
+        Path log = Files.write(usrDir.resolve("messages.log"), line("CWWKG0017I: The server configuration was successfully updated in 0.1 seconds."));
+
+        long start = System.nanoTime();
+        assertEquals(Optional.empty(), LibertyAdapter.awaitConfigUpdate(log, Files.size(log), Duration.ofMillis(200)));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200), "Returned before the timeout elapsed");
+    }
+
+    @Test
+    public void testAwaitConfigUpdateAfterRollover() throws Exception {
+        StringBuilder old = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+            old.append("CWWKF0012I: The server installed the following features: [servlet-4.0].\n");
+        Path log = Files.write(usrDir.resolve("messages.log"), old.toString().getBytes(StandardCharsets.UTF_8));
+        long offset = Files.size(log);
+
+        // Liberty starts a new, shorter messages.log once the current one reaches its maximum size
+        Thread rollover = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+                Files.write(log, line("CWWKG0017I: The server configuration was successfully updated in 0.1 seconds."));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        rollover.start();
+        assertEquals(Optional.of("CWWKG0017I"), LibertyAdapter.awaitConfigUpdate(log, offset, Duration.ofSeconds(10)));
+        rollover.join();
+    }
+
+    @Test
+    public void testUnchangedConfigIsNotWritten() throws Exception {
+        Path configFile = usrDir.resolve("servers/defaultServer/configDropins/defaults/system-test-vars.xml");
+        Path log = Files.createDirectories(usrDir.resolve("servers/defaultServer/logs")).resolve("messages.log");
+        Files.write(log, line("CWWKF0011I: The defaultServer server is ready to run a smarter planet."));
+        System.setProperty(CONFIG_FILE_PROP, configFile.toString());
+        Map<String, String> properties = new HashMap<>();
+        properties.put("key", "value");
+
+        appendLater(log, line("CWWKG0017I: The server configuration was successfully updated in 0.1 seconds."));
+        new LibertyAdapter().setConfigProperties(properties);
+        assertEquals(LibertyAdapter.toServerXml(properties), new String(Files.readAllBytes(configFile), StandardCharsets.UTF_8));
+        assertFalse(Files.exists(configFile.resolveSibling(configFile.getFileName() + ".tmp")), "The temporary file was left behind");
+
+        // Writing the same properties again neither touches the file nor waits for the server
+        FileTime written = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(configFile, written);
+        long start = System.nanoTime();
+        new LibertyAdapter().setConfigProperties(properties);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "Waited for a configuration update that did not happen");
+        assertEquals(written, Files.getLastModifiedTime(configFile));
+    }
+
+    @Test
+    public void testAppName() {
+        assertEquals("myservice", LibertyAdapter.appName("myservice.war"));
+        assertEquals("my-service-1.0", LibertyAdapter.appName("my-service-1.0.ear"));
+        assertEquals("myservice", LibertyAdapter.appName("myservice.war.xml"));
+    }
+
+    @Test
+    public void testAppUpdatedMessages() {
+        List<Pattern> updated = LibertyAdapter.appUpdatedMessages("first.war\nsecond.war.xml\n\n");
+        assertEquals(2, updated.size());
+
+        String log = "CWWKZ0003I: The application first updated in 0.567 seconds.\n";
+        assertTrue(updated.get(0).matcher(log).find());
+        assertFalse(updated.get(1).matcher(log).find(), "The update of one application matched another");
+        assertFalse(updated.get(0).matcher("CWWKZ0003I: The application first-v2 updated in 0.5 seconds.").find());
+        assertFalse(updated.get(0).matcher("CWWKZ0003I: The application v2.first updated in 0.5 seconds.").find());
+        assertTrue(updated.get(1).matcher(log + "CWWKZ0003I: The application second updated in 0.123 seconds.\n").find());
+
+        assertTrue(LibertyAdapter.appUpdatedMessages("").isEmpty());
+    }
+
+    private static byte[] line(String message) {
+        return ("[10/17/26, 10:00:00:000 UTC] 00000001 com.ibm.ws.config.xml.internal.ConfigRefresher A " + message + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendLater(Path log, byte[] content) {
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+                Files.write(log, content, StandardOpenOption.APPEND);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+}
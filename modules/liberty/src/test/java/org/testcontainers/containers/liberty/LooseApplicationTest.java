@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.testcontainers.containers.liberty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LooseApplicationTest {
+
+    @TempDir
+    Path projectDir;
+
+    @AfterEach
+    public void clearClasspath() {
+        System.clearProperty(LooseApplication.LOOSE_APP_CLASSPATH);
+    }
+
+    @Test
+    public void testMavenProject() throws Exception {
+        Path classes = Files.createDirectories(projectDir.resolve("target/classes"));
+        Path webapp = Files.createDirectories(projectDir.resolve("src/main/webapp"));
+
+        LooseApplication app = LooseApplication.of(projectDir);
+
+        assertEquals("<archive>\n" +
+                     "  <dir targetInArchive=\"/WEB-INF/classes\" sourceOnDisk=\"/microshed/loose/classes/0\"/>\n" +
+                     "  <dir targetInArchive=\"/\" sourceOnDisk=\"/microshed/loose/webapp\"/>\n" +
+                     "</archive>\n", app.toXml());
+        Map<Path, String> expected = new LinkedHashMap<>();
+        expected.put(classes.toAbsolutePath().normalize(), "/microshed/loose/classes/0");
+        expected.put(webapp.toAbsolutePath().normalize(), "/microshed/loose/webapp");
+        assertEquals(expected, app.getMounts());
+    }
+
+    @Test
+    public void testGradleProject() throws Exception {
+        Path classes = Files.createDirectories(projectDir.resolve("build/classes/java/main"));
+        Path resources = Files.createDirectories(projectDir.resolve("build/resources/main"));
+
+        LooseApplication app = LooseApplication.of(projectDir);
+
+        assertEquals("<archive>\n" +
+                     "  <dir targetInArchive=\"/WEB-INF/classes\" sourceOnDisk=\"/microshed/loose/classes/0\"/>\n" +
+                     "  <dir targetInArchive=\"/WEB-INF/classes\" sourceOnDisk=\"/microshed/loose/classes/1\"/>\n" +
+                     "</archive>\n", app.toXml());
+        assertEquals(Arrays.asList(classes.toAbsolutePath().normalize(), resources.toAbsolutePath().normalize()),
+                     Arrays.asList(app.getMounts().keySet().toArray()));
+    }
+
+    @Test
+    public void testClasspathJars() throws Exception {
+        Files.createDirectories(projectDir.resolve("target/classes"));
+        Path first = Files.write(Files.createDirectories(projectDir.resolve("repo/a")).resolve("lib.jar"), new byte[0]);
+        Path second = Files.write(Files.createDirectories(projectDir.resolve("repo/b")).resolve("lib.jar"), new byte[0]);
+        Path third = Files.write(Files.createDirectories(projectDir.resolve("repo/c")).resolve("lib.jar"), new byte[0]);
+        Path notAJar = Files.write(projectDir.resolve("repo/notes.txt"), new byte[0]);
+        Path missing = projectDir.resolve("repo/missing.jar");
+        System.setProperty(LooseApplication.LOOSE_APP_CLASSPATH, String.join(File.pathSeparator,
+                                                                             first.toString(), notAJar.toString(), missing.toString(),
+                                                                             second.toString(), "", third.toString()));
+
+        LooseApplication app = LooseApplication.of(projectDir);
+
+        assertEquals("<archive>\n" +
+                     "  <dir targetInArchive=\"/WEB-INF/classes\" sourceOnDisk=\"/microshed/loose/classes/0\"/>\n" +
+                     "  <file targetInArchive=\"/WEB-INF/lib/lib.jar\" sourceOnDisk=\"/microshed/loose/lib/lib.jar\"/>\n" +
+                     "  <file targetInArchive=\"/WEB-INF/lib/1-lib.jar\" sourceOnDisk=\"/microshed/loose/lib/1-lib.jar\"/>\n" +
+                     "  <file targetInArchive=\"/WEB-INF/lib/2-lib.jar\" sourceOnDisk=\"/microshed/loose/lib/2-lib.jar\"/>\n" +
+                     "</archive>\n", app.toXml());
+        assertEquals("/microshed/loose/lib/lib.jar", app.getMounts().get(first.toAbsolutePath().normalize()));
+        assertEquals("/microshed/loose/lib/1-lib.jar", app.getMounts().get(second.toAbsolutePath().normalize()));
+        assertEquals("/microshed/loose/lib/2-lib.jar", app.getMounts().get(third.toAbsolutePath().normalize()));
+        assertEquals(4, app.getMounts().size());
+    }
+
+    @Test
+    public void testEscapedNames() throws Exception {
+        Files.createDirectories(projectDir.resolve("target/classes"));
+        Path jar = Files.write(projectDir.resolve("a&b.jar"), new byte[0]);
+        System.setProperty(LooseApplication.LOOSE_APP_CLASSPATH, jar.toString());
+
+        String xml = LooseApplication.of(projectDir).toXml();
+
+        assertEquals("  <file targetInArchive=\"/WEB-INF/lib/a&amp;b.jar\" sourceOnDisk=\"/microshed/loose/lib/a&amp;b.jar\"/>",
+                     xml.split("\n")[2]);
+    }
+
+    @Test
+    public void testNoClasses() throws Exception {
+        Files.createDirectories(projectDir.resolve("src/main/webapp"));
+        assertThrows(ExtensionConfigurationException.class, () -> LooseApplication.of(projectDir));
+    }
+
+}
@@ -18,14 +18,21 @@
  */
 package org.testcontainers.containers.payara;
 
+import org.microshed.testing.testcontainers.internal.LayeredApplicationImage;
 import org.microshed.testing.testcontainers.spi.ServerAdapter;
 import org.testcontainers.images.builder.ImageFromDockerfile;
 
 import java.io.File;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 public class PayaraMicroAdapter implements ServerAdapter {
-    
+
+    private static final String BASE_IMAGE = "payara/micro:6.2023.12-jdk21";
+    private static final String DEPLOYMENT_DIR = "/opt/payara/deployments/";
+    private static final Pattern READY_MESSAGE = Pattern.compile("Payara Micro .* ready in");
+    private static final Pattern FATAL_MESSAGE = Pattern.compile("Exception while loading the app");
+
     @Override
     public int getPriority() {
         return PRIORITY_RUNTIME_MODULE;
@@ -41,17 +48,41 @@ public class PayaraMicroAdapter implements ServerAdapter {
         return 8181;
     }
 
+    @Override
+    public Optional<Pattern> getReadyLogPattern() {
+        // Payara Micro 6.2023.12 #badassmicrofish (build 1234) ready in 5,432 (ms)
+        return Optional.of(READY_MESSAGE);
+    }
+
+    @Override
+    public Optional<Pattern> getFatalLogPattern() {
+        // Exception while loading the app : CDI deployment failure
+        return Optional.of(FATAL_MESSAGE);
+    }
+
+    @Override
+    public Optional<String> getBaseImage() {
+        return Optional.of(BASE_IMAGE);
+    }
+
     @Override
     public ImageFromDockerfile getDefaultImage(File appFile) {
         String appName = appFile.getName();
+        if (LayeredApplicationImage.isEnabled(appFile)) {
+            // The exploded application directory is deployed explicitly
+            return new LayeredApplicationImage(appFile, DEPLOYMENT_DIR)
+                    .withBaseImage(BASE_IMAGE)
+                    .withDockerfileCustomizer(builder -> builder.cmd("--deploy", DEPLOYMENT_DIR + appName, "--noCluster"))
+                    .build();
+        }
         // Compose a docker image equivalent to doing:
         // FROM payara/micro:6.2023.12-jdk21
         // CMD ["--deploymentDir", "/opt/payara/deployments", "--noCluster"]
         // ADD target/myservice.war /opt/payara/deployments/
         return new ImageFromDockerfile()
-                .withDockerfileFromBuilder(builder -> builder.from("payara/micro:6.2023.12-jdk21")
-                        .cmd("--deploymentDir", "/opt/payara/deployments/", "--noCluster")
-                        .add(appName, "/opt/payara/deployments/")
+                .withDockerfileFromBuilder(builder -> builder.from(BASE_IMAGE)
+                        .cmd("--deploymentDir", DEPLOYMENT_DIR, "--noCluster")
+                        .add(appName, DEPLOYMENT_DIR)
                         .build())
                 .withFileFromFile(appName, appFile);
 
@@ -18,14 +18,28 @@
  */
 package org.testcontainers.containers.payara;
 
+import org.microshed.testing.testcontainers.ApplicationContainer;
+import org.microshed.testing.testcontainers.internal.LayeredApplicationImage;
+import org.microshed.testing.testcontainers.internal.Redeployment;
 import org.microshed.testing.testcontainers.spi.ServerAdapter;
 import org.testcontainers.images.builder.ImageFromDockerfile;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 public class PayaraServerAdapter implements ServerAdapter {
-    
+
+    private static final String BASE_IMAGE = "payara/server-full:6.2023.12-jdk21";
+    private static final String DEPLOYMENT_DIR = "/opt/payara/deployments/";
+    private static final String AUTODEPLOY_DIR = "/opt/payara/appserver/glassfish/domains/domain1/autodeploy/";
+    private static final Pattern READY_MESSAGE = Pattern.compile("Payara Server .* startup time");
+    private static final Pattern FATAL_MESSAGE = Pattern.compile("Exception while loading the app");
+    private static final String ASADMIN = "\"${PAYARA_DIR:-/opt/payara/appserver}/bin/asadmin\" --user \"${ADMIN_USER:-admin}\" " +
+                                          "--passwordfile \"${PASSWORD_FILE:-/opt/payara/passwordFile}\"";
+    private static final String RESET_SCRIPT = "/tmp/microshed-reset.asadmin";
+
     @Override
     public int getPriority() {
         return PRIORITY_RUNTIME_MODULE;
@@ -41,19 +55,71 @@ public class PayaraServerAdapter implements ServerAdapter {
         return 8181;
     }
 
+    @Override
+    public Optional<Pattern> getReadyLogPattern() {
+        // Payara Server  6.2023.12 #badassfish (build 1234) startup time : Felix (1,234ms), startup services(2,345ms), total(3,579ms)
+        return Optional.of(READY_MESSAGE);
+    }
+
+    @Override
+    public Optional<Pattern> getFatalLogPattern() {
+        // Exception while loading the app : CDI deployment failure
+        return Optional.of(FATAL_MESSAGE);
+    }
+
+    @Override
+    public Optional<String> getBaseImage() {
+        return Optional.of(BASE_IMAGE);
+    }
+
     @Override
     public ImageFromDockerfile getDefaultImage(File appFile) {
         String appName = appFile.getName();
+        if (LayeredApplicationImage.isEnabled(appFile)) {
+            return new LayeredApplicationImage(appFile, DEPLOYMENT_DIR)
+                    .withBaseImage(BASE_IMAGE)
+                    .build();
+        }
         // Compose a docker image equivalent to doing:
         // FROM payara/server-full:6.2023.12-jdk21
         // ADD target/myservice.war /opt/payara/deployments/
         return new ImageFromDockerfile()
-                .withDockerfileFromBuilder(builder -> builder.from("payara/server-full:6.2023.12-jdk21")
-                        .add(appName, "/opt/payara/deployments/")
+                .withDockerfileFromBuilder(builder -> builder.from(BASE_IMAGE)
+                        .add(appName, DEPLOYMENT_DIR)
                         .build())
                 .withFileFromFile(appName, appFile);
     }
 
+    @Override
+    public boolean supportsRedeploy() {
+        return true;
+    }
+
+    @Override
+    public void redeploy(ApplicationContainer app, File appFile) {
+        // The autodeployer redeploys the archive under the same name as the deployment made at startup,
+        // and reports the outcome with a <file>_deployed or <file>_deployFailed marker
+        String target = AUTODEPLOY_DIR + appFile.getName();
+        Redeployment.delete(app, target + "_deployed", target + "_deployFailed");
+        Redeployment.replaceFile(app, appFile, target);
+        Redeployment.awaitFile(app, target + "_deployed", target + "_deployFailed", Duration.ofSeconds(getDefaultAppStartTimeout()));
+    }
+
+    @Override
+    public boolean supportsApplicationReset() {
+        return true;
+    }
+
+    @Override
+    public void resetApplication(ApplicationContainer app) {
+        // Disabling and enabling an application restarts it from its deployed content. The commands of all
+        // applications are run in a single asadmin session, since starting asadmin takes about a second.
+        // list-applications --terse lists one application per line, such as: myservice <web>
+        Redeployment.run(app, "apps=$(" + ASADMIN + " list-applications --terse | awk '$2 ~ /^</ {print $1}') && " +
+                              "for a in $apps; do printf 'disable %s\\nenable %s\\n' \"$a\" \"$a\"; done > " + RESET_SCRIPT + " && " +
+                              "if [ -n \"$apps\" ]; then " + ASADMIN + " multimode --file " + RESET_SCRIPT + "; fi");
+    }
+
     @Override
     public Optional<String> getReadinessPath() {
         return Optional.of("/health");
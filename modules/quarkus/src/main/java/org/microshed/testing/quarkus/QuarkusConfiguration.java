@@ -91,9 +91,15 @@ public class QuarkusConfiguration extends TestcontainersConfiguration {
         }
     }
 
+    @Override
+    public String getApplicationURL(Class<?> testClass) {
+        // Quarkus runs the application itself, so the URL is the same for all test classes
+        return getApplicationURL();
+    }
+
     @Override
     public void preConfigure(Class<?> testClass) {
-        containers = discoveredContainers.computeIfAbsent(testClass, clazz -> new ContainerGroup(clazz));
+        ContainerGroup containers = getContainerGroup(testClass);
 
         // Verify that @MicroShedTest comes before @QuarkusTest
         if (containers.allContainers.size() > 0) {
@@ -114,13 +120,19 @@ public class QuarkusConfiguration extends TestcontainersConfiguration {
         super.preConfigure(testClass);
     }
 
+    @Override
+    public void prestart(Class<?> testClass) {
+        // The annotation order of each test class must be verified before any containers are started
+    }
+
     @Override
     public void postConfigure(Class<?> testClass) {
         // TODO: JWT auto configuration
 //      autoConfigureJwt();
-        autoConfigureDatabases();
-        autoConfigureKafka();
-        autoConfigureMongoDB();
+        ContainerGroup containers = getContainerGroup(testClass);
+        autoConfigureDatabases(containers);
+        autoConfigureKafka(containers);
+        autoConfigureMongoDB(containers);
     }
 
     private void autoConfigureJwt() {
@@ -140,7 +152,7 @@ public class QuarkusConfiguration extends TestcontainersConfiguration {
         LOG.debug("Configuring mp.jwt.verify.publickey=" + JwtBuilder.getPublicKey());
     }
 
-    private void autoConfigureDatabases() {
+    private void autoConfigureDatabases(ContainerGroup containers) {
         if (System.getProperty("quarkus.datasource.jdbc.url") != null ||
             System.getProperty("quarkus.datasource.username") != null ||
             System.getProperty("quarkus.datasource.password") != null)
@@ -169,7 +181,7 @@ public class QuarkusConfiguration extends TestcontainersConfiguration {
         }
     }
 
-    private void autoConfigureKafka() {
+    private void autoConfigureKafka(ContainerGroup containers) {
         final String KAFKA_PROP = "kafka.bootstrap.servers";
         //kafka.bootstrap.servers
         if (System.getProperty(KAFKA_PROP) != null)
@@ -196,7 +208,7 @@ public class QuarkusConfiguration extends TestcontainersConfiguration {
         }
     }
 
-    private void autoConfigureMongoDB() {
+    private void autoConfigureMongoDB(ContainerGroup containers) {
         if (System.getProperty("quarkus.mongodb.connection-string") != null ||
             System.getProperty("quarkus.mongodb.hosts") != null)
             return; // Do not override explicit configuration
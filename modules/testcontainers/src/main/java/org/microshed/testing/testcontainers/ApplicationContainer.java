@@ -18,77 +18,135 @@
  */
 package org.microshed.testing.testcontainers;
 
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+import static org.microshed.testing.internal.LifecycleTimings.CATEGORY_CONTAINER;
+
 import java.io.File;
-import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.extension.ExtensionConfigurationException;
 import org.junit.platform.commons.support.AnnotationSupport;
 import org.microshed.testing.ApplicationEnvironment;
+import org.microshed.testing.LocalProcessConfiguration;
 import org.microshed.testing.ManuallyStartedConfiguration;
 import org.microshed.testing.internal.InternalLogger;
+import org.microshed.testing.internal.InternalUtils;
+import org.microshed.testing.internal.LifecycleTimings;
 import org.microshed.testing.jaxrs.RESTClient;
 import org.microshed.testing.testcontainers.config.HollowTestcontainersConfiguration;
 import org.microshed.testing.testcontainers.config.TestcontainersConfiguration;
+import org.microshed.testing.testcontainers.internal.AppArchiveLocator;
+import org.microshed.testing.testcontainers.internal.BackgroundImageBuild;
+import org.microshed.testing.testcontainers.internal.BaseImagePrefetch;
 import org.microshed.testing.testcontainers.internal.HollowContainerInspection;
-import org.microshed.testing.testcontainers.internal.ImageFromDockerfile;
+import org.microshed.testing.testcontainers.internal.ImageCache;
+import org.microshed.testing.testcontainers.internal.ImageMetadata;
+import org.microshed.testing.testcontainers.internal.LogTriggeredHttpWaitStrategy;
+import org.microshed.testing.testcontainers.internal.PoolableContainer;
+import org.microshed.testing.testcontainers.internal.Redeployment;
+import org.microshed.testing.testcontainers.internal.ReusedContainerRegistry;
+import org.microshed.testing.testcontainers.internal.StartupHistory;
+import org.microshed.testing.testcontainers.internal.StartupScheduler;
 import org.microshed.testing.testcontainers.spi.ServerAdapter;
-import org.testcontainers.DockerClientFactory;
 import org.testcontainers.containers.BindMode;
 import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
 import org.testcontainers.containers.SelinuxContext;
 import org.testcontainers.containers.output.Slf4jLogConsumer;
 import org.testcontainers.containers.wait.strategy.HttpWaitStrategy;
 import org.testcontainers.containers.wait.strategy.LogMessageWaitStrategy;
 import org.testcontainers.containers.wait.strategy.Wait;
 import org.testcontainers.containers.wait.strategy.WaitStrategy;
-import org.testcontainers.utility.Base58;
+import org.testcontainers.images.builder.Transferable;
 
 import com.github.dockerjava.api.command.InspectContainerResponse;
-import com.github.dockerjava.api.command.InspectImageResponse;
-import com.github.dockerjava.api.model.ExposedPort;
 
 /**
  * Represents a MicroProfile, JavaEE, or JakartaEE application running inside a Docker
  * container.
  */
-public class ApplicationContainer extends GenericContainer<ApplicationContainer> {
+public class ApplicationContainer extends GenericContainer<ApplicationContainer> implements PoolableContainer {
 
     /**
      * A path representing the MicroProfile Health 2.0 readiness check
      */
     public static final String MP_HEALTH_READINESS_PATH = "/health/ready";
 
+    /**
+     * The name of the system property or environment variable that may be set to <code>true</code> to
+     * reuse application containers across test runs, as if {@link #withReuse(boolean)} was used
+     */
+    public static final String REUSE_ENABLED = "microshed_app_reuse";
+
+    /**
+     * The label holding the ID of the image of a reusable application container, so that a container is
+     * not reused after the image behind a tag changes
+     */
+    public static final String LABEL_IMAGE_ID = "org.microshed.image.id";
+
+    /**
+     * The label identifying the application and configuration a reusable container was started for, regardless of the
+     * content of its image
+     */
+    public static final String LABEL_REUSE_KEY = "org.microshed.reuse.key";
+
+    private static final String DEPLOYED_APP_HASH_FILE = "/tmp/microshed-app.sha256";
+
     private static final InternalLogger LOG = InternalLogger.get(ApplicationContainer.class);
     private static final boolean isHollow = isHollow();
+    private static final Map<ClassLoader, Optional<ServerAdapter>> adapters = new ConcurrentHashMap<>();
+    // config properties applied to running containers with updateConfig(), by container ID
+    private static final Map<String, Map<String, String>> liveConfig = new ConcurrentHashMap<>();
+    private static final Pattern ENV_VAR_NAME = Pattern.compile("[A-Z0-9]+(_[A-Z0-9]+)+");
 
     private String appContextRoot;
     private ServerAdapter serverAdapter;
     private boolean waitStrategySet;
     private boolean readinessPathSet;
+    private boolean defaultStartupTimeout;
+    private long startingAt = -1;
+    private boolean reused;
+    // true if the image is built by the ServerAdapter, rather than from a Dockerfile or an existing image
+    private boolean defaultImage;
+    // the application to deploy once a container built with a placeholder application has started
+    private File placeholderReplacement;
+    private String deployedAppHash;
+    // true if updateConfig() restarted the application since it was last reset
+    private boolean configUpdated;
+    // timestamps (from System.nanoTime) of the startup phases, for the LifecycleTimings report
+    private long startRequestedAt = -1, imageBuiltAt = -1, imageResolvedAt = -1, createdAt = -1;
     private Integer primaryPort;
+    private BackgroundImageBuild imageBuild;
+    // the equivalent running container of the ContainerPool this container stands in for, if any
+    private volatile GenericContainer<?> pooledContainer;
 
     // variables for late-bound containers
     private String lateBind_ipAddress;
@@ -112,33 +170,41 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
         } else if (dockerfile.isPresent()) {
             if (!Files.exists(dockerfile.get()))
                 throw new ExtensionConfigurationException("Dockerfile did not exist at: " + dockerfile.get());
-            ImageFromDockerfile image = new ImageFromDockerfile("testcontainers/mpapp-" + Base58.randomString(10).toLowerCase());
-            image.withDockerfile(dockerfile.get());
-            image.setBaseDirectory(Paths.get("."));
-            return image;
+            return ImageCache.fromDockerfile(dockerfile.get(), Paths.get("."));
         } else {
             // Dockerfile is not present, use a ServerAdapter to build the image
-            return resolveAdatper().orElseThrow(() -> {
+            ServerAdapter adapter = resolveAdatper().orElseThrow(() -> {
                 return new ExtensionConfigurationException("Unable to resolve Docker image for application because:" +
                                                            "\n - unable to locate Dockerfile in " + dockerfile_root.toAbsolutePath() +
                                                            "\n - unable to locate Dockerfile in " + dockerfile_src_main.toAbsolutePath() +
                                                            "\n - did not find any ServerAdapter to provide a default Dockerfile");
-            }).getDefaultImage(findAppFile());
+            });
+            // Preparing the image definition (e.g. exploding the application) is part of the background build
+            return ImageCache.fromImage(() -> adapter.getDefaultImage(findAppFile(adapter)));
         }
     }
 
+    /**
+     * Begin pulling the base image of the ServerAdapter in the background, if no Dockerfile is present so that
+     * the default application image is likely to be built from it
+     */
+    public static void prefetchBaseImage() {
+        if (isHollow || !BaseImagePrefetch.isEnabled() || autoDiscoverDockerfile().isPresent())
+            return;
+        resolveAdatper().flatMap(ServerAdapter::getBaseImage).ifPresent(BaseImagePrefetch::start);
+    }
+
     private static boolean isHollow() {
         return ApplicationEnvironment.Resolver.isSelected(HollowTestcontainersConfiguration.class) ||
-               ApplicationEnvironment.Resolver.isSelected(ManuallyStartedConfiguration.class);
+               ApplicationEnvironment.Resolver.isSelected(ManuallyStartedConfiguration.class) ||
+               ApplicationEnvironment.Resolver.isSelected(LocalProcessConfiguration.class);
     }
 
     private static File findAppFile() {
-        // Find a .war or .ear file in the build/ or target/ directories
-        Set<File> matches = new HashSet<>();
-        matches.addAll(findAppFiles("build"));
-        matches.addAll(findAppFiles("target"));
+        // Find a .war, .ear, or runnable .jar file in the build/ or target/ directories
+        Set<File> matches = AppArchiveLocator.find(Paths.get("."));
         if (matches.size() == 0)
-            throw new IllegalStateException("No .war or .ear files found in build/ or target/ output folders.");
+            throw new IllegalStateException("No .war, .ear, or runnable .jar files found in build/ or target/ output folders.");
         if (matches.size() > 1)
             throw new IllegalStateException("Found multiple application files in build/ or target output folders: " + matches +
                                             " Expecting exactly 1 application file to be found.");
@@ -147,30 +213,29 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
         return appFile;
     }
 
-    private static Set<File> findAppFiles(String path) {
-        File dir = new File(path);
-        if (dir.exists() && dir.isDirectory()) {
-            try {
-                return Files.walk(dir.toPath())
-                                .filter(Files::isRegularFile)
-                                .filter(p -> p.toString().toLowerCase().endsWith(".war"))
-                                .map(p -> p.toFile())
-                                .collect(Collectors.toSet());
-            } catch (IOException ignore) {
-            }
-        }
-        return Collections.emptySet();
+    private static File findAppFile(ServerAdapter adapter) {
+        if (adapter.requiresApplicationArchive())
+            return findAppFile();
+        // The adapter deploys the application from the build output, so only the name of the application is needed
+        Set<File> matches = AppArchiveLocator.find(Paths.get("."));
+        if (matches.size() == 1)
+            return matches.iterator().next();
+        return new File(Paths.get(".").toAbsolutePath().normalize().getFileName() + ".war");
     }
 
     private static Optional<ServerAdapter> resolveAdatper() {
-        List<ServerAdapter> adapters = new ArrayList<>(1);
-        for (ServerAdapter adapter : ServiceLoader.load(ServerAdapter.class)) {
-            adapters.add(adapter);
-            LOG.debug("Discovered ServerAdapter: " + adapter.getClass());
-        }
-        return adapters.stream()
-                        .sorted((a1, a2) -> Integer.compare(a2.getPriority(), a1.getPriority()))
-                        .findFirst();
+        // Discovering adapters scans the classpath, so only do it once per class loader
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return adapters.computeIfAbsent(loader == null ? ApplicationContainer.class.getClassLoader() : loader, l -> {
+            List<ServerAdapter> found = new ArrayList<>(1);
+            for (ServerAdapter adapter : ServiceLoader.load(ServerAdapter.class, l)) {
+                found.add(adapter);
+                LOG.debug("Discovered ServerAdapter: " + adapter.getClass());
+            }
+            return found.stream()
+                            .sorted((a1, a2) -> Integer.compare(a2.getPriority(), a1.getPriority()))
+                            .findFirst();
+        });
     }
 
     /**
@@ -195,7 +260,14 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
     }
 
     private ApplicationContainer(Optional<Path> dockerfilePath) {
-        this(resolveImage(dockerfilePath));
+        this(dockerfilePath, dockerfilePath.isPresent() ? null : placeholderReplacement());
+    }
+
+    private ApplicationContainer(Optional<Path> dockerfilePath, File placeholderReplacement) {
+        // Decide on the placeholder before the background build starts, so that only the image that is used is built
+        this(placeholderReplacement == null ? resolveImage(dockerfilePath) : placeholderImage(resolveAdatper().get(), placeholderReplacement));
+        defaultImage = !dockerfilePath.isPresent();
+        this.placeholderReplacement = placeholderReplacement;
     }
 
     /**
@@ -210,8 +282,20 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
         LOG.info("Using Dockerfile at: " + dockerfilePath);
     }
 
+    /**
+     * Builds an instance based on a lazily resolved image, such as an
+     * {@link org.testcontainers.images.builder.ImageFromDockerfile}. Resolution of the image begins
+     * in the background immediately, so that it overlaps with the startup of other containers.
+     *
+     * @param dockerImageName A future which resolves to the docker image to be used for this instance
+     */
     public ApplicationContainer(Future<String> dockerImageName) {
-        super(dockerImageName);
+        this(BackgroundImageBuild.start(dockerImageName));
+    }
+
+    private ApplicationContainer(BackgroundImageBuild imageBuild) {
+        super(imageBuild);
+        this.imageBuild = imageBuild;
         commonInit();
     }
 
@@ -233,6 +317,8 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
         } else {
             withLogConsumer(new SystemOutLogConsumer("[ApplicationContainer]"));
         }
+        if (!isHollow && Boolean.parseBoolean(resolveProperty(REUSE_ENABLED)))
+            withReuse(true);
         if (isHollow) {
             setContainerIpAddress(ManuallyStartedConfiguration.getHostname());
             try {
@@ -262,12 +348,83 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
                 withReadinessPath(appContextRoot);
             }
         }
-        if (readinessPathSet &&
-            primaryPort != null &&
-            waitStrategy instanceof HttpWaitStrategy) {
-            HttpWaitStrategy wait = (HttpWaitStrategy) waitStrategy;
-            wait.forPort(primaryPort);
+        if (readinessPathSet && primaryPort != null) {
+            if (waitStrategy instanceof HttpWaitStrategy)
+                ((HttpWaitStrategy) waitStrategy).forPort(primaryPort);
+            else if (waitStrategy instanceof LogTriggeredHttpWaitStrategy)
+                ((LogTriggeredHttpWaitStrategy) waitStrategy).forPort(primaryPort);
+        }
+        // Replace the ServerAdapter's default timeout with one learned from earlier startups, if possible
+        if (!isHollow && defaultStartupTimeout) {
+            StartupHistory.get()
+                            .flatMap(history -> history.getLearnedTimeout(getStartupKey()))
+                            .ifPresent(timeout -> {
+                                LOG.debug("Using startup timeout of " + timeout.toMillis() + "ms learned from earlier startups of " + toStringSimple());
+                                waitStrategy.withStartupTimeout(timeout);
+                            });
+        }
+        if (!isHollow && isShouldBeReused())
+            configureReuse();
+    }
+
+    /**
+     * Label a reusable container so that Testcontainers only reuses it while its image and configuration are
+     * unchanged, and so that containers started for the same application by earlier runs can be found
+     */
+    private void configureReuse() {
+        if (getNetwork() == Network.SHARED)
+            LOG.warn(toStringSimple() + " is attached to a network that is created for each test run, so it can not be reused by later runs. " +
+                     "Use a network with a fixed name, or no network, to reuse the container.");
+        withLabel(LABEL_REUSE_KEY, getReuseKey());
+        try {
+            withLabel(LABEL_IMAGE_ID, ImageMetadata.inspect(getDockerImageName()).id);
+        } catch (RuntimeException e) {
+            LOG.debug("Unable to determine the image ID of " + toStringSimple(), e);
         }
+        if (!org.testcontainers.utility.TestcontainersConfiguration.getInstance().environmentSupportsReuse())
+            LOG.warn("Reuse of " + toStringSimple() + " was requested, but container reuse is not enabled. Set testcontainers.reuse.enable=true " +
+                     "in ~/.testcontainers.properties, or set the TESTCONTAINERS_REUSE_ENABLE environment variable to true, to enable it.");
+    }
+
+    /**
+     * Remove the containers that earlier runs started for the same application and configuration with a different
+     * image, or that Testcontainers would not reuse for other reasons, unless another process is using them
+     */
+    private void removeStaleContainers(String containerId) {
+        String reuseKey = getLabels().get(LABEL_REUSE_KEY);
+        if (reuseKey == null)
+            return;
+        Thread cleanup = new Thread(() -> {
+            try {
+                ReusedContainerRegistry.removeStale(reuseKey, containerId, toStringSimple());
+            } catch (RuntimeException e) {
+                LOG.debug("Unable to remove stale containers of " + toStringSimple(), e);
+            }
+        }, "microshed-reuse-cleanup");
+        cleanup.setDaemon(true);
+        cleanup.start();
+    }
+
+    /**
+     * @return A key identifying the application, environment, and exposed ports of this container, but not the content
+     *         of its image, so that containers that earlier runs started with an outdated image can be found
+     */
+    private String getReuseKey() {
+        StringBuilder key = new StringBuilder(getStartupKey()).append('\n');
+        new TreeMap<>(getEnvMap()).forEach((k, v) -> key.append("env=").append(k).append('=').append(v).append('\n'));
+        getExposedPorts().stream().sorted().forEach(p -> key.append("port=").append(p).append('\n'));
+        return InternalUtils.sha256(key.toString()).substring(0, 16);
+    }
+
+    /**
+     * @return A key identifying this container in the {@link StartupHistory}
+     */
+    private String getStartupKey() {
+        String image = getDockerImageName();
+        // Locally built images are tagged by the hash of their content, which changes whenever the application does
+        if (image.startsWith(ImageCache.IMAGE_REPOSITORY))
+            return "local:" + Paths.get(".").toAbsolutePath().normalize() + ':' + serverAdapter.getClass().getName() + ':' + appContextRoot;
+        return image;
     }
 
     public void setContainerIpAddress(String ipAddress) {
@@ -286,8 +443,259 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
         setExposedPorts(exposedPorts);
     }
 
+    @Override
+    protected void containerIsCreated(String containerId) {
+        createdAt = System.nanoTime();
+        // Only record the phases now, so that they are reported under the same name as the later phases
+        String subject = StartupScheduler.timingSubject(this);
+        LifecycleTimings.record(CATEGORY_CONTAINER, subject, "image build wait", startRequestedAt, imageBuiltAt);
+        LifecycleTimings.record(CATEGORY_CONTAINER, subject, "image resolution/pull", imageBuiltAt, imageResolvedAt);
+        LifecycleTimings.record(CATEGORY_CONTAINER, subject, "create", imageResolvedAt, createdAt);
+    }
+
+    @Override
+    protected void containerIsStarting(InspectContainerResponse containerInfo, boolean reused) {
+        this.reused = reused;
+        if (reused)
+            LOG.info("Reusing running container " + containerInfo.getId() + " for " + toStringSimple());
+        if (isShouldBeReused()) {
+            ReusedContainerRegistry.markInUse(containerInfo.getId());
+            if (!reused)
+                removeStaleContainers(containerInfo.getId());
+        }
+        if (waitStrategy instanceof LogTriggeredHttpWaitStrategy) {
+            // A running container that is reused logged its startup, and possibly failed deployments, during earlier runs
+            ((LogTriggeredHttpWaitStrategy) waitStrategy).withExistingLogIgnored(reused);
+            // The application replaces the placeholder once the runtime is ready, so only wait for the runtime until then
+            ((LogTriggeredHttpWaitStrategy) waitStrategy).withAnyStatus(isPlaceholderDeployed());
+        }
+        super.containerIsStarting(containerInfo, reused);
+    }
+
+    private boolean isPlaceholderDeployed() {
+        return !isHollow && placeholderReplacement != null && !reused && serverAdapter.supportsRedeploy();
+    }
+
+    /**
+     * Deploy the current application once the container is ready. This is done after the readiness wait, so that
+     * the time it takes is not mistaken for startup time.
+     */
+    private void deployApplication() {
+        if (isHollow || !serverAdapter.supportsRedeploy())
+            return;
+        if (isPlaceholderDeployed()) {
+            redeploy(placeholderReplacement);
+        } else if (reused) {
+            redeployIfChanged();
+        } else {
+            // The image was built with the current application
+            deployedAppHash = currentAppHash();
+        }
+    }
+
+    /**
+     * Redeploy the application into this running container if the application archive has changed since it was
+     * deployed, without restarting the container. This requires a {@link ServerAdapter} that
+     * {@link ServerAdapter#supportsRedeploy() supports redeploying}.
+     *
+     * @return true if the application was redeployed, false if it was unchanged or can not be redeployed
+     */
+    public boolean redeployIfChanged() {
+        if (isHollow || !serverAdapter.supportsRedeploy() || getContainerId() == null)
+            return false;
+        String hash = currentAppHash();
+        if (hash == null || hash.equals(getDeployedAppHash()))
+            return false;
+        redeploy(findAppFile());
+        return true;
+    }
+
+    /**
+     * @return true if the configuration of this container can be updated while it is running, see {@link #updateConfig()}
+     */
+    public boolean supportsLiveConfig() {
+        return !isHollow && serverAdapter.supportsLiveConfig();
+    }
+
+    /**
+     * Apply the environment variables of this container definition to the running container it is attached to, as
+     * MicroProfile Config properties. This allows test classes whose application containers only differ in the values
+     * of their environment variables to share a single running container. Only the variables that differ from the
+     * environment the container was created with are applied, and they replace any properties applied before. This
+     * requires a {@link ServerAdapter} that {@link ServerAdapter#supportsLiveConfig() supports live config updates}.
+     */
+    public void updateConfig() {
+        if (!supportsLiveConfig() || getContainerId() == null || getContainerInfo() == null)
+            return;
+        Map<String, String> created = new HashMap<>();
+        String[] env = getContainerInfo().getConfig().getEnv();
+        for (String var : env == null ? new String[0] : env) {
+            int split = var.indexOf('=');
+            if (split > 0)
+                created.put(var.substring(0, split), var.substring(split + 1));
+        }
+        Map<String, String> properties = new TreeMap<>();
+        getEnvMap().forEach((k, v) -> {
+            if (!v.equals(created.get(k)))
+                properties.putAll(configPropertiesFor(k, v));
+        });
+        if (properties.equals(liveConfig.getOrDefault(getContainerId(), Collections.emptyMap())))
+            return;
+        long start = System.nanoTime();
+        serverAdapter.setConfigProperties(this, properties);
+        long end = System.nanoTime();
+        liveConfig.put(getContainerId(), properties);
+        configUpdated = true;
+        LifecycleTimings.record(CATEGORY_CONTAINER, StartupScheduler.timingSubject(this), "config update", start, end);
+        LOG.info("Updated the configuration of " + toStringSimple() + " with " + properties.keySet() + " in " +
+                 TimeUnit.NANOSECONDS.toMillis(end - start) + "ms");
+    }
+
+    /**
+     * MicroProfile Config looks up property names such as <code>foo.bar</code> in environment variables as
+     * <code>FOO_BAR</code>. That mapping only applies to environment variables, so properties set from such
+     * variables are set under the lowercase, dotted name as well.
+     */
+    static Map<String, String> configPropertiesFor(String envVar, String value) {
+        Map<String, String> properties = new TreeMap<>();
+        properties.put(envVar, value);
+        if (ENV_VAR_NAME.matcher(envVar).matches())
+            properties.put(envVar.toLowerCase(Locale.ROOT).replace('_', '.'), value);
+        return properties;
+    }
+
+    /**
+     * @return true if the application in this container can be restarted while the container is running, see {@link #resetApplication()}
+     */
+    public boolean supportsApplicationReset() {
+        return !isHollow && serverAdapter.supportsApplicationReset();
+    }
+
+    /**
+     * @return true if this container was already running when it was started, and is being reused
+     */
+    public boolean isReused() {
+        return reused;
+    }
+
+    /**
+     * Restart the application in this running container, so that it discards any state left behind by earlier test
+     * classes, without restarting the container. This requires a {@link ServerAdapter} that
+     * {@link ServerAdapter#supportsApplicationReset() supports resetting applications}.
+     */
+    public void resetApplication() {
+        if (!supportsApplicationReset() || getContainerId() == null)
+            return;
+        if (configUpdated) {
+            // The application was just restarted with the updated configuration
+            configUpdated = false;
+            return;
+        }
+        long start = System.nanoTime();
+        serverAdapter.resetApplication(this);
+        long end = System.nanoTime();
+        LifecycleTimings.record(CATEGORY_CONTAINER, StartupScheduler.timingSubject(this), "application reset", start, end);
+        LOG.info("Reset the application of " + toStringSimple() + " in " + TimeUnit.NANOSECONDS.toMillis(end - start) + "ms");
+    }
+
+    private void redeploy(File appFile) {
+        long start = System.nanoTime();
+        serverAdapter.redeploy(this, appFile);
+        long end = System.nanoTime();
+        deployedAppHash = Redeployment.hash(appFile);
+        // Remember what was deployed in the container itself, for later runs that reuse it
+        copyFileToContainer(Transferable.of(deployedAppHash), DEPLOYED_APP_HASH_FILE);
+        LifecycleTimings.record(CATEGORY_CONTAINER, StartupScheduler.timingSubject(this), "redeploy", start, end);
+        LOG.info("Redeployed " + appFile.getName() + " into " + toStringSimple() + " in " + TimeUnit.NANOSECONDS.toMillis(end - start) + "ms");
+    }
+
+    private String getDeployedAppHash() {
+        if (deployedAppHash != null)
+            return deployedAppHash;
+        try {
+            deployedAppHash = copyFileFromContainer(DEPLOYED_APP_HASH_FILE, in -> new String(in.readAllBytes(), StandardCharsets.UTF_8).trim());
+        } catch (Exception e) {
+            // Nothing was redeployed into the container yet, so it still contains the application of its image. Unless the
+            // image holds a placeholder, that is the current application, since the image is tagged by its content.
+            deployedAppHash = placeholderReplacement != null ? "" : currentAppHash();
+        }
+        return deployedAppHash;
+    }
+
+    private String currentAppHash() {
+        try {
+            return Redeployment.hash(findAppFile());
+        } catch (RuntimeException e) {
+            LOG.debug("Unable to determine the application deployed in " + toStringSimple(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Build the image with an unchanging placeholder instead of the application, and deploy the application once the
+     * container has started. Since the image then only changes with the runtime and its configuration, later runs can
+     * reuse the container and redeploy the application into it instead of starting a new container.
+     */
+    private void usePlaceholderImage() {
+        File appFile = placeholderCandidate();
+        if (appFile == null)
+            return;
+        LOG.debug("Using an image with a placeholder for " + appFile.getName() + " so that " + toStringSimple() + " can be reused after the application changes");
+        replaceImageBuild(placeholderImage(serverAdapter, appFile));
+        placeholderReplacement = appFile;
+    }
+
+    /**
+     * Build the image with the application after all, because the container was created with a placeholder image
+     * for {@value #REUSE_ENABLED}, but it is no longer reusable or needs the application to become ready
+     */
+    private void useApplicationImage() {
+        LOG.debug("Using an image with " + placeholderReplacement.getName() + " instead of a placeholder for " + toStringSimple());
+        placeholderReplacement = null;
+        replaceImageBuild(resolveImage(Optional.empty()));
+    }
+
+    private void replaceImageBuild(Future<String> image) {
+        // The superseded build is no longer needed, so it should not compete with the new one
+        if (imageBuild != null)
+            imageBuild.cancel(true);
+        imageBuild = BackgroundImageBuild.start(image);
+        setImage(imageBuild);
+    }
+
+    /**
+     * @return The application to deploy into containers that are built with a placeholder image from the start,
+     *         because reuse is enabled for all application containers with {@value #REUSE_ENABLED}, or null
+     */
+    private static File placeholderReplacement() {
+        if (isHollow || !Boolean.parseBoolean(resolveProperty(REUSE_ENABLED)))
+            return null;
+        Optional<ServerAdapter> adapter = resolveAdatper();
+        return adapter.isPresent() && adapter.get().supportsRedeploy() ? placeholderCandidate() : null;
+    }
+
+    /**
+     * @return The application that may be replaced with a placeholder in the image, or null if the application is
+     *         not a war that can be redeployed
+     */
+    private static File placeholderCandidate() {
+        File appFile;
+        try {
+            appFile = findAppFile();
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return appFile.getName().toLowerCase().endsWith(".war") ? appFile : null;
+    }
+
+    private static Future<String> placeholderImage(ServerAdapter adapter, File appFile) {
+        return ImageCache.fromImage(() -> adapter.getDefaultImage(Redeployment.placeholderFor(appFile)));
+    }
+
     @Override
     protected void containerIsStarting(InspectContainerResponse containerInfo) {
+        startingAt = System.nanoTime();
+        LifecycleTimings.record(CATEGORY_CONTAINER, StartupScheduler.timingSubject(this), "start", createdAt, startingAt);
         List<Integer> exposedPorts = getExposedPorts();
         if (exposedPorts.size() == 0) {
             LOG.info(toStringSimple() + " has no exposed ports.");
@@ -297,6 +705,22 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
         }
     }
 
+    @Override
+    protected void containerIsStarted(InspectContainerResponse containerInfo) {
+        if (isHollow || startingAt < 0)
+            return;
+        long readyAt = System.nanoTime();
+        LifecycleTimings.record(CATEGORY_CONTAINER, StartupScheduler.timingSubject(this), "readiness wait", startingAt, readyAt);
+        long startupMillis = TimeUnit.NANOSECONDS.toMillis(readyAt - startingAt);
+        if (reused) {
+            LOG.info(toStringSimple() + " was verified to be ready in " + startupMillis + "ms");
+        } else {
+            LOG.info(toStringSimple() + " became ready " + startupMillis + "ms after it was started");
+            StartupHistory.get().ifPresent(history -> history.record(getStartupKey(), toStringSimple(), startupMillis));
+        }
+        deployApplication();
+    }
+
     @Override
     protected void doStart() {
         if (isHollow) {
@@ -307,32 +731,104 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
             if (env.size() > 0)
                 getServerAdapter().setConfigProperties(env);
             configure();
-            waitUntilContainerStarted();
+            try (LifecycleTimings.Span span = LifecycleTimings.span(CATEGORY_CONTAINER, toStringSimple(), "readiness wait")) {
+                waitUntilContainerStarted();
+            }
             lateBind_started = true;
             return;
         }
+        startRequestedAt = System.nanoTime();
+        // A custom wait strategy may depend on the application, which is only deployed after the wait
+        boolean customWaitStrategy = waitStrategySet && !(waitStrategy instanceof LogTriggeredHttpWaitStrategy);
+        boolean placeholder = defaultImage && isShouldBeReused() && serverAdapter.supportsRedeploy() && !customWaitStrategy;
+        if (placeholder && placeholderReplacement == null)
+            usePlaceholderImage();
+        else if (!placeholder && placeholderReplacement != null)
+            useApplicationImage();
+        awaitImageBuild();
+        imageBuiltAt = System.nanoTime();
+        if (LifecycleTimings.isEnabled())
+            awaitImageResolution();
+        imageResolvedAt = System.nanoTime();
         super.doStart();
     }
 
+    /**
+     * Resolve (and if necessary pull) the image before the container is created, so that the time spent
+     * pulling the image is reported separately from the time it takes to create the container
+     */
+    private void awaitImageResolution() {
+        try {
+            getDockerImageName();
+        } catch (RuntimeException e) {
+            // Let the regular container startup report the failure
+        }
+    }
+
+    /**
+     * Wait for the background image build to complete, so that the build time is reported separately
+     * from the time it takes the container to start
+     */
+    private void awaitImageBuild() {
+        if (imageBuild == null || imageBuild.isDone())
+            return;
+        long start = System.currentTimeMillis();
+        try {
+            imageBuild.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            // Let the regular container startup report the failure
+            return;
+        }
+        LOG.info("Waited " + (System.currentTimeMillis() - start) + "ms for the image build of " + toStringSimple() +
+                 " to complete (total build time " + imageBuild.getBuildMillis() + "ms)");
+    }
+
+    @Override
+    public void attachTo(GenericContainer<?> running) {
+        pooledContainer = running;
+    }
+
+    @Override
+    public void stop() {
+        if (pooledContainer != null) {
+            // The pool stops the running container once no test class uses it anymore
+            pooledContainer = null;
+            return;
+        }
+        super.stop();
+    }
+
+    @Override
+    public String getContainerId() {
+        GenericContainer<?> pooled = pooledContainer;
+        return pooled != null ? pooled.getContainerId() : super.getContainerId();
+    }
+
     @Override
     public boolean isCreated() {
         if (isHollow)
             return true;
-        return super.isCreated();
+        GenericContainer<?> pooled = pooledContainer;
+        return pooled != null ? pooled.isCreated() : super.isCreated();
     }
 
     @Override
     public boolean isHealthy() {
         if (isHollow)
             return true;
-        return super.isHealthy();
+        GenericContainer<?> pooled = pooledContainer;
+        return pooled != null ? pooled.isHealthy() : super.isHealthy();
     }
 
     @Override
     public boolean isRunning() {
         if (isHollow)
             return lateBind_started;
-        return super.isRunning();
+        GenericContainer<?> pooled = pooledContainer;
+        return pooled != null ? pooled.isRunning() : super.isRunning();
     }
 
     @Override
@@ -402,6 +898,7 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
      */
     public ApplicationContainer withReadinessPath(String readinessUrl) {
         withReadinessPath(readinessUrl, serverAdapter.getDefaultAppStartTimeout());
+        defaultStartupTimeout = true;
         return this;
     }
 
@@ -425,6 +922,10 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
      * timeout after a sensible amount of time has elapsed.
      * If unspecified, the readiness path with defailt to the application context root
      *
+     * If the {@link ServerAdapter} defines a {@link ServerAdapter#getReadyLogPattern() ready message},
+     * the endpoint is checked as soon as the message is logged. Waiting is aborted early if the
+     * container exits or the runtime logs a {@link ServerAdapter#getFatalLogPattern() fatal error}.
+     *
      * @param readinessUrl The HTTP endpoint to be polled for readiness. Once the endpoint
      *            returns HTTP 200 (OK), the container is considered to be ready.
      * @param timeoutSeconds The amount of time (in seconds) to wait for the container to be ready.
@@ -435,9 +936,22 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
                                                   int timeoutSeconds,
                                                   Integer port) {
         readinessPathSet = true;
+        defaultStartupTimeout = false;
         Objects.requireNonNull(readinessUrl);
         readinessUrl = buildPath(readinessUrl);
-        HttpWaitStrategy strat = Wait.forHttp(readinessUrl);
+        if (isHollow) {
+            // The log of a hollow container cannot be followed, so poll the readiness path
+            HttpWaitStrategy strat = Wait.forHttp(readinessUrl);
+            if (port != null) {
+                strat.forPort(port);
+            }
+            strat.withStartupTimeout(Duration.ofSeconds(timeoutSeconds));
+            waitingFor(strat);
+            return this;
+        }
+        // Check the readiness path as soon as the runtime logs that it is ready
+        LogTriggeredHttpWaitStrategy strat = new LogTriggeredHttpWaitStrategy(readinessUrl, serverAdapter.getReadyLogPattern())
+                        .withFatalLogPattern(serverAdapter.getFatalLogPattern());
         if (port != null) {
             strat.forPort(port);
         }
@@ -449,6 +963,7 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
     @Override
     public ApplicationContainer waitingFor(WaitStrategy waitStrategy) {
         waitStrategySet = true;
+        defaultStartupTimeout = false;
         checkHollowWaitStrategy(waitStrategy);
         return super.waitingFor(waitStrategy);
     }
@@ -456,6 +971,7 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
     @Override
     public void setWaitStrategy(WaitStrategy waitStrategy) {
         waitStrategySet = true;
+        defaultStartupTimeout = false;
         checkHollowWaitStrategy(waitStrategy);
         super.setWaitStrategy(waitStrategy);
     }
@@ -548,13 +1064,15 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
         return withEnv(restClientClass, hostUri);
     }
 
+    /**
+     * Keep this container running after the tests complete, and reuse it in later test runs for as long as its
+     * image and configuration are unchanged. Once either changes, a new container is started and the containers
+     * of earlier runs are removed. This requires container reuse to be enabled for Testcontainers, by setting
+     * <code>testcontainers.reuse.enable=true</code> in <code>~/.testcontainers.properties</code>.
+     * Reuse may also be enabled for all application containers with the {@value #REUSE_ENABLED} property.
+     */
     @Override
     public ApplicationContainer withReuse(boolean reusable) {
-        if (reusable) {
-            throw new UnsupportedOperationException("Container reuse is not supported for ApplicationContainer. " +
-                                                    "Instead, see HollowTestContainersConfiguration documentation: " +
-                                                    "https://microshed.org/microshed-testing/features/ApplicationEnvironment.html");
-        }
         super.withReuse(reusable);
         return this;
     }
@@ -614,8 +1132,8 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
     public InspectContainerResponse getContainerInfo() {
         if (isHollow)
             return new HollowContainerInspection(this);
-        else
-            return super.getContainerInfo();
+        GenericContainer<?> pooled = pooledContainer;
+        return pooled != null ? pooled.getContainerInfo() : super.getContainerInfo();
     }
 
     @Override
@@ -655,29 +1173,46 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
 
     private class DefaultServerAdapter implements ServerAdapter {
 
-        private final int defaultHttpPort;
+        private CompletableFuture<ImageMetadata> imageMetadata;
+        private volatile int defaultHttpPort = isHollow ? -1 : 0;
 
-        public DefaultServerAdapter() {
-            if (isHollow) {
-                defaultHttpPort = -1;
-            } else {
-                InspectImageResponse imageData = DockerClientFactory.instance().client().inspectImageCmd(getDockerImageName()).exec();
-                LOG.info("Found exposed ports: " + Arrays.toString(imageData.getContainerConfig().getExposedPorts()));
-                int bestChoice = -1;
-                for (ExposedPort exposedPort : imageData.getContainerConfig().getExposedPorts()) {
-                    int port = exposedPort.getPort();
-                    // If any ports end with 80, assume they are HTTP ports
-                    if (Integer.toString(port).endsWith("80")) {
-                        bestChoice = port;
-                        break;
-                    } else if (bestChoice == -1) {
-                        // if no ports match *80, then pick the first port
-                        bestChoice = port;
-                    }
+        @Override
+        public void configure(Set<GenericContainer<?>> allContainers) {
+            // The image is final once the containers are configured. Inspect it in the background, so that
+            // starting the containers does not wait for the image to be pulled or built and for the Docker API round trip.
+            if (!isHollow)
+                inspectImage();
+        }
+
+        private synchronized CompletableFuture<ImageMetadata> inspectImage() {
+            if (imageMetadata == null)
+                imageMetadata = ImageMetadata.inspectAsync(ApplicationContainer.this::getDockerImageName);
+            return imageMetadata;
+        }
+
+        private int selectDefaultHttpPort() {
+            ImageMetadata imageData;
+            try {
+                imageData = inspectImage().join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                throw e;
+            }
+            LOG.info("Found exposed ports: " + imageData.exposedPorts);
+            int bestChoice = -1;
+            for (int port : imageData.exposedPorts) {
+                // If any ports end with 80, assume they are HTTP ports
+                if (Integer.toString(port).endsWith("80")) {
+                    bestChoice = port;
+                    break;
+                } else if (bestChoice == -1) {
+                    // if no ports match *80, then pick the first port
+                    bestChoice = port;
                 }
-                defaultHttpPort = bestChoice;
-                LOG.info("Automatically selecting default HTTP port: " + defaultHttpPort);
             }
+            LOG.info("Automatically selecting default HTTP port: " + bestChoice);
+            return bestChoice;
         }
 
         @Override
@@ -687,6 +1222,8 @@ public class ApplicationContainer extends GenericContainer<ApplicationContainer>
 
         @Override
         public int getDefaultHttpPort() {
+            if (defaultHttpPort == 0)
+                defaultHttpPort = selectDefaultHttpPort();
             return defaultHttpPort;
         }
 
@@ -18,16 +18,16 @@
  */
 package org.microshed.testing.testcontainers.config;
 
-import java.io.IOException;
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+
 import java.lang.reflect.Method;
-import java.net.DatagramSocket;
 import java.net.MalformedURLException;
-import java.net.ServerSocket;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.extension.ExtensionConfigurationException;
@@ -35,6 +35,8 @@ import org.microshed.testing.ApplicationEnvironment;
 import org.microshed.testing.ManuallyStartedConfiguration;
 import org.microshed.testing.internal.InternalLogger;
 import org.microshed.testing.testcontainers.ApplicationContainer;
+import org.microshed.testing.testcontainers.internal.ContainerGroup;
+import org.microshed.testing.testcontainers.internal.HostPortRegistry;
 import org.testcontainers.containers.GenericContainer;
 
 public class HollowTestcontainersConfiguration extends TestcontainersConfiguration {
@@ -48,11 +50,6 @@ public class HollowTestcontainersConfiguration extends TestcontainersConfigurati
         return !host.isEmpty() && (!httpPort.isEmpty() || !httpsPort.isEmpty());
     }
 
-    private static String resolveProperty(String key) {
-        String value = System.getProperty(key, System.getenv(key));
-        return value == null ? "" : value;
-    }
-
     @Override
     public boolean isAvailable() {
         return available();
@@ -79,18 +76,25 @@ public class HollowTestcontainersConfiguration extends TestcontainersConfigurati
 
     }
 
+    @Override
+    public void prestart(Class<?> testClass) {
+        // Fixed exposed ports are only assigned during preConfigure, so containers are not started early
+    }
+
+    @Override
+    boolean isPoolable(GenericContainer<?> container) {
+        // The application is never started by Testcontainers in hollow mode
+        return !(container instanceof ApplicationContainer) && super.isPoolable(container);
+    }
+
     @Override
     public void preConfigure(Class<?> testClass) {
         super.preConfigure(testClass);
+        ContainerGroup containers = getContainerGroup(testClass);
 
-        // Translate any Docker network hosts that may have been configured in environment variables
-        Set<String> networkAliases = containers.allContainers.stream()
-                        .filter(c -> !(c instanceof ApplicationContainer))
-                        .flatMap(c -> c.getNetworkAliases().stream())
-                        .collect(Collectors.toSet());
-        sanitizeEnvVar(containers.app, networkAliases);
-
-        // Expose any external resources (such as DBs) on fixed exposed ports
+        // Expose any external resources (such as DBs) on fixed exposed ports, which are reserved in the
+        // HostPortRegistry so that parallel test JVMs do not attempt to use the same host ports
+        Map<Integer, Integer> hostPorts = new HashMap<>();
         try {
             Method addFixedPort = GenericContainer.class.getDeclaredMethod("addFixedExposedPort", int.class, int.class);
             addFixedPort.setAccessible(true);
@@ -102,20 +106,30 @@ public class HollowTestcontainersConfiguration extends TestcontainersConfigurati
                                                                   " because another container (" + fixedExposedPorts.get(p) +
                                                                   ") is already using it.");
                     }
-                    if (c.isShouldBeReused() && !isPortAvailable(p)) {
-                        // Do not expose the fixed exposed port if a reusable container is already
-                        // running on this port
-                        LOG.debug("Not exposing fixed port " + p + " for container " + c.getDockerImageName());
-                        continue;
-                    }
-                    LOG.info("Exposing fixed port " + p + " for container " + c.getDockerImageName());
+                    // The application is already running on its port. Reusable containers always use the container
+                    // port, since a different port binding would prevent reusing the container in later runs.
+                    int hostPort = c instanceof ApplicationContainer || c.isShouldBeReused() ? p : HostPortRegistry.allocate(p);
                     fixedExposedPorts.put(p, c.getDockerImageName());
-                    addFixedPort.invoke(c, p, p);
+                    if (!(c instanceof ApplicationContainer))
+                        hostPorts.put(p, hostPort);
+                    // Containers of a shared config are configured once for every test class that uses them
+                    if (c.getPortBindings().stream().anyMatch(b -> b.startsWith(hostPort + ":" + p + "/")))
+                        continue;
+                    LOG.info("Exposing fixed port " + hostPort + (hostPort == p ? "" : " (container port " + p + ")") +
+                             " for container " + c.getDockerImageName());
+                    addFixedPort.invoke(c, hostPort, p);
                 }
             }
-        } catch (Exception e) {
+        } catch (ReflectiveOperationException e) {
             e.printStackTrace();
         }
+
+        // Translate any Docker network hosts and container ports that may have been configured in environment variables
+        Set<String> networkAliases = containers.allContainers.stream()
+                        .filter(c -> !(c instanceof ApplicationContainer))
+                        .flatMap(c -> c.getNetworkAliases().stream())
+                        .collect(Collectors.toSet());
+        sanitizeEnvVar(containers.app, networkAliases, hostPorts);
     }
 
     /**
@@ -123,9 +137,17 @@ public class HollowTestcontainersConfiguration extends TestcontainersConfigurati
      * FOO_HOSTNAME=http://foo:8080
      * to accomodate for the fixed exposed port such as:
      * FOO_HOSTNAME=http://localhost:8080
+     * If the host port differs from the container port, the port is translated as well, including
+     * in variables that only consist of the port, such as FOO_PORT=8080
      */
-    private void sanitizeEnvVar(ApplicationContainer mpApp, Set<String> networkAliases) {
+    private void sanitizeEnvVar(ApplicationContainer mpApp, Set<String> networkAliases, Map<Integer, Integer> hostPorts) {
         mpApp.getEnvMap().forEach((k, v) -> {
+            Integer hostPort = hostPorts.get(parsePort(v));
+            if (hostPort != null && !hostPort.toString().equals(v) && k.toUpperCase().endsWith("PORT")) {
+                LOG.info("Translating env var key=" + k + " from " + v + " to " + hostPort);
+                mpApp.withEnv(k, hostPort.toString());
+                return;
+            }
             URL url = null;
             try {
                 url = new URL(v);
@@ -136,40 +158,25 @@ public class HollowTestcontainersConfiguration extends TestcontainersConfigurati
                     return;
                 }
             }
-            for (String networkAlias : networkAliases) {
-                if (url.getHost().equals(networkAlias)) {
-                    String newValue = v.replaceFirst(networkAlias, "localhost");
-                    LOG.info("Translating env var key=" + k + " from " + v + " to " + newValue);
-                    mpApp.withEnv(k, newValue);
-                }
+            boolean isAlias = networkAliases.contains(url.getHost());
+            Integer newPort = hostPorts.get(url.getPort());
+            if (!isAlias && !("localhost".equals(url.getHost()) && newPort != null))
+                return;
+            String newValue = isAlias ? v.replaceFirst(Pattern.quote(url.getHost()), "localhost") : v;
+            if (newPort != null && newPort != url.getPort())
+                newValue = newValue.replaceFirst("localhost:" + url.getPort() + "\\b", "localhost:" + newPort);
+            if (!newValue.equals(v)) {
+                LOG.info("Translating env var key=" + k + " from " + v + " to " + newValue);
+                mpApp.withEnv(k, newValue);
             }
         });
     }
 
-    private static boolean isPortAvailable(int port) {
-        ServerSocket ss = null;
-        DatagramSocket ds = null;
+    private static int parsePort(String value) {
         try {
-            ss = new ServerSocket(port);
-            ss.setReuseAddress(true);
-            ds = new DatagramSocket(port);
-            ds.setReuseAddress(true);
-            return true;
-        } catch (IOException e) {
-        } finally {
-            if (ds != null) {
-                ds.close();
-            }
-
-            if (ss != null) {
-                try {
-                    ss.close();
-                } catch (IOException e) {
-                    /* should not be thrown */
-                }
-            }
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
         }
-
-        return false;
     }
 }
@@ -19,8 +19,12 @@
 package org.microshed.testing.testcontainers.config;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -30,20 +34,35 @@ import org.junit.platform.commons.support.AnnotationSupport;
 import org.microshed.testing.ApplicationEnvironment;
 import org.microshed.testing.SharedContainerConfiguration;
 import org.microshed.testing.internal.InternalLogger;
+import org.microshed.testing.internal.LifecycleTimings;
 import org.microshed.testing.jwt.JwtBuilder;
 import org.microshed.testing.jwt.JwtConfig;
 import org.microshed.testing.testcontainers.ApplicationContainer;
 import org.microshed.testing.testcontainers.internal.ContainerGroup;
+import org.microshed.testing.testcontainers.internal.ContainerPool;
+import org.microshed.testing.testcontainers.internal.StartupScheduler;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.Network;
-import org.testcontainers.lifecycle.Startables;
 
 public class TestcontainersConfiguration implements ApplicationEnvironment {
 
     private static final InternalLogger LOG = InternalLogger.get(TestcontainersConfiguration.class);
 
-    protected final Map<Class<?>, ContainerGroup> discoveredContainers = new HashMap<>();
-    protected ContainerGroup containers;
+    protected final Map<Class<?>, ContainerGroup> discoveredContainers = new ConcurrentHashMap<>();
+    /**
+     * The containers of the test class that was most recently preconfigured. Since test classes may run
+     * concurrently, use {@link #getContainerGroup(Class)} instead whenever the test class is known.
+     */
+    protected volatile ContainerGroup containers;
+    private final Set<Class<?>> configuredGroups = ConcurrentHashMap.newKeySet();
+    private final Map<Class<?>, CompletableFuture<Void>> startups = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<GenericContainer<?>>> pooledContainers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Throwable> failedSharedConfigs = new ConcurrentHashMap<>();
+    // Locks for the test classes referencing each shared config, so that the user's class is never locked
+    private final Map<Class<?>, Object> sharedConfigLocks = new ConcurrentHashMap<>();
+    // The test classes that used each application container, and the ones still using it, by container ID
+    private final Map<String, Set<Class<?>>> applicationUsers = new ConcurrentHashMap<>();
+    private final Map<String, Set<Class<?>>> activeApplicationUsers = new ConcurrentHashMap<>();
 
     @Override
     public int getPriority() {
@@ -69,69 +88,275 @@ public class TestcontainersConfiguration implements ApplicationEnvironment {
 
     @Override
     public void preConfigure(Class<?> testClass) {
-        containers = discoveredContainers.computeIfAbsent(testClass, clazz -> new ContainerGroup(clazz));
+        ApplicationContainer.prefetchBaseImage();
+        ContainerGroup group = getContainerGroup(testClass);
+        configureGroup(group);
+        containers = group;
+    }
 
-        // Put all containers in the same network if no networks are explicitly defined
-        if (containers.hasSharedConfig()) {
-            configureContainerNetworks(containers.sharedContainers, containers.sharedConfigClass);
+    /**
+     * @return The containers discovered for the specified test class
+     */
+    protected ContainerGroup getContainerGroup(Class<?> testClass) {
+        return discoveredContainers.computeIfAbsent(testClass, clazz -> new ContainerGroup(clazz));
+    }
+
+    /**
+     * Apply network, ServerAdapter, and JWT configuration to the containers of a test class.
+     * This is only done once per test class, even if the class was already prestarted.
+     */
+    void configureGroup(ContainerGroup group) {
+        if (!configuredGroups.add(group.testClass))
+            return;
+
+        // Test classes referencing the same shared config may be configured concurrently
+        synchronized (lockFor(group)) {
+            // Put all containers in the same network if no networks are explicitly defined. A reusable application
+            // that runs alone does not need a network, which would prevent reusing it in later runs.
+            if (group.allContainers.size() == 1 && group.app != null && group.app.isShouldBeReused()) {
+                LOG.debug("Not using a shared network for the reusable application container of " + group.testClass);
+            } else {
+                if (group.hasSharedConfig()) {
+                    configureContainerNetworks(group.sharedContainers, group.sharedConfigClass);
+                }
+                configureContainerNetworks(group.unsharedContainers, group.testClass);
+            }
+
+            // Give ServerAdapters a chance to do some auto-wiring between containers
+            ApplicationContainer app = group.app;
+            if (app != null) {
+                try (LifecycleTimings.Span span = LifecycleTimings.span(LifecycleTimings.CATEGORY_CLASS, group.testClass.getName(), "ServerAdapter.configure")) {
+                    app.getServerAdapter().configure(group.allContainers);
+                }
+                if (isJwtNeeded(group) &&
+                    !app.isRunning() &&
+                    !app.getEnvMap().containsKey(JwtBuilder.MP_JWT_PUBLIC_KEY) &&
+                    !app.getEnvMap().containsKey(JwtBuilder.MP_JWT_ISSUER)) {
+                    app.withEnv(JwtBuilder.MP_JWT_PUBLIC_KEY, JwtBuilder.getPublicKey());
+                    app.withEnv(JwtBuilder.MP_JWT_ISSUER, JwtConfig.DEFAULT_ISSUER);
+                    LOG.debug("Using default generated JWT settings for " + app);
+                }
+            }
         }
-        configureContainerNetworks(containers.unsharedContainers, testClass);
-
-        // Give ServerAdapters a chance to do some auto-wiring between containers
-        ApplicationContainer app = containers.app;
-        if (app != null) {
-            app.getServerAdapter().configure(containers.allContainers);
-            if (isJwtNeeded() &&
-                !app.isRunning() &&
-                !app.getEnvMap().containsKey(JwtBuilder.MP_JWT_PUBLIC_KEY) &&
-                !app.getEnvMap().containsKey(JwtBuilder.MP_JWT_ISSUER)) {
-                app.withEnv(JwtBuilder.MP_JWT_PUBLIC_KEY, JwtBuilder.getPublicKey());
-                app.withEnv(JwtBuilder.MP_JWT_ISSUER, JwtConfig.DEFAULT_ISSUER);
-                LOG.debug("Using default generated JWT settings for " + app);
+    }
+
+    /**
+     * Begin starting the containers of a test class before the test class runs. If {@link #start()} is invoked
+     * for the same class while this is in progress, it waits for the prestart to complete instead of starting
+     * the containers again.
+     */
+    @Override
+    public void prestart(Class<?> testClass) {
+        ApplicationContainer.prefetchBaseImage();
+        CompletableFuture<Void> startup = new CompletableFuture<>();
+        if (startups.putIfAbsent(testClass, startup) != null)
+            return;
+        LOG.debug("Prestarting containers for " + testClass);
+        try {
+            ContainerGroup group = getContainerGroup(testClass);
+            synchronized (group) {
+                configureGroup(group);
+                startGroup(group);
             }
+            startup.complete(null);
+        } catch (Throwable t) {
+            startup.completeExceptionally(t);
         }
     }
 
     @Override
     public void start() {
+        start(containers.testClass);
+    }
+
+    @Override
+    public void start(Class<?> testClass) {
+        ContainerGroup group = getContainerGroup(testClass);
+        CompletableFuture<Void> startup = new CompletableFuture<>();
+        CompletableFuture<Void> prestarted = startups.putIfAbsent(group.testClass, startup);
+        if (prestarted != null) {
+            LOG.debug("Waiting for prestarted containers of " + group.testClass);
+            try {
+                prestarted.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                throw e;
+            }
+        } else {
+            try {
+                synchronized (group) {
+                    startGroup(group);
+                }
+                startup.complete(null);
+            } catch (RuntimeException e) {
+                startup.completeExceptionally(e);
+                throw e;
+            }
+        }
+        ApplicationContainer app = group.app;
+        if (app != null && app.getContainerId() != null) {
+            // Wait for any application reset of another test class to complete before using the application
+            synchronized (activeApplicationUsers) {
+                applicationUsers.computeIfAbsent(app.getContainerId(), k -> new HashSet<>()).add(group.testClass);
+                activeApplicationUsers.computeIfAbsent(app.getContainerId(), k -> new HashSet<>()).add(group.testClass);
+            }
+        }
+    }
+
+    /**
+     * Restart the application of a test class if it already served other test classes, or was reused from an
+     * earlier test run. The application is not restarted while other test classes are using it.
+     */
+    @Override
+    public void resetApplication(Class<?> testClass) {
+        ApplicationContainer app = getContainerGroup(testClass).app;
+        if (app == null || app.getContainerId() == null)
+            return;
+        if (!app.supportsApplicationReset()) {
+            LOG.warn("Not resetting the application for " + testClass + " because " + app.getServerAdapter().getClass().getSimpleName() +
+                     " does not support resetting applications");
+            return;
+        }
+        synchronized (activeApplicationUsers) {
+            Set<Class<?>> previous = new HashSet<>(applicationUsers.getOrDefault(app.getContainerId(), Collections.emptySet()));
+            previous.remove(testClass);
+            if (previous.isEmpty() && !app.isReused()) {
+                LOG.debug("Not resetting the application for " + testClass + " because it was started for this class");
+                return;
+            }
+            Set<Class<?>> concurrent = new HashSet<>(activeApplicationUsers.getOrDefault(app.getContainerId(), Collections.emptySet()));
+            concurrent.remove(testClass);
+            if (!concurrent.isEmpty()) {
+                LOG.info("Not resetting the application for " + testClass + " because it is in use by " + concurrent);
+                return;
+            }
+            app.resetApplication();
+        }
+    }
+
+    private void startGroup(ContainerGroup group) {
         List<GenericContainer<?>> containersToStart = new ArrayList<>();
 
         long start = System.currentTimeMillis();
         // Start shared containers first
-        if (containers.hasSharedConfig()) {
+        if (group.hasSharedConfig()) {
+            // Do not retry starting shared containers that already failed to start for another test class
+            Throwable earlierFailure = failedSharedConfigs.get(group.sharedConfigClass);
+            if (earlierFailure != null)
+                throw new ExtensionConfigurationException("Not starting containers for " + group.testClass + " because the shared containers of " +
+                                                          group.sharedConfigClass + " failed to start for an earlier test class", earlierFailure);
             try {
-                SharedContainerConfiguration config = containers.sharedConfigClass.newInstance();
-                config.startContainers();
-                LOG.debug("Shared contianer config for " + containers.sharedConfigClass + " implemented a manual start procedure.");
+                SharedContainerConfiguration config = group.sharedConfigClass.newInstance();
+                // Multiple test classes referencing the same shared config may be starting concurrently
+                synchronized (lockFor(group)) {
+                    config.startContainers();
+                }
+                LOG.debug("Shared contianer config for " + group.sharedConfigClass + " implemented a manual start procedure.");
             } catch (InstantiationException | IllegalAccessException e) {
-                throw new ExtensionConfigurationException("Unable to instantiate " + containers.sharedConfigClass, e);
+                throw new ExtensionConfigurationException("Unable to instantiate " + group.sharedConfigClass, e);
             } catch (UnsupportedOperationException ignore) {
                 // This just means manual container start is not being used
-                containersToStart.addAll(containers.sharedContainers);
+                containersToStart.addAll(group.sharedContainers);
+            } catch (RuntimeException e) {
+                failedSharedConfigs.putIfAbsent(group.sharedConfigClass, e);
+                throw e;
             }
         }
 
-        containersToStart.addAll(containers.unsharedContainers);
-        containersToStart.removeIf(c -> c.isRunning());
+        // Shared containers may also be started concurrently by another test class using the same shared config
+        List<GenericContainer<?>> owned = new ArrayList<>();
+        List<GenericContainer<?>> attached = new ArrayList<>();
+        synchronized (lockFor(group)) {
+            // Lease equivalent containers that other test classes already started, if pooling is enabled
+            for (GenericContainer<?> c : group.unsharedContainers) {
+                if (ContainerPool.isEnabled() && isPoolable(c)) {
+                    pooledContainers.computeIfAbsent(group.testClass, k -> new ArrayList<>()).add(c);
+                    if (ContainerPool.instance().acquire(c))
+                        owned.add(c);
+                    else
+                        attached.add(c);
+                }
+                containersToStart.add(c);
+            }
+
+            containersToStart.removeIf(c -> c.isRunning());
 
-        if (containersToStart.size() > 0) {
-            LOG.info("Starting " + containersToStart.size() + " container(s) in parallel for " + containers.testClass);
-            for (GenericContainer<?> c : containersToStart)
-                LOG.info("  " + c.getDockerImageName());
-            Startables.deepStart(containersToStart).join();
+            if (containersToStart.size() > 0) {
+                LOG.info("Starting " + containersToStart.size() + " container(s) in parallel for " + group.testClass);
+                StartupScheduler scheduler = new StartupScheduler(containersToStart).withTestClass(group.testClass);
+                for (GenericContainer<?> c : attached) {
+                    if (containersToStart.contains(c))
+                        scheduler.withStartAction(c, () -> {
+                            ContainerPool.instance().attach(c);
+                            // The running application container may have been started with other config values
+                            if (c instanceof ApplicationContainer)
+                                ((ApplicationContainer) c).updateConfig();
+                        });
+                }
+                try {
+                    scheduler.start();
+                } catch (RuntimeException e) {
+                    if (group.hasSharedConfig()) {
+                        scheduler.getFailures().forEach((c, failure) -> {
+                            if (group.sharedContainers.stream().anyMatch(shared -> shared == c))
+                                failedSharedConfigs.putIfAbsent(group.sharedConfigClass, failure);
+                        });
+                    }
+                    for (GenericContainer<?> c : owned) {
+                        if (c.isRunning())
+                            ContainerPool.instance().started(c);
+                        else
+                            ContainerPool.instance().failed(c, e);
+                    }
+                    throw e;
+                }
+            }
         }
+        owned.forEach(ContainerPool.instance()::started);
         LOG.info("All containers started in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * @return The lock guarding the shared containers of a test class, or the containers of the test class itself if
+     *         it has no shared config
+     */
+    private Object lockFor(ContainerGroup group) {
+        return group.hasSharedConfig() ? sharedConfigLocks.computeIfAbsent(group.sharedConfigClass, k -> new Object()) : group;
+    }
 
-        configureKafka();
+    /**
+     * @return true if the supplied container may be shared with equivalent containers of other test classes
+     */
+    boolean isPoolable(GenericContainer<?> container) {
+        return !container.isShouldBeReused();
+    }
+
+    @Override
+    public void cleanup(Class<?> testClass) {
+        synchronized (activeApplicationUsers) {
+            activeApplicationUsers.values().forEach(users -> users.remove(testClass));
+        }
+        List<GenericContainer<?>> leased = pooledContainers.remove(testClass);
+        if (leased != null)
+            leased.forEach(ContainerPool.instance()::release);
     }
 
-    void configureKafka() {
-        // If a KafkaContainer is defined, store the bootstrap location
+    /**
+     * @return The value of the {@link ApplicationEnvironment#KAFKA_BOOTSTRAP_SERVERS} system property if set,
+     *         otherwise the bootstrap servers of the KafkaContainer used by the specified test class if there is exactly one
+     */
+    @Override
+    public String getKafkaBootstrapServers(Class<?> testClass) {
+        String explicit = ApplicationEnvironment.super.getKafkaBootstrapServers(testClass);
+        if (!explicit.isEmpty())
+            return explicit;
+
         Class<?> KafkaContainer = tryLoad("org.testcontainers.containers.KafkaContainer");
         if (KafkaContainer == null)
-            return;
+            return "";
 
-        Set<GenericContainer<?>> kafkaContainers = containers.allContainers.stream()
+        Set<GenericContainer<?>> kafkaContainers = getContainerGroup(testClass).allContainers.stream()
                         .filter(c -> KafkaContainer.isAssignableFrom(c.getClass()))
                         .collect(Collectors.toSet());
 
@@ -139,25 +364,32 @@ public class TestcontainersConfiguration implements ApplicationEnvironment {
             try {
                 GenericContainer<?> kafka = kafkaContainers.iterator().next();
                 String bootstrapServers = (String) KafkaContainer.getMethod("getBootstrapServers").invoke(kafka);
-                System.setProperty("org.microshed.kafka.bootstrap.servers", bootstrapServers);
-                LOG.debug("Discovered KafkaContainer with bootstrap.servers=" + bootstrapServers);
+                LOG.debug("Discovered KafkaContainer with bootstrap.servers=" + bootstrapServers + " for " + testClass);
+                return bootstrapServers;
             } catch (Exception e) {
-                LOG.warn("Unable to set kafka boostrap server", e);
+                LOG.warn("Unable to determine kafka boostrap server", e);
             }
         } else if (kafkaContainers.size() > 1) {
             LOG.info("Located multiple KafkaContainer instances. Unable to auto configure kafka clients");
         } else {
             LOG.debug("No KafkaContainer instances found in configuration");
         }
+        return "";
     }
 
     @Override
     public String getApplicationURL() {
-        ApplicationContainer mpApp = containers.app;
+        return getApplicationURL(containers.testClass);
+    }
+
+    @Override
+    public String getApplicationURL(Class<?> testClass) {
+        ContainerGroup group = getContainerGroup(testClass);
+        ApplicationContainer mpApp = group.app;
         if (mpApp == null) {
-            String sharedConfigMsg = containers.hasSharedConfig() ? " or " + containers.sharedConfigClass : "";
+            String sharedConfigMsg = group.hasSharedConfig() ? " or " + group.sharedConfigClass : "";
             throw new ExtensionConfigurationException("No public static ApplicationContainer fields annotated with @Container were located " +
-                                                      "on " + containers.testClass + sharedConfigMsg + ".");
+                                                      "on " + group.testClass + sharedConfigMsg + ".");
         }
         return mpApp.getApplicationURL();
     }
@@ -167,10 +399,10 @@ public class TestcontainersConfiguration implements ApplicationEnvironment {
      *         A) Any SharedContainerConfiguration is used
      *         B) Test class contains REST clients with @JwtConfig
      */
-    private boolean isJwtNeeded() {
-        if (containers.hasSharedConfig())
+    private boolean isJwtNeeded(ContainerGroup group) {
+        if (group.hasSharedConfig())
             return true;
-        return AnnotationSupport.findAnnotatedFields(containers.testClass, JwtConfig.class).size() > 0;
+        return AnnotationSupport.findAnnotatedFields(group.testClass, JwtConfig.class).size() > 0;
     }
 
     private static Class<?> tryLoad(String clazz) {
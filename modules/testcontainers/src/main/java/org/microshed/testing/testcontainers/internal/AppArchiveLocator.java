@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.microshed.testing.internal.InternalLogger;
+
+/**
+ * Locates the application archive produced by a Gradle or Maven build. The well-known output directories
+ * (<code>build/libs</code> and <code>target</code>) are checked first, and only if they contain no
+ * <code>.war</code> or <code>.ear</code> file are the <code>build</code> and <code>target</code> directories
+ * searched, up to a limited depth. A runnable <code>.jar</code> in one of the well-known output directories
+ * is used if no <code>.war</code> or <code>.ear</code> file is found at all.
+ * <p>
+ * Results are cached per JVM until one of the directories they were found in is modified.
+ */
+public class AppArchiveLocator {
+
+    /**
+     * The name of the system property or environment variable that may be set to change how many
+     * directory levels below <code>build</code> and <code>target</code> are searched for an application archive
+     */
+    public static final String SEARCH_DEPTH = "microshed_app_search_depth";
+
+    private static final InternalLogger LOG = InternalLogger.get(AppArchiveLocator.class);
+    private static final int DEFAULT_SEARCH_DEPTH = 3;
+    private static final List<String> OUTPUT_DIRS = Arrays.asList("build/libs", "target");
+    private static final List<String> SEARCH_DIRS = Arrays.asList("build", "target");
+    private static final Map<Path, Result> cache = new ConcurrentHashMap<>();
+
+    private static class Result {
+        final Set<File> archives;
+        final Map<Path, Long> dirModified;
+
+        Result(Set<File> archives, Map<Path, Long> dirModified) {
+            this.archives = archives;
+            this.dirModified = dirModified;
+        }
+
+        boolean isCurrent() {
+            return archives.stream().allMatch(File::isFile) &&
+                   dirModified.entrySet().stream().allMatch(e -> e.getValue() == lastModified(e.getKey()));
+        }
+    }
+
+    private AppArchiveLocator() {
+        // static utility
+    }
+
+    /**
+     * @param projectDir The directory of the project to search
+     * @return The application archives found in the build output of the supplied project. Normally
+     *         exactly one archive is found.
+     */
+    public static Set<File> find(Path projectDir) {
+        Path root = projectDir.toAbsolutePath().normalize();
+        Result cached = cache.get(root);
+        if (cached != null && cached.isCurrent())
+            return cached.archives;
+
+        long start = System.currentTimeMillis();
+        Result result = locate(root);
+        LOG.debug("Located application archives " + result.archives + " in " + (System.currentTimeMillis() - start) + "ms");
+        if (!result.archives.isEmpty())
+            cache.put(root, result);
+        return result.archives;
+    }
+
+    private static Result locate(Path root) {
+        // Any change to the contents of the searched directories invalidates the cached result
+        Map<Path, Long> dirModified = new LinkedHashMap<>();
+        for (String dir : SEARCH_DIRS)
+            dirModified.put(root.resolve(dir), lastModified(root.resolve(dir)));
+        for (String dir : OUTPUT_DIRS)
+            dirModified.put(root.resolve(dir), lastModified(root.resolve(dir)));
+
+        Set<File> archives = new TreeSet<>();
+        for (String dir : OUTPUT_DIRS)
+            archives.addAll(list(root.resolve(dir)));
+        if (!archives.isEmpty())
+            return new Result(archives, dirModified);
+
+        int depth = searchDepth();
+        for (String dir : SEARCH_DIRS)
+            archives.addAll(walk(root.resolve(dir), depth));
+        if (!archives.isEmpty()) {
+            for (File archive : archives)
+                dirModified.put(archive.getParentFile().toPath(), lastModified(archive.getParentFile().toPath()));
+            return new Result(archives, dirModified);
+        }
+
+        for (String dir : OUTPUT_DIRS)
+            archives.addAll(listRunnableJars(root.resolve(dir)));
+        return new Result(archives, dirModified);
+    }
+
+    private static Set<File> list(Path dir) {
+        if (!Files.isDirectory(dir))
+            return Collections.emptySet();
+        Set<File> archives = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, AppArchiveLocator::isAppArchive)) {
+            files.forEach(p -> archives.add(p.toFile()));
+        } catch (IOException e) {
+            LOG.debug("Unable to list " + dir, e);
+        }
+        return archives;
+    }
+
+    private static Set<File> walk(Path dir, int depth) {
+        if (!Files.isDirectory(dir))
+            return Collections.emptySet();
+        try (Stream<Path> files = Files.walk(dir, depth)) {
+            return files.filter(AppArchiveLocator::isAppArchive)
+                            .map(Path::toFile)
+                            .collect(Collectors.toCollection(TreeSet::new));
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Unable to search " + dir, e);
+            return Collections.emptySet();
+        }
+    }
+
+    private static Set<File> listRunnableJars(Path dir) {
+        if (!Files.isDirectory(dir))
+            return Collections.emptySet();
+        Set<File> jars = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.jar")) {
+            files.forEach(p -> {
+                if (Files.isRegularFile(p) && isRunnable(p))
+                    jars.add(p.toFile());
+            });
+        } catch (IOException e) {
+            LOG.debug("Unable to list " + dir, e);
+        }
+        return jars;
+    }
+
+    private static boolean isAppArchive(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return (name.endsWith(".war") || name.endsWith(".ear")) && Files.isRegularFile(file);
+    }
+
+    private static boolean isRunnable(Path jar) {
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            Manifest manifest = jarFile.getManifest();
+            return manifest != null && manifest.getMainAttributes().getValue("Main-Class") != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long lastModified(Path dir) {
+        try {
+            return Files.getLastModifiedTime(dir).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static int searchDepth() {
+        String value = resolveProperty(SEARCH_DEPTH);
+        try {
+            return value.isEmpty() ? DEFAULT_SEARCH_DEPTH : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            LOG.warn("Ignoring invalid value '" + value + "' for " + SEARCH_DEPTH);
+            return DEFAULT_SEARCH_DEPTH;
+        }
+    }
+
+}
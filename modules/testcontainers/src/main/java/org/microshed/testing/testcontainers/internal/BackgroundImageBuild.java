@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.microshed.testing.internal.InternalLogger;
+import org.microshed.testing.internal.LifecycleEvents;
+import org.microshed.testing.internal.LifecycleTimings;
+import org.microshed.testing.spi.LifecycleEvent;
+
+/**
+ * Resolves a lazily built image (such as an {@link ImageFromDockerfile}) on a background thread as soon
+ * as it is created, so that the image build overlaps with the startup of other containers instead of
+ * only beginning when the container using the image is started.
+ */
+public class BackgroundImageBuild implements Future<String> {
+
+    private static final InternalLogger LOG = InternalLogger.get(BackgroundImageBuild.class);
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final AtomicInteger buildCount = new AtomicInteger();
+    private static final ExecutorService builder = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "microshed-image-build-" + threadCount.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final CompletableFuture<String> result;
+    // the task running the build, which is interrupted when the build is cancelled
+    private final Future<?> task;
+    // identifies the build in LifecycleEvents, since the name of the image is only known once it is built
+    private final String subject = "image-build-" + buildCount.incrementAndGet();
+    private volatile long buildMillis = -1;
+
+    private BackgroundImageBuild(Future<String> image) {
+        if (image.isDone()) {
+            result = new CompletableFuture<>();
+            try {
+                result.complete(image.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+            } catch (ExecutionException e) {
+                result.completeExceptionally(e.getCause());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+            buildMillis = 0;
+            task = result;
+        } else {
+            LifecycleEvents.fire(LifecycleEvent.Type.IMAGE_BUILDING, null, subject);
+            result = new CompletableFuture<>();
+            task = builder.submit(() -> {
+                try {
+                    result.complete(build(image));
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+        }
+    }
+
+    /**
+     * Begin resolving the supplied image in the background
+     *
+     * @param image The lazily resolved image name
+     * @return A future that completes with the resolved image name
+     */
+    public static BackgroundImageBuild start(Future<String> image) {
+        return image instanceof BackgroundImageBuild ? (BackgroundImageBuild) image : new BackgroundImageBuild(image);
+    }
+
+    private String build(Future<String> image) {
+        long start = System.nanoTime();
+        try {
+            String imageName = image.get();
+            long end = System.nanoTime();
+            buildMillis = TimeUnit.NANOSECONDS.toMillis(end - start);
+            LifecycleTimings.record(LifecycleTimings.CATEGORY_IMAGE, imageName, "image build", start, end);
+            LifecycleEvents.fire(LifecycleEvent.Type.IMAGE_BUILT, null, subject, imageName, null);
+            LOG.info("Built image " + imageName + " in " + buildMillis + "ms");
+            return imageName;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building image", e);
+        } catch (ExecutionException e) {
+            buildFailed(e.getCause());
+            throw new IllegalStateException("Unable to build image", e.getCause());
+        } catch (RuntimeException e) {
+            // Testcontainers' LazyFuture rethrows build failures as they are, rather than in an ExecutionException
+            buildFailed(e);
+            throw e;
+        }
+    }
+
+    private void buildFailed(Throwable failure) {
+        if (result.isCancelled()) {
+            // The build was interrupted because its image is no longer needed
+            LOG.debug("Cancelled image build " + subject);
+            return;
+        }
+        LifecycleEvents.fire(LifecycleEvent.Type.IMAGE_BUILD_FAILED, null, subject, null, failure);
+        LOG.warn("Unable to build image: " + failure.getMessage());
+    }
+
+    /**
+     * @return The time (in ms) it took to build the image, or -1 if the build has not completed
+     */
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    /**
+     * Cancel the build, for example because the container will use another image. If
+     * <code>mayInterruptIfRunning</code> is true, a build that is in progress is interrupted.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = result.cancel(mayInterruptIfRunning);
+        if (cancelled)
+            task.cancel(mayInterruptIfRunning);
+        return cancelled;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return result.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    @Override
+    public String get() throws InterruptedException, ExecutionException {
+        return result.get();
+    }
+
+    @Override
+    public String get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return result.get(timeout, unit);
+    }
+
+}
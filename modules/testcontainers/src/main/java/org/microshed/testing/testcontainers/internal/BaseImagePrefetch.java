@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.microshed.testing.internal.InternalLogger;
+import org.microshed.testing.internal.InternalUtils;
+import org.microshed.testing.internal.LifecycleTimings;
+import org.testcontainers.images.RemoteDockerImage;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Pulls the base image of a ServerAdapter in the background as soon as the test environment is loaded, so that
+ * the pull is not on the critical path of the first application image build. Pulls are deduplicated within the
+ * JVM, and across JVMs (such as parallel test forks) with a lock file per image: a JVM that finds another JVM
+ * pulling the same image waits for that pull instead of starting its own.
+ */
+public class BaseImagePrefetch {
+
+    /**
+     * The name of the system property or environment variable that may be set to <code>false</code>
+     * to only pull base images when the application image is built
+     */
+    public static final String PREFETCH_ENABLED = "microshed_image_prefetch";
+
+    private static final InternalLogger LOG = InternalLogger.get(BaseImagePrefetch.class);
+    private static final Map<String, CompletableFuture<Void>> pulls = new ConcurrentHashMap<>();
+    private static final ExecutorService puller = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "microshed-image-prefetch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private BaseImagePrefetch() {
+        // static utility
+    }
+
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(resolveProperty(PREFETCH_ENABLED));
+    }
+
+    /**
+     * Begin pulling the supplied image in the background, unless it is already present or being pulled
+     */
+    public static void start(String image) {
+        if (isEnabled())
+            pulls.computeIfAbsent(image, i -> CompletableFuture.runAsync(() -> pull(i), puller));
+    }
+
+    /**
+     * Wait for a pull of the supplied image that was started by {@link #start(String)}, if any. Failures are
+     * not reported, since whatever needs the image will then pull it (and report any problem) itself.
+     */
+    public static void await(String image) {
+        CompletableFuture<Void> pull = pulls.get(image);
+        if (pull == null || pull.isDone())
+            return;
+        LOG.debug("Waiting for the background pull of " + image);
+        try {
+            pull.join();
+        } catch (CompletionException e) {
+            // ignore
+        }
+    }
+
+    private static void pull(String image) {
+        if (ImageCache.imageExists(image))
+            return;
+        Path lockFile = lockDirectory().resolve(InternalUtils.sha256(image).substring(0, 16) + ".lock");
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(lockFile.getParent());
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                            FileLock lock = channel.lock()) {
+                // Another JVM may have pulled the image while this one was waiting for the lock
+                if (ImageCache.imageExists(image)) {
+                    LOG.debug("Image " + image + " was pulled by another process");
+                    return;
+                }
+                LOG.info("Pulling base image " + image + " in the background");
+                new RemoteDockerImage(DockerImageName.parse(image)).get();
+                long end = System.nanoTime();
+                LifecycleTimings.record(LifecycleTimings.CATEGORY_IMAGE, image, "base image pull", start, end);
+                LOG.info("Pulled base image " + image + " in " + (end - start) / 1_000_000 + "ms");
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Unable to pull base image " + image + " in the background", e);
+        }
+    }
+
+    private static Path lockDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".microshed", "locks");
+    }
+
+}
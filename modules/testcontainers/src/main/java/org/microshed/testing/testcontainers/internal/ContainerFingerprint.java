@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.microshed.testing.internal.InternalUtils.sha256;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.WaitStrategy;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Computes a stable identity for a container definition so that equivalent
+ * definitions declared by different test classes can be recognized.
+ */
+public class ContainerFingerprint {
+
+    // Testcontainers assigns every container a random 'tc-XXXXXXXX' network alias, which must be ignored
+    private static final Pattern DEFAULT_ALIAS = Pattern.compile("tc-[1-9A-HJ-NP-Za-km-z]{8}");
+    // The startup timeout of a wait strategy may be learned from earlier startups, and does not change the container
+    private static final String STARTUP_TIMEOUT_FIELD = "startupTimeout";
+
+    private ContainerFingerprint() {
+        // static utility
+    }
+
+    /**
+     * @param container The container definition to fingerprint
+     * @return A hash of the container class, image, environment, exposed ports, port bindings,
+     *         network aliases, command, labels, network, copied files, mounts, and wait strategy of the
+     *         supplied container
+     */
+    public static String of(GenericContainer<?> container) {
+        return of(container, true);
+    }
+
+    /**
+     * @param container The container definition to fingerprint
+     * @param includeEnvValues false to only include the names of environment variables, for containers whose
+     *            configuration can be changed while they are running
+     * @return A hash of the container class, image, environment, exposed ports, port bindings,
+     *         network aliases, command, labels, network, copied files, mounts, and wait strategy of the
+     *         supplied container
+     */
+    public static String of(GenericContainer<?> container, boolean includeEnvValues) {
+        StringBuilder def = new StringBuilder();
+        def.append("class=").append(container.getClass().getName()).append('\n');
+        def.append("image=").append(container.getDockerImageName()).append('\n');
+        new TreeMap<>(container.getEnvMap()).forEach((k, v) -> def.append("env=").append(k).append('=').append(includeEnvValues ? v : "").append('\n'));
+        container.getExposedPorts().stream().sorted().forEach(p -> def.append("port=").append(p).append('\n'));
+        container.getPortBindings().stream().sorted().forEach(p -> def.append("binding=").append(p).append('\n'));
+        container.getNetworkAliases().stream()
+                        .filter(alias -> !isDefaultAlias(alias))
+                        .sorted()
+                        .forEach(alias -> def.append("alias=").append(alias).append('\n'));
+        if (container.getCommandParts() != null) {
+            for (String part : container.getCommandParts())
+                def.append("cmd=").append(part).append('\n');
+        }
+        new TreeMap<>(container.getLabels()).forEach((k, v) -> def.append("label=").append(k).append('=').append(v).append('\n'));
+        if (container.getNetwork() != null)
+            def.append("network=").append(container.getNetwork().getId()).append('\n');
+        // Containers that see different files are not equivalent, even if they are configured the same way otherwise
+        for (Map.Entry<MountableFile, String> copy : container.getCopyToFileContainerPathMap().entrySet())
+            def.append("copy=").append(describe(copy.getKey())).append("->").append(copy.getValue()).append('\n');
+        for (Map.Entry<Transferable, String> copy : container.getCopyToTransferableContainerPathMap().entrySet())
+            def.append("copy=").append(sha256(copy.getKey().getBytes())).append("->").append(copy.getValue()).append('\n');
+        container.getBinds().stream()
+                        .map(bind -> bind.getPath() + ":" + bind.getVolume().getPath() + ":" + bind.getAccessMode())
+                        .sorted()
+                        .forEach(bind -> def.append("bind=").append(bind).append('\n'));
+        container.getVolumesFroms().stream()
+                        .map(Object::toString)
+                        .sorted()
+                        .forEach(volumes -> def.append("volumesFrom=").append(volumes).append('\n'));
+        if (container.getTmpFsMapping() != null)
+            new TreeMap<>(container.getTmpFsMapping()).forEach((k, v) -> def.append("tmpfs=").append(k).append('=').append(v).append('\n'));
+        def.append("wait=").append(describeWaitStrategy(container)).append('\n');
+        return sha256(def.toString());
+    }
+
+    /**
+     * Tells apart default names such as <code>tc-a1B2c3D4</code> that Testcontainers assigns to every container
+     */
+    static boolean isDefaultAlias(String alias) {
+        return DEFAULT_ALIAS.matcher(alias).matches();
+    }
+
+    private static String describe(MountableFile file) {
+        // Files are copied when the container starts, so the same path with the same size and age has the same content
+        File resolved = new File(file.getResolvedPath());
+        return resolved.getAbsolutePath() + ':' + resolved.length() + ':' + resolved.lastModified() + ':' + file.getFileMode();
+    }
+
+    /**
+     * Describe the wait strategy of a container by its class and its settings of simple types, such as the path
+     * and status codes of an HTTP wait strategy. If the wait strategy can not be determined, a random value is
+     * returned so that the container is never considered equivalent to another one.
+     */
+    private static String describeWaitStrategy(GenericContainer<?> container) {
+        Object strategy;
+        try {
+            // GenericContainer only exposes its wait strategy to subclasses
+            Method getWaitStrategy = GenericContainer.class.getDeclaredMethod("getWaitStrategy");
+            getWaitStrategy.setAccessible(true);
+            strategy = getWaitStrategy.invoke(container);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return "unknown:" + UUID.randomUUID();
+        }
+        if (!(strategy instanceof WaitStrategy))
+            return String.valueOf(strategy);
+        StringBuilder desc = new StringBuilder(strategy.getClass().getName());
+        Map<String, String> settings = new TreeMap<>();
+        for (Class<?> c = strategy.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                if (Modifier.isStatic(f.getModifiers()) || STARTUP_TIMEOUT_FIELD.equals(f.getName()))
+                    continue;
+                try {
+                    f.setAccessible(true);
+                    Object value = f.get(strategy);
+                    if (isSimple(value))
+                        settings.putIfAbsent(c.getName() + '.' + f.getName(), value instanceof Collection ? new TreeSet<>((Collection<?>) value).toString() : String.valueOf(value));
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    return "unknown:" + UUID.randomUUID();
+                }
+            }
+        }
+        settings.forEach((k, v) -> desc.append(';').append(k).append('=').append(v));
+        return desc.toString();
+    }
+
+    private static boolean isSimple(Object value) {
+        if (value instanceof Collection)
+            return ((Collection<?>) value).stream().allMatch(v -> v instanceof Comparable && isSimple(v));
+        return value == null || value instanceof String || value instanceof Number || value instanceof Boolean ||
+               value instanceof Enum || value instanceof Duration || value instanceof Pattern;
+    }
+
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.microshed.testing.internal.InternalLogger;
+import org.microshed.testing.testcontainers.ApplicationContainer;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * A JVM-wide pool of running containers keyed by their {@link ContainerFingerprint}. When a test class
+ * declares a container that is equivalent to one already started by another test class, the running
+ * container is handed to the new definition instead of starting another one.
+ * <p>
+ * Pooled containers are reference counted. Once the last test class using a container finishes, the
+ * container is kept running for a linger period so that a subsequent test class may pick it up, and is
+ * stopped afterwards. Application containers whose configuration can be updated while they are running may
+ * have several pool entries with the same fingerprint, one for each configuration in use at the same time.
+ */
+public class ContainerPool {
+
+    /**
+     * The name of the system property or environment variable that enables pooling of equivalent
+     * containers across test classes. Set to <code>true</code> to enable.
+     */
+    public static final String POOL_ENABLED = "microshed_container_pool";
+
+    /**
+     * The name of the system property or environment variable that defines the amount of time (in seconds)
+     * an unused pooled container is kept running before being stopped. Defaults to 60 seconds.
+     */
+    public static final String POOL_LINGER = "microshed_container_pool_linger";
+
+    private static final InternalLogger LOG = InternalLogger.get(ContainerPool.class);
+    private static final ContainerPool INSTANCE = new ContainerPool();
+    private static final int DEFAULT_LINGER_SECONDS = 60;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<GenericContainer<?>, Entry> leases = new IdentityHashMap<>();
+    private final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "microshed-container-pool");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static class Entry {
+        // the key of the entry in the pool, which is the fingerprint, followed by a discriminator if other
+        // entries with the same fingerprint already existed when this entry was added
+        final String key;
+        final String fingerprint;
+        final GenericContainer<?> container;
+        final CompletableFuture<Void> ready = new CompletableFuture<>();
+        // the full fingerprint (including environment values) of the definitions currently leasing the container
+        String config;
+        int references;
+        ScheduledFuture<?> pendingStop;
+
+        Entry(String key, String fingerprint, GenericContainer<?> container, String config) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.container = container;
+            this.config = config;
+        }
+    }
+
+    ContainerPool() {
+        // use instance(), except in tests
+    }
+
+    public static ContainerPool instance() {
+        return INSTANCE;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(resolveProperty(POOL_ENABLED));
+    }
+
+    /**
+     * Leases a pooled container that is equivalent to the supplied container. Application containers whose
+     * configuration can be updated while they are running are equivalent if they only differ in the values of
+     * their environment variables, but are only shared by test classes that do not use them at the same time.
+     *
+     * @param container The container definition to lease
+     * @return true if no equivalent container exists yet, or if the equivalent application containers are in use
+     *         with a different configuration. In this case the caller must start the supplied
+     *         container and report the outcome using {@link #started(GenericContainer)} or
+     *         {@link #failed(GenericContainer, Throwable)}.
+     *         false if an equivalent container is running or being started by another test class. In this
+     *         case the caller must use {@link #attach(GenericContainer)} instead of starting the container.
+     */
+    public boolean acquire(GenericContainer<?> container) {
+        boolean liveConfig = container instanceof ApplicationContainer && ((ApplicationContainer) container).supportsLiveConfig();
+        String config = ContainerFingerprint.of(container);
+        return acquire(container, liveConfig ? ContainerFingerprint.of(container, false) : config, config);
+    }
+
+    /**
+     * @param fingerprint The fingerprint of the definitions that are equivalent to the container
+     * @param config The fingerprint of the definitions that may use the container at the same time
+     */
+    synchronized boolean acquire(GenericContainer<?> container, String fingerprint, String config) {
+        Entry entry = leases.get(container);
+        if (entry == null) {
+            entry = find(fingerprint, config);
+            if (entry == null) {
+                // The configuration of a container can not differ between test classes running at the same time, so
+                // an equivalent container that is in use with another configuration gets an entry of its own
+                String key = fingerprint;
+                for (int n = 1; entries.containsKey(key); n++)
+                    key = fingerprint + '#' + n;
+                entry = new Entry(key, fingerprint, container, config);
+                entries.put(key, entry);
+                leases.put(container, entry);
+                entry.references++;
+                LOG.debug("Added " + container.getDockerImageName() + " to the container pool with fingerprint " + key);
+                return true;
+            }
+            entry.config = config;
+            leases.put(container, entry);
+        }
+        entry.references++;
+        if (entry.pendingStop != null) {
+            entry.pendingStop.cancel(false);
+            entry.pendingStop = null;
+        }
+        return false;
+    }
+
+    /**
+     * @return The entry with the supplied fingerprint that is in use with the same configuration, or that is not in
+     *         use at all, or null if there is no such entry
+     */
+    private Entry find(String fingerprint, String config) {
+        Entry unused = null;
+        for (Entry entry : entries.values()) {
+            if (!entry.fingerprint.equals(fingerprint))
+                continue;
+            if (entry.config.equals(config))
+                return entry;
+            if (entry.references == 0 && unused == null)
+                unused = entry;
+        }
+        return unused;
+    }
+
+    /**
+     * Waits until the equivalent of a container that was acquired without owning its pool entry is ready,
+     * and then attaches the supplied container to the running container.
+     */
+    public void attach(GenericContainer<?> container) {
+        Entry entry;
+        synchronized (this) {
+            entry = leases.get(container);
+        }
+        if (entry == null)
+            throw new IllegalStateException(container.getDockerImageName() + " was not acquired from the container pool");
+        try {
+            entry.ready.join();
+        } catch (CompletionException e) {
+            throw new ExtensionConfigurationException("Equivalent pooled container " + container.getDockerImageName() +
+                                                      " failed to start", e.getCause());
+        }
+        if (entry.container != container) {
+            attach(container, entry.container);
+            LOG.info("Reusing pooled container " + entry.container.getContainerId() + " for " + container.getDockerImageName());
+        }
+    }
+
+    /**
+     * Marks a container previously acquired as the owner of its pool entry as started
+     */
+    public void started(GenericContainer<?> container) {
+        Entry entry;
+        synchronized (this) {
+            entry = leases.get(container);
+        }
+        if (entry != null)
+            entry.ready.complete(null);
+    }
+
+    /**
+     * Removes a container previously acquired as the owner of its pool entry because it failed to start.
+     * Any test classes waiting on an equivalent container will fail with the supplied cause.
+     */
+    public void failed(GenericContainer<?> container, Throwable cause) {
+        Entry entry;
+        synchronized (this) {
+            entry = leases.get(container);
+            if (entry == null)
+                return;
+            entries.remove(entry.key, entry);
+            leases.values().removeIf(e -> e == entry);
+        }
+        entry.ready.completeExceptionally(cause);
+    }
+
+    /**
+     * Releases one lease on the supplied container. Once all leases on a pooled container have been
+     * released it is stopped after the configured linger period, unless it is leased again in the meantime.
+     */
+    public synchronized void release(GenericContainer<?> container) {
+        Entry entry = leases.get(container);
+        if (entry == null || --entry.references > 0)
+            return;
+        long linger = lingerSeconds();
+        LOG.debug("Last lease released on pooled container " + entry.container.getDockerImageName() +
+                  ". Stopping it in " + linger + "s unless it is reused.");
+        entry.pendingStop = reaper.schedule(() -> stop(entry), linger, TimeUnit.SECONDS);
+    }
+
+    private void stop(Entry entry) {
+        synchronized (this) {
+            if (entry.references > 0 || entries.get(entry.key) != entry)
+                return;
+            entries.remove(entry.key);
+            leases.values().removeIf(e -> e == entry);
+        }
+        LOG.info("Stopping pooled container " + entry.container.getDockerImageName());
+        try {
+            entry.container.stop();
+        } catch (Exception e) {
+            LOG.warn("Unable to stop pooled container " + entry.container.getDockerImageName(), e);
+        }
+    }
+
+    private static void attach(GenericContainer<?> target, GenericContainer<?> running) {
+        if (target instanceof PoolableContainer) {
+            ((PoolableContainer) target).attachTo(running);
+            return;
+        }
+        // Other containers can only stand in for the running container by taking over the state GenericContainer
+        // keeps for a started container
+        try {
+            Field containerId = GenericContainer.class.getDeclaredField("containerId");
+            Field containerInfo = GenericContainer.class.getDeclaredField("containerInfo");
+            containerId.setAccessible(true);
+            containerInfo.setAccessible(true);
+            containerId.set(target, running.getContainerId());
+            containerInfo.set(target, running.getContainerInfo());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new ExtensionConfigurationException("Unable to attach " + target.getDockerImageName() + " to pooled container " +
+                                                      running.getContainerId() + " with this version of Testcontainers. Disable container " +
+                                                      "pooling by setting " + POOL_ENABLED + " to false.", e);
+        }
+        if (!running.getContainerId().equals(target.getContainerId()) || target.getContainerInfo() != running.getContainerInfo())
+            throw new ExtensionConfigurationException("Unable to attach " + target.getDockerImageName() + " to pooled container " +
+                                                      running.getContainerId() + " with this version of Testcontainers. Disable container " +
+                                                      "pooling by setting " + POOL_ENABLED + " to false.");
+    }
+
+    private static long lingerSeconds() {
+        String linger = resolveProperty(POOL_LINGER);
+        try {
+            return linger.isEmpty() ? DEFAULT_LINGER_SECONDS : Long.parseLong(linger);
+        } catch (NumberFormatException e) {
+            LOG.warn("Ignoring invalid value for " + POOL_LINGER + ": " + linger);
+            return DEFAULT_LINGER_SECONDS;
+        }
+    }
+
+}
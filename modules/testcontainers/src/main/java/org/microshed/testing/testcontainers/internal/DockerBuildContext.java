@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The files of a Docker build context that are needed to build a Dockerfile. When the <code>COPY</code> and
+ * <code>ADD</code> sources of the Dockerfile can be determined statically, only those files are included.
+ * Otherwise the whole context directory is included. In both cases files excluded by a
+ * <code>.dockerignore</code> file are left out.
+ */
+public class DockerBuildContext {
+
+    private static final String DOCKERIGNORE = ".dockerignore";
+
+    private final Path baseDir;
+    private final String dockerfileName;
+    private final String dockerfileContent;
+    private final DockerfileInstructions instructions;
+    private final Map<String, Path> files;
+    private final boolean minimal;
+    private final boolean complete;
+    private final long size;
+
+    private DockerBuildContext(Path baseDir, String dockerfileName, String dockerfileContent, DockerfileInstructions instructions,
+                               Map<String, Path> files, boolean minimal, boolean complete) throws IOException {
+        this.baseDir = baseDir;
+        this.dockerfileName = dockerfileName;
+        this.dockerfileContent = dockerfileContent;
+        this.instructions = instructions;
+        this.files = Collections.unmodifiableMap(files);
+        this.minimal = minimal;
+        this.complete = complete;
+        long total = dockerfileContent.length();
+        for (Path file : files.values())
+            total += Files.size(file);
+        this.size = total;
+    }
+
+    /**
+     * @param dockerfile The Dockerfile to build
+     * @param baseDir The build context directory
+     */
+    public static DockerBuildContext scan(Path dockerfile, Path baseDir) throws IOException {
+        Path root = baseDir.toAbsolutePath().normalize();
+        Path dockerfilePath = dockerfile.toAbsolutePath().normalize();
+        String content = new String(Files.readAllBytes(dockerfilePath), StandardCharsets.UTF_8);
+        // Like the Docker CLI, send a Dockerfile from outside of the context under a reserved name
+        String dockerfileName = dockerfilePath.startsWith(root) ? toName(root, dockerfilePath) : ".dockerfile.microshed";
+        DockerfileInstructions instructions = DockerfileInstructions.parse(content);
+        DockerIgnore ignore = DockerIgnore.read(root);
+
+        Map<String, Path> files = new TreeMap<>();
+        Optional<Set<String>> sources = instructions.getContextSources();
+        boolean complete = true;
+        if (sources.isPresent()) {
+            for (String source : sources.get()) {
+                Path path = root.resolve(source).normalize();
+                if (!path.startsWith(root) || !Files.exists(path))
+                    complete = false;
+                else
+                    collect(root, path, ignore, files);
+            }
+        } else {
+            collect(root, root, ignore, files);
+        }
+        return new DockerBuildContext(root, dockerfileName, content, instructions, files, sources.isPresent(), complete);
+    }
+
+    private static void collect(Path root, Path start, DockerIgnore ignore, Map<String, Path> files) throws IOException {
+        boolean canPrune = !ignore.hasExclusions();
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                // Without exclusion patterns nothing below an ignored directory can be included again
+                if (canPrune && !dir.equals(root) && ignore.isIgnored(toName(root, dir)))
+                    return FileVisitResult.SKIP_SUBTREE;
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String name = toName(root, file);
+                if (attrs.isRegularFile() && !ignore.isIgnored(name))
+                    files.put(name, file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static String toName(Path root, Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    /**
+     * Add the Dockerfile, the <code>.dockerignore</code> file and the files of this context to the supplied image,
+     * so that they are streamed to the Docker daemon when the image is built.
+     */
+    public void addTo(org.testcontainers.images.builder.ImageFromDockerfile image) {
+        files.forEach(image::withFileFromPath);
+        Path dockerignore = baseDir.resolve(DOCKERIGNORE);
+        if (Files.isRegularFile(dockerignore))
+            image.withFileFromPath(DOCKERIGNORE, dockerignore);
+        image.withFileFromString(dockerfileName, dockerfileContent);
+        image.withDockerfilePath(dockerfileName);
+    }
+
+    public DockerfileInstructions getInstructions() {
+        return instructions;
+    }
+
+    public String getDockerfileContent() {
+        return dockerfileContent;
+    }
+
+    /**
+     * @return The files of the build context by their path relative to the context directory, in sorted order.
+     *         The Dockerfile and <code>.dockerignore</code> file are only included if they are part of the copied sources.
+     */
+    public Map<String, Path> getFiles() {
+        return files;
+    }
+
+    /**
+     * @return true if the context only contains the files referenced by the Dockerfile
+     */
+    public boolean isMinimal() {
+        return minimal;
+    }
+
+    /**
+     * @return false if some of the sources referenced by the Dockerfile do not exist in the context directory
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return The total uncompressed size in bytes of the files in this context
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return files.size() + " files (" + (size / 1024) + " KB) from " + baseDir +
+               (minimal ? " referenced by " : " not excluded by .dockerignore for ") + dockerfileName;
+    }
+
+}
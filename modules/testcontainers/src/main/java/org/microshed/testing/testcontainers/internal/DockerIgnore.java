@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The patterns of a <code>.dockerignore</code> file, matched the same way the Docker CLI matches them:
+ * <code>*</code> and <code>?</code> do not cross directory boundaries, <code>**</code> matches any number
+ * of directories, a pattern that matches a directory also excludes everything below it, and patterns
+ * starting with <code>!</code> re-include files excluded by earlier patterns.
+ */
+public class DockerIgnore {
+
+    private static class Rule {
+        final Pattern regex;
+        final int depth;
+        final boolean exclusion;
+
+        Rule(Pattern regex, int depth, boolean exclusion) {
+            this.regex = regex;
+            this.depth = depth;
+            this.exclusion = exclusion;
+        }
+    }
+
+    private static final DockerIgnore EMPTY = new DockerIgnore(Collections.emptyList());
+
+    private final List<Rule> rules;
+
+    private DockerIgnore(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * @param baseDir The build context directory
+     * @return The patterns of the <code>.dockerignore</code> file in the supplied directory, if there is one
+     */
+    public static DockerIgnore read(Path baseDir) throws IOException {
+        Path file = baseDir.resolve(".dockerignore");
+        if (!Files.isRegularFile(file))
+            return EMPTY;
+        return parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    public static DockerIgnore parse(String content) {
+        List<Rule> rules = new ArrayList<>();
+        for (String line : content.split("\\r?\\n")) {
+            String pattern = line.trim();
+            if (pattern.isEmpty() || pattern.startsWith("#"))
+                continue;
+            boolean exclusion = pattern.startsWith("!");
+            if (exclusion)
+                pattern = pattern.substring(1).trim();
+            pattern = clean(pattern);
+            if (pattern.isEmpty())
+                continue;
+            rules.add(new Rule(Pattern.compile(toRegex(pattern)), pattern.split("/").length, exclusion));
+        }
+        return new DockerIgnore(rules);
+    }
+
+    /**
+     * @return true if there are patterns that re-include previously excluded files
+     */
+    public boolean hasExclusions() {
+        return rules.stream().anyMatch(r -> r.exclusion);
+    }
+
+    /**
+     * @param path A path relative to the build context, using <code>/</code> as the separator
+     * @return true if the path is excluded from the build context
+     */
+    public boolean isIgnored(String path) {
+        String[] dirs = path.split("/");
+        boolean ignored = false;
+        for (Rule rule : rules) {
+            boolean match = rule.regex.matcher(path).matches();
+            // A pattern matching a parent directory applies to everything below it
+            if (!match && dirs.length > 1 && rule.depth < dirs.length)
+                match = rule.regex.matcher(String.join("/", Arrays.copyOf(dirs, rule.depth))).matches();
+            if (match)
+                ignored = !rule.exclusion;
+        }
+        return ignored;
+    }
+
+    private static String clean(String pattern) {
+        List<String> parts = new ArrayList<>();
+        for (String part : pattern.split("/")) {
+            if (part.isEmpty() || ".".equals(part))
+                continue;
+            if ("..".equals(part) && !parts.isEmpty() && !"..".equals(parts.get(parts.size() - 1)))
+                parts.remove(parts.size() - 1);
+            else
+                parts.add(part);
+        }
+        return String.join("/", parts);
+    }
+
+    private static String toRegex(String pattern) {
+        StringBuilder regex = new StringBuilder("^");
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '*') {
+                    i++;
+                    if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '/') {
+                        // "**/" matches zero or more directories
+                        i++;
+                        regex.append("(.*/)?");
+                    } else {
+                        regex.append(".*");
+                    }
+                } else {
+                    regex.append("[^/]*");
+                }
+            } else if (c == '\\' && i + 1 < pattern.length()) {
+                regex.append(Pattern.quote(String.valueOf(pattern.charAt(++i))));
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else if (c == '[') {
+                int end = pattern.indexOf(']', i + 1);
+                if (end < 0) {
+                    regex.append("\\[");
+                } else {
+                    String range = pattern.substring(i + 1, end);
+                    if (range.startsWith("^") || range.startsWith("!"))
+                        range = "^" + range.substring(1);
+                    regex.append('[').append(range.replace("\\", "\\\\")).append(']');
+                    i = end;
+                }
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return regex.append('$').toString();
+    }
+
+}
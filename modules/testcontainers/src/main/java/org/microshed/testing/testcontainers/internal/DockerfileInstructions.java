@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A minimal Dockerfile reader that understands enough of the Dockerfile syntax to determine
+ * which base images and which files of the build context a build depends on.
+ */
+public class DockerfileInstructions {
+
+    private static final Pattern JSON_STRING = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    /**
+     * A single Dockerfile instruction, such as <code>COPY --chown=1001 src/ /dest/</code>
+     */
+    public static class Instruction {
+        /** The upper-case instruction keyword, such as COPY */
+        public final String keyword;
+        /** The flags of the instruction, such as --chown=1001 */
+        public final List<String> flags;
+        /** The remaining arguments of the instruction */
+        public final List<String> arguments;
+
+        Instruction(String keyword, List<String> flags, List<String> arguments) {
+            this.keyword = keyword;
+            this.flags = flags;
+            this.arguments = arguments;
+        }
+
+        Optional<String> flag(String name) {
+            String prefix = "--" + name + "=";
+            return flags.stream()
+                            .filter(f -> f.startsWith(prefix))
+                            .map(f -> f.substring(prefix.length()))
+                            .findFirst();
+        }
+    }
+
+    private final List<Instruction> instructions;
+
+    private DockerfileInstructions(List<Instruction> instructions) {
+        this.instructions = instructions;
+    }
+
+    public static DockerfileInstructions parse(String dockerfile) {
+        List<Instruction> instructions = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : dockerfile.split("\\r?\\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("#") || (trimmed.isEmpty() && current.length() == 0))
+                continue;
+            if (trimmed.endsWith("\\")) {
+                current.append(trimmed, 0, trimmed.length() - 1).append(' ');
+                continue;
+            }
+            current.append(trimmed);
+            addInstruction(instructions, current.toString().trim());
+            current.setLength(0);
+        }
+        if (current.length() > 0)
+            addInstruction(instructions, current.toString().trim());
+        return new DockerfileInstructions(instructions);
+    }
+
+    private static void addInstruction(List<Instruction> instructions, String line) {
+        if (line.isEmpty())
+            return;
+        String[] parts = line.split("\\s+", 2);
+        String keyword = parts[0].toUpperCase(Locale.ROOT);
+        String rest = parts.length > 1 ? parts[1].trim() : "";
+        List<String> flags = new ArrayList<>();
+        while (rest.startsWith("--")) {
+            String[] flagAndRest = rest.split("\\s+", 2);
+            flags.add(flagAndRest[0]);
+            rest = flagAndRest.length > 1 ? flagAndRest[1].trim() : "";
+        }
+        List<String> arguments = new ArrayList<>();
+        if (rest.startsWith("[")) {
+            Matcher m = JSON_STRING.matcher(rest);
+            while (m.find())
+                arguments.add(m.group(1).replace("\\\"", "\"").replace("\\\\", "\\"));
+        } else if (!rest.isEmpty()) {
+            arguments.addAll(Arrays.asList(rest.split("\\s+")));
+        }
+        instructions.add(new Instruction(keyword, Collections.unmodifiableList(flags), Collections.unmodifiableList(arguments)));
+    }
+
+    public List<Instruction> getInstructions() {
+        return Collections.unmodifiableList(instructions);
+    }
+
+    /**
+     * @return The external images referenced by <code>FROM</code> instructions, excluding
+     *         references to earlier build stages and <code>scratch</code>
+     */
+    public Set<String> getBaseImages() {
+        Set<String> stages = new HashSet<>();
+        Set<String> images = new LinkedHashSet<>();
+        for (Instruction i : instructions) {
+            if (!"FROM".equals(i.keyword) || i.arguments.isEmpty())
+                continue;
+            String image = i.arguments.get(0);
+            if (!stages.contains(image.toLowerCase(Locale.ROOT)) && !"scratch".equals(image))
+                images.add(image);
+            if (i.arguments.size() == 3 && "AS".equalsIgnoreCase(i.arguments.get(1)))
+                stages.add(i.arguments.get(2).toLowerCase(Locale.ROOT));
+        }
+        return images;
+    }
+
+    /**
+     * @return The paths of the build context copied into the image by <code>COPY</code> and <code>ADD</code>
+     *         instructions, or an empty Optional if the sources cannot be determined statically, for example
+     *         because they contain variables, wildcards, or remote URLs.
+     */
+    public Optional<Set<String>> getContextSources() {
+        Set<String> sources = new LinkedHashSet<>();
+        for (Instruction i : instructions) {
+            if (!"COPY".equals(i.keyword) && !"ADD".equals(i.keyword))
+                continue;
+            // Sources copied from another stage or image are not part of the build context
+            if (i.flag("from").isPresent())
+                continue;
+            if (i.arguments.size() < 2 || i.arguments.get(0).startsWith("<<"))
+                return Optional.empty();
+            for (String source : i.arguments.subList(0, i.arguments.size() - 1)) {
+                if (source.contains("$") || source.contains("*") || source.contains("?") || source.contains("[") ||
+                    source.contains("://") || source.startsWith("git@"))
+                    return Optional.empty();
+                sources.add(normalize(source));
+            }
+        }
+        return Optional.of(sources);
+    }
+
+    private static String normalize(String source) {
+        String normalized = source;
+        while (normalized.startsWith("./"))
+            normalized = normalized.substring(2);
+        while (normalized.startsWith("/"))
+            normalized = normalized.substring(1);
+        while (normalized.endsWith("/") && normalized.length() > 1)
+            normalized = normalized.substring(0, normalized.length() - 1);
+        return normalized.isEmpty() || "/".equals(normalized) ? "." : normalized;
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.microshed.testing.internal.InternalLogger;
+
+/**
+ * Allocates host ports for containers that are published on fixed host ports, such as the dependencies of the
+ * application in hollow mode. A port is reserved by holding a lock on a file named after the port in a directory
+ * shared by all processes on the machine, so parallel test JVMs never allocate the same port. The locks are held
+ * until the JVM exits, and are released by the operating system even if the JVM is killed.
+ * <p>
+ * Each container port is allocated the same host port for the lifetime of the JVM, which is the container port
+ * itself unless another process has reserved or is using it.
+ */
+public class HostPortRegistry {
+
+    /**
+     * The name of the system property or environment variable that may be set to the directory that
+     * port reservations are recorded in. All processes that allocate ports must use the same directory.
+     */
+    public static final String REGISTRY_DIR = "microshed_port_registry";
+
+    private static final InternalLogger LOG = InternalLogger.get(HostPortRegistry.class);
+    private static final int MAX_ATTEMPTS = 20;
+    // container port -> allocated host port
+    private static final Map<Integer, Integer> allocated = new HashMap<>();
+    private static final Map<Integer, FileLock> reservations = new HashMap<>();
+
+    private HostPortRegistry() {
+        // static utility
+    }
+
+    /**
+     * @param containerPort The port of the container to publish, which is preferred as the host port
+     * @return The host port reserved for the supplied container port
+     * @throws IllegalStateException If no host port could be reserved
+     */
+    public static synchronized int allocate(int containerPort) {
+        Integer port = allocated.get(containerPort);
+        if (port != null)
+            return port;
+        port = reserve(containerPort) ? containerPort : reserveAny();
+        if (port != containerPort)
+            LOG.info("Host port " + containerPort + " is in use by another process, publishing container port " + containerPort + " on " + port + " instead");
+        allocated.put(containerPort, port);
+        return port;
+    }
+
+    private static int reserveAny() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int candidate;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                candidate = socket.getLocalPort();
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to find a free host port", e);
+            }
+            if (reserve(candidate))
+                return candidate;
+        }
+        throw new IllegalStateException("Unable to reserve a free host port after " + MAX_ATTEMPTS + " attempts");
+    }
+
+    private static boolean reserve(int port) {
+        // Already reserved by this JVM for another container port
+        if (reservations.containsKey(port))
+            return false;
+        FileChannel channel = null;
+        try {
+            Path dir = registryDirectory();
+            Path file = dir.resolve(port + ".lock");
+            if (!Files.isDirectory(dir)) {
+                Files.createDirectories(dir);
+                // Ports are shared by all users of the machine, so their test runs need to use the same registry
+                dir.toFile().setWritable(true, false);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            file.toFile().setWritable(true, false);
+            FileLock lock = channel.tryLock();
+            // Only check whether the port is free once it is reserved, so that no other JVM can take it in between
+            if (lock != null && isFree(port)) {
+                reservations.put(port, lock);
+                return true;
+            }
+        } catch (IOException | OverlappingFileLockException e) {
+            LOG.debug("Unable to reserve host port " + port, e);
+        }
+        close(channel);
+        return false;
+    }
+
+    /**
+     * @return true if no process that does not take part in the registry is listening on the port
+     */
+    private static boolean isFree(int port) {
+        try (ServerSocket socket = new ServerSocket(port)) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void close(FileChannel channel) {
+        if (channel == null)
+            return;
+        try {
+            // also releases any lock on the channel
+            channel.close();
+        } catch (IOException ignore) {
+        }
+    }
+
+    private static Path registryDirectory() {
+        String dir = resolveProperty(REGISTRY_DIR);
+        if (!dir.isEmpty())
+            return Paths.get(dir);
+        return Paths.get(System.getProperty("java.io.tmpdir"), "microshed-ports");
+    }
+
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.microshed.testing.internal.InternalLogger;
+import org.microshed.testing.internal.InternalUtils;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.utility.Base58;
+import org.testcontainers.utility.LazyFuture;
+import org.testcontainers.utility.MountableFile;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.exception.ConflictException;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.Image;
+
+/**
+ * Builds application images under a deterministic tag that is derived from a hash of everything
+ * that goes into the image: the Dockerfile, the local IDs of its base images, and the files copied
+ * from the build context. If an image with the same tag already exists locally, the build is skipped
+ * entirely. Identical builds requested concurrently within the same JVM are only performed once.
+ * <p>
+ * Since these images are kept for later runs, the oldest images of a project are removed whenever
+ * a new image is built for it, so that only the {@value #DEFAULT_KEEP} newest images are kept by default.
+ */
+public class ImageCache {
+
+    /**
+     * The name of the system property or environment variable that may be set to <code>false</code>
+     * to always build application images under a random tag
+     */
+    public static final String IMAGE_CACHE_ENABLED = "microshed_image_cache";
+
+    /**
+     * The repository that application images are tagged in
+     */
+    public static final String IMAGE_REPOSITORY = "testcontainers/mpapp";
+
+    /**
+     * The name of the system property or environment variable that defines how many application images built
+     * for the current project are kept. Older images are removed whenever a new image is built. Set it to
+     * <code>0</code> to keep all images.
+     */
+    public static final String IMAGE_CACHE_KEEP = "microshed_image_cache_keep";
+
+    /**
+     * The label identifying the project directory that an application image was built for
+     */
+    public static final String LABEL_PROJECT = "org.microshed.image.project";
+
+    static final int DEFAULT_KEEP = 3;
+
+    private static final InternalLogger LOG = InternalLogger.get(ImageCache.class);
+    private static final Map<String, CompletableFuture<String>> builds = new ConcurrentHashMap<>();
+    private static final Map<Path, FileDigest> fileDigests = new ConcurrentHashMap<>();
+
+    private static class FileDigest {
+        final long size;
+        final long lastModified;
+        final String digest;
+
+        FileDigest(long size, long lastModified, String digest) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.digest = digest;
+        }
+    }
+
+    private ImageCache() {
+        // static utility
+    }
+
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(resolveProperty(IMAGE_CACHE_ENABLED));
+    }
+
+    /**
+     * @param dockerfile The Dockerfile to build
+     * @param baseDir The build context directory
+     * @return A future resolving to the name of the image built from the supplied Dockerfile
+     */
+    public static Future<String> fromDockerfile(Path dockerfile, Path baseDir) {
+        return new LazyFuture<String>() {
+            @Override
+            protected String resolve() {
+                DockerBuildContext context;
+                try {
+                    context = DockerBuildContext.scan(dockerfile, baseDir);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Unable to read the build context of " + dockerfile, e);
+                }
+                Optional<String> hash = isEnabled() ? hashDockerfileBuild(context) : Optional.empty();
+                if (!hash.isPresent())
+                    return newDockerfileImage(IMAGE_REPOSITORY + "-" + Base58.randomString(10).toLowerCase(), true, context).get();
+                String tag = IMAGE_REPOSITORY + ":" + hash.get();
+                return buildOnce(tag, () -> newDockerfileImage(tag, false, context).get());
+            }
+        };
+    }
+
+    /**
+     * @param image An image definition, typically supplied by a ServerAdapter
+     * @return A future resolving to the name of the image built from the supplied definition
+     */
+    public static Future<String> fromImage(org.testcontainers.images.builder.ImageFromDockerfile image) {
+        return fromImage(() -> image);
+    }
+
+    /**
+     * @param imageDefinition Supplies an image definition, typically from a ServerAdapter. The supplier is
+     *            invoked when the image is resolved, so that any work needed to define the image happens
+     *            as part of the (background) image build.
+     * @return A future resolving to the name of the image built from the supplied definition
+     */
+    public static Future<String> fromImage(Supplier<org.testcontainers.images.builder.ImageFromDockerfile> imageDefinition) {
+        return new LazyFuture<String>() {
+            @Override
+            protected String resolve() {
+                org.testcontainers.images.builder.ImageFromDockerfile image = imageDefinition.get();
+                // Subclasses may customize the build in ways that cannot be accounted for in the hash
+                Optional<String> hash = isEnabled() && image.getClass() == org.testcontainers.images.builder.ImageFromDockerfile.class ? //
+                                hashImageBuild(image) : Optional.empty();
+                if (!hash.isPresent())
+                    return image.get();
+                String tag = IMAGE_REPOSITORY + ":" + hash.get();
+                return buildOnce(tag, () -> copyOf(image, tag).get());
+            }
+        };
+    }
+
+    /**
+     * Build the supplied image, or reuse an identical image that was built before, and wait for the result.
+     * This is intended for building intermediate images that other images are based on.
+     *
+     * @param image An image definition
+     * @return The name of the resulting image
+     */
+    public static String build(org.testcontainers.images.builder.ImageFromDockerfile image) {
+        try {
+            return fromImage(image).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building image", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to build image", e.getCause());
+        }
+    }
+
+    private static String buildOnce(String tag, Supplier<String> build) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        CompletableFuture<String> existing = builds.putIfAbsent(tag, result);
+        if (existing != null) {
+            LOG.debug("Waiting for in-progress build of identical image " + tag);
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                throw e;
+            }
+        }
+        try {
+            if (imageExists(tag)) {
+                LOG.info("Reusing existing image " + tag + " because its inputs have not changed");
+            } else {
+                LOG.info("Building image " + tag);
+                build.get();
+                pruneOlderImages(tag);
+            }
+            result.complete(tag);
+            return tag;
+        } catch (RuntimeException e) {
+            // Allow a later attempt to retry the build
+            builds.remove(tag, result);
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static ImageFromDockerfile newDockerfileImage(String name, boolean deleteOnExit, DockerBuildContext context) {
+        ImageFromDockerfile image = new ImageFromDockerfile(name, deleteOnExit).withBuildContext(context);
+        // Images that are kept after the JVM exits are labeled so that they can be pruned by later runs
+        return deleteOnExit ? image : image.withLabel(LABEL_PROJECT, projectKey());
+    }
+
+    private static org.testcontainers.images.builder.ImageFromDockerfile copyOf(org.testcontainers.images.builder.ImageFromDockerfile image,
+                                                                                 String name) {
+        // The image is kept after the JVM exits so that later runs can reuse it
+        ImageFromDockerfile copy = new ImageFromDockerfile(name, false).withLabel(LABEL_PROJECT, projectKey());
+        image.getTransferables().forEach(copy::withFileFromTransferable);
+        image.getBuildArgs().forEach(copy::withBuildArg);
+        image.getDockerFilePath().ifPresent(copy::withDockerfilePath);
+        image.getDockerfile().ifPresent(copy::withDockerfile);
+        image.getTarget().ifPresent(copy::withTarget);
+        return copy;
+    }
+
+    static Optional<String> hashDockerfileBuild(Path dockerfile, Path baseDir) {
+        try {
+            return hashDockerfileBuild(DockerBuildContext.scan(dockerfile, baseDir));
+        } catch (IOException e) {
+            LOG.debug("Unable to compute content hash for " + dockerfile, e);
+            return Optional.empty();
+        }
+    }
+
+    static Optional<String> hashDockerfileBuild(DockerBuildContext context) {
+        try {
+            if (!context.isMinimal()) {
+                LOG.debug("Not caching image for " + context + " because its COPY/ADD sources cannot be determined");
+                return Optional.empty();
+            }
+            if (!context.isComplete()) {
+                LOG.debug("Not caching image for " + context + " because some of its COPY/ADD sources do not exist");
+                return Optional.empty();
+            }
+            MessageDigest md = InternalUtils.newSha256Digest();
+            update(md, "dockerfile", context.getDockerfileContent());
+            hashBaseImages(md, context.getInstructions());
+            for (Map.Entry<String, Path> file : context.getFiles().entrySet()) {
+                update(md, "file", file.getKey());
+                update(md, "content", digestOf(file.getValue()));
+            }
+            return Optional.of(InternalUtils.toHex(md.digest()).substring(0, 24));
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Unable to compute content hash for " + context, e);
+            return Optional.empty();
+        }
+    }
+
+    static Optional<String> hashImageBuild(org.testcontainers.images.builder.ImageFromDockerfile image) {
+        try {
+            if (!image.getBuildImageCmdModifiers().isEmpty())
+                return Optional.empty();
+            MessageDigest md = InternalUtils.newSha256Digest();
+            Map<String, Transferable> transferables = new TreeMap<>(image.getTransferables());
+            for (Map.Entry<String, Transferable> e : transferables.entrySet()) {
+                Transferable t = e.getValue();
+                if (t instanceof MountableFile) {
+                    hashPath(md, e.getKey(), Paths.get(((MountableFile) t).getResolvedPath()));
+                } else {
+                    byte[] bytes = t.getBytes();
+                    if (bytes == null || bytes.length != t.getSize())
+                        return Optional.empty();
+                    update(md, "file", e.getKey());
+                    md.update(bytes);
+                }
+            }
+            new TreeMap<>(image.getBuildArgs()).forEach((k, v) -> update(md, "arg", k + '=' + v));
+            image.getTarget().ifPresent(target -> update(md, "target", target));
+
+            Optional<String> dockerfile;
+            if (image.getDockerfile().isPresent())
+                dockerfile = Optional.of(new String(Files.readAllBytes(image.getDockerfile().get()), StandardCharsets.UTF_8));
+            else
+                dockerfile = Optional.ofNullable(transferables.get(image.getDockerFilePath().orElse("Dockerfile")))
+                                .map(t -> new String(t.getBytes(), StandardCharsets.UTF_8));
+            if (!dockerfile.isPresent())
+                return Optional.empty();
+            update(md, "dockerfile", dockerfile.get());
+            hashBaseImages(md, DockerfileInstructions.parse(dockerfile.get()));
+            return Optional.of(InternalUtils.toHex(md.digest()).substring(0, 24));
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Unable to compute content hash for " + image, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Include the local IDs of the base images, so that pulling a newer version of a base image
+     * results in a new application image.
+     */
+    private static void hashBaseImages(MessageDigest md, DockerfileInstructions instructions) {
+        for (String baseImage : instructions.getBaseImages()) {
+            update(md, "from", baseImage);
+            // Hash the base image once it has been pulled, so that the next run computes the same hash
+            BaseImagePrefetch.await(baseImage);
+            try {
+                update(md, "from-id", DockerClientFactory.instance().client().inspectImageCmd(baseImage).exec().getId());
+            } catch (NotFoundException notPulledYet) {
+                // The base image will be pulled by the build
+            }
+        }
+    }
+
+    private static void hashPath(MessageDigest md, String name, Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(path)) {
+                files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                update(md, "file", name + '/' + path.relativize(file).toString().replace('\\', '/'));
+                update(md, "content", digestOf(file));
+            }
+        } else {
+            update(md, "file", name);
+            update(md, "content", digestOf(path));
+        }
+    }
+
+    private static String digestOf(Path file) throws IOException {
+        Path key = file.toAbsolutePath();
+        long size = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        FileDigest cached = fileDigests.get(key);
+        if (cached != null && cached.size == size && cached.lastModified == lastModified)
+            return cached.digest;
+        String digest = InternalUtils.sha256(file);
+        fileDigests.put(key, new FileDigest(size, lastModified, digest));
+        return digest;
+    }
+
+    /**
+     * Remove the application images of the current project, other than the supplied image, that are older than
+     * the newest {@link #IMAGE_CACHE_KEEP} images. Images that are used by containers are not removed.
+     */
+    private static void pruneOlderImages(String currentTag) {
+        int keep = keep();
+        if (keep < 1)
+            return;
+        Thread prune = new Thread(() -> {
+            try {
+                DockerClient client = DockerClientFactory.instance().client();
+                List<Image> images = new ArrayList<>(client.listImagesCmd()
+                                .withLabelFilter(Collections.singletonMap(LABEL_PROJECT, projectKey()))
+                                .exec());
+                images.sort(Comparator.comparing(Image::getCreated, Comparator.nullsFirst(Comparator.<Long> naturalOrder())).reversed());
+                for (Image image : images.subList(Math.min(keep, images.size()), images.size())) {
+                    for (String tag : image.getRepoTags() == null ? new String[0] : image.getRepoTags()) {
+                        if (!tag.startsWith(IMAGE_REPOSITORY + ':') || tag.equals(currentTag))
+                            continue;
+                        try {
+                            // Only the tag is removed if the image has other tags
+                            client.removeImageCmd(tag).withForce(false).exec();
+                            LOG.info("Removed image " + tag + " because newer images were built for this project");
+                        } catch (ConflictException | NotFoundException e) {
+                            LOG.debug("Not removing image " + tag + ": " + e.getMessage());
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                LOG.debug("Unable to prune older images of " + IMAGE_REPOSITORY, e);
+            }
+        }, "microshed-image-prune");
+        prune.setDaemon(true);
+        prune.start();
+    }
+
+    private static int keep() {
+        String value = resolveProperty(IMAGE_CACHE_KEEP);
+        try {
+            return value.isEmpty() ? DEFAULT_KEEP : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            LOG.warn("Ignoring invalid value for " + IMAGE_CACHE_KEEP + ": " + value);
+            return DEFAULT_KEEP;
+        }
+    }
+
+    /**
+     * @return A key identifying the project directory that the tests run in
+     */
+    static String projectKey() {
+        return InternalUtils.sha256(Paths.get(".").toAbsolutePath().normalize().toString()).substring(0, 16);
+    }
+
+    static boolean imageExists(String tag) {
+        try {
+            DockerClientFactory.instance().client().inspectImageCmd(tag).exec();
+            return true;
+        } catch (NotFoundException e) {
+            return false;
+        }
+    }
+
+    private static void update(MessageDigest md, String kind, String value) {
+        md.update(kind.getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0);
+        md.update(value.getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0);
+    }
+
+}
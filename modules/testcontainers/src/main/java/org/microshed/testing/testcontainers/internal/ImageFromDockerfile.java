@@ -18,14 +18,19 @@
  */
 package org.microshed.testing.testcontainers.internal;
 
-import java.nio.file.Path;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.microshed.testing.internal.InternalLogger;
 
 import com.github.dockerjava.api.command.BuildImageCmd;
 
 public class ImageFromDockerfile extends org.testcontainers.images.builder.ImageFromDockerfile {
 
-    private Optional<Path> baseDir = Optional.empty();
+    private static final InternalLogger LOG = InternalLogger.get(ImageFromDockerfile.class);
+
+    private DockerBuildContext context;
+    private final Map<String, String> labels = new HashMap<>();
 
     public ImageFromDockerfile() {
         super();
@@ -41,12 +46,30 @@ public class ImageFromDockerfile extends org.testcontainers.images.builder.Image
 
     @Override
     protected void configure(BuildImageCmd buildImageCmd) {
-        baseDir.ifPresent(p -> buildImageCmd.withBaseDirectory(p.toFile()));
+        if (context != null)
+            LOG.info("Sending build context of " + context + " to the Docker daemon");
         super.configure(buildImageCmd);
+        if (!labels.isEmpty())
+            buildImageCmd.withLabels(labels);
+    }
+
+    /**
+     * Build the image from the supplied build context. Rather than letting the Docker client archive the
+     * whole context directory up front, only the files of the context are streamed to the Docker daemon
+     * while the image is built.
+     */
+    public ImageFromDockerfile withBuildContext(DockerBuildContext context) {
+        this.context = context;
+        context.addTo(this);
+        return this;
     }
 
-    public void setBaseDirectory(Path baseDir) {
-        this.baseDir = Optional.of(baseDir);
+    /**
+     * Apply a label to the built image
+     */
+    public ImageFromDockerfile withLabel(String key, String value) {
+        labels.put(key, value);
+        return this;
     }
 
 }
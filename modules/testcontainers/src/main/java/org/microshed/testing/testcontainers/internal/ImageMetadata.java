@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.microshed.testing.internal.InternalLogger;
+import org.testcontainers.DockerClientFactory;
+
+import com.github.dockerjava.api.command.InspectImageResponse;
+import com.github.dockerjava.api.model.ContainerConfig;
+import com.github.dockerjava.api.model.ExposedPort;
+
+/**
+ * The metadata of a local image that is relevant to configuring a container for it. Images may be
+ * inspected on a background thread. The metadata is cached by image ID, which always refers to the same
+ * content, while image names are resolved again on every inspection, since a tag may be moved to another
+ * image by a pull or build while tests run.
+ */
+public class ImageMetadata {
+
+    private static final InternalLogger LOG = InternalLogger.get(ImageMetadata.class);
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService inspector = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "microshed-image-inspect-" + threadCount.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+    private static final Map<String, ImageMetadata> byId = new ConcurrentHashMap<>();
+
+    /** The ID of the image */
+    public final String id;
+    /** The ports exposed by the image, in the order they are declared */
+    public final List<Integer> exposedPorts;
+    /** The labels of the image */
+    public final Map<String, String> labels;
+
+    private ImageMetadata(String id, List<Integer> exposedPorts, Map<String, String> labels) {
+        this.id = id;
+        this.exposedPorts = Collections.unmodifiableList(exposedPorts);
+        this.labels = Collections.unmodifiableMap(labels);
+    }
+
+    /**
+     * Begin inspecting an image in the background
+     *
+     * @param imageName Supplies the name of the image. The supplier is invoked on the background thread,
+     *            so it may block until the image has been pulled or built.
+     * @return A future that completes with the metadata of the image
+     */
+    public static CompletableFuture<ImageMetadata> inspectAsync(Supplier<String> imageName) {
+        return CompletableFuture.supplyAsync(() -> inspect(imageName.get()), inspector);
+    }
+
+    /**
+     * @param imageName The name or ID of a local image
+     * @return The metadata of the image
+     */
+    public static ImageMetadata inspect(String imageName) {
+        ImageMetadata known = byId.get(imageName);
+        if (known != null)
+            return known;
+        InspectImageResponse image = DockerClientFactory.instance().client().inspectImageCmd(imageName).exec();
+        return byId.computeIfAbsent(image.getId(), id -> {
+            ContainerConfig config = image.getConfig() != null ? image.getConfig() : image.getContainerConfig();
+            List<Integer> ports = new ArrayList<>();
+            Map<String, String> labels = new HashMap<>();
+            if (config != null) {
+                if (config.getExposedPorts() != null)
+                    for (ExposedPort port : config.getExposedPorts())
+                        ports.add(port.getPort());
+                if (config.getLabels() != null)
+                    labels.putAll(config.getLabels());
+            }
+            LOG.debug("Inspected image " + imageName + " (" + id + ") with exposed ports " + ports);
+            return new ImageMetadata(id, ports, labels);
+        });
+    }
+
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.microshed.testing.internal.InternalLogger;
+import org.microshed.testing.internal.InternalUtils;
+import org.testcontainers.images.builder.ImageFromDockerfile;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.images.builder.dockerfile.DockerfileBuilder;
+
+/**
+ * Builds an application image in which the third-party libraries of a war (<code>WEB-INF/lib</code>)
+ * are kept in their own layer, separate from the application classes and resources. The library layer
+ * is built as an intermediate image through the {@link ImageCache}, so it is only rebuilt (and only sent
+ * to the Docker daemon) when the libraries change, while the application layer on top stays small.
+ * <p>
+ * The war is deployed in exploded form, as a directory named after the war file.
+ */
+public class LayeredApplicationImage {
+
+    /**
+     * The name of the system property or environment variable that may be set to <code>true</code>
+     * to build application images with a separate layer for the libraries of the application
+     */
+    public static final String LAYERED_IMAGE_ENABLED = "microshed_layered_app_image";
+
+    private static final InternalLogger LOG = InternalLogger.get(LayeredApplicationImage.class);
+    private static final String LIB_DIR = "WEB-INF/lib/";
+    // Exploded versions of a war, including the current one, that are kept for builds running concurrently
+    static final int KEEP_EXPLODED = 3;
+
+    private final File warFile;
+    private final String deploymentDir;
+    private Supplier<String> baseImage;
+    private final Map<String, Transferable> deploymentFiles = new LinkedHashMap<>();
+    private Consumer<DockerfileBuilder> customizer = builder -> {};
+
+    /**
+     * @param warFile The war file to deploy
+     * @param deploymentDir The directory of the image that the exploded war is placed in
+     */
+    public LayeredApplicationImage(File warFile, String deploymentDir) {
+        this.warFile = warFile;
+        this.deploymentDir = deploymentDir.endsWith("/") ? deploymentDir : deploymentDir + '/';
+    }
+
+    /**
+     * @return true if layered application images are enabled and the supplied file is a war
+     */
+    public static boolean isEnabled(File appFile) {
+        return Boolean.parseBoolean(resolveProperty(LAYERED_IMAGE_ENABLED)) && appFile.isFile() && appFile.getName().toLowerCase().endsWith(".war");
+    }
+
+    /**
+     * @param baseImage The image to build on top of. The supplier is only invoked when the image is built.
+     */
+    public LayeredApplicationImage withBaseImage(Supplier<String> baseImage) {
+        this.baseImage = baseImage;
+        return this;
+    }
+
+    public LayeredApplicationImage withBaseImage(String baseImage) {
+        return withBaseImage(() -> baseImage);
+    }
+
+    /**
+     * Add a file next to the exploded war in the deployment directory, such as a deployment marker file
+     */
+    public LayeredApplicationImage withDeploymentFile(String name, String content) {
+        deploymentFiles.put(name, Transferable.of(content));
+        return this;
+    }
+
+    /**
+     * Apply additional instructions, such as <code>CMD</code>, to the application layer
+     */
+    public LayeredApplicationImage withDockerfileCustomizer(Consumer<DockerfileBuilder> customizer) {
+        this.customizer = customizer;
+        return this;
+    }
+
+    public ImageFromDockerfile build() {
+        final String appName = warFile.getName();
+        final String appDir = deploymentDir + appName;
+        Path exploded = explode(warFile.toPath());
+        Path libs = exploded.resolve("lib");
+        Path classes = exploded.resolve("app");
+        boolean hasLibs = Files.isDirectory(libs);
+
+        // Compose a docker image equivalent to doing:
+        // FROM <base image + COPY lib/ <appDir>/WEB-INF/lib/>
+        // COPY app/ <appDir>/
+        ImageFromDockerfile image = new ImageFromDockerfile()
+                        .withFileFromTransferable("Dockerfile", new LazyDockerfile(() -> {
+                            DockerfileBuilder builder = new DockerfileBuilder()
+                                            .from(hasLibs ? ImageCache.build(libraryImage(libs, appDir)) : baseImage.get())
+                                            .copy("app", appDir);
+                            deploymentFiles.keySet().forEach(name -> builder.copy(name, deploymentDir + name));
+                            customizer.accept(builder);
+                            return builder.build();
+                        }))
+                        .withFileFromPath("app", classes);
+        deploymentFiles.forEach(image::withFileFromTransferable);
+        return image;
+    }
+
+    private ImageFromDockerfile libraryImage(Path libs, String appDir) {
+        return new ImageFromDockerfile()
+                        .withFileFromTransferable("Dockerfile", new LazyDockerfile(() -> new DockerfileBuilder()
+                                        .from(baseImage.get())
+                                        .copy("lib", appDir + '/' + LIB_DIR)
+                                        .build()))
+                        .withFileFromPath("lib", libs);
+    }
+
+    /**
+     * Explode the war into separate <code>lib</code> and <code>app</code> directories. The result is kept in
+     * the temp directory and reused for as long as the war file is unchanged. Only the most recently used
+     * versions of the war are kept.
+     */
+    static Path explode(Path war) {
+        return explode(war, Paths.get(System.getProperty("java.io.tmpdir"), "microshed-app-layers"));
+    }
+
+    static Path explode(Path war, Path root) {
+        try {
+            String key = InternalUtils.sha256(war.toAbsolutePath() + ":" + Files.size(war) + ":" + Files.getLastModifiedTime(war).toMillis());
+            Path target = root.resolve(war.getFileName() + "-" + key.substring(0, 16));
+            if (Files.isDirectory(target)) {
+                // Mark the directory as recently used, so that it is not pruned while it is still current
+                Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+                return target;
+            }
+
+            Files.createDirectories(root);
+            Path staging = Files.createTempDirectory(root, "staging-");
+            long start = System.currentTimeMillis();
+            try (ZipFile zip = new ZipFile(war.toFile())) {
+                Files.createDirectories(staging.resolve("app"));
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    boolean isLib = entry.getName().startsWith(LIB_DIR) && entry.getName().length() > LIB_DIR.length();
+                    Path dir = isLib ? staging.resolve("lib") : staging.resolve("app");
+                    Path dest = (isLib ? dir.resolve(entry.getName().substring(LIB_DIR.length())) : dir.resolve(entry.getName())).normalize();
+                    if (!dest.startsWith(dir))
+                        throw new IOException("Archive entry " + entry.getName() + " is outside of the archive");
+                    if (entry.isDirectory()) {
+                        Files.createDirectories(dest);
+                    } else {
+                        Files.createDirectories(dest.getParent());
+                        try (InputStream in = zip.getInputStream(entry)) {
+                            Files.copy(in, dest);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                deleteRecursively(staging);
+                throw e;
+            }
+            try {
+                Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // Another JVM may have exploded the same war concurrently
+                deleteRecursively(staging);
+                if (!Files.isDirectory(target))
+                    throw e;
+            }
+            Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+            LOG.debug("Exploded " + war + " into " + target + " in " + (System.currentTimeMillis() - start) + "ms");
+            pruneOlderVersions(war, target);
+            return target;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to explode application archive " + war, e);
+        }
+    }
+
+    /**
+     * Remove the directories that earlier versions of the war were exploded into, except for the
+     * {@value #KEEP_EXPLODED} most recently used ones
+     */
+    private static void pruneOlderVersions(Path war, Path current) {
+        Pattern versions = Pattern.compile(Pattern.quote(war.getFileName().toString()) + "-[0-9a-f]{16}");
+        List<Path> older = new ArrayList<>();
+        try (Stream<Path> dirs = Files.list(current.getParent())) {
+            dirs.filter(dir -> !dir.equals(current) && versions.matcher(dir.getFileName().toString()).matches())
+                            .forEach(older::add);
+        } catch (IOException e) {
+            LOG.debug("Unable to list earlier versions of " + war, e);
+            return;
+        }
+        older.sort(Comparator.comparing(LayeredApplicationImage::lastModified).reversed());
+        for (Path dir : older.subList(Math.min(KEEP_EXPLODED - 1, older.size()), older.size())) {
+            LOG.debug("Removing " + dir + " of an earlier version of " + war);
+            deleteRecursively(dir);
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException ignore) {
+        }
+    }
+
+}
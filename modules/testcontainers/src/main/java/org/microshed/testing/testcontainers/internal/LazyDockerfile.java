@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+import org.testcontainers.images.builder.Transferable;
+
+/**
+ * A Dockerfile whose content is only computed when the image is about to be built. This allows
+ * the Dockerfile to refer to a parent image that is itself built on demand, for example with
+ * {@link ImageCache#build(org.testcontainers.images.builder.ImageFromDockerfile)}.
+ */
+public class LazyDockerfile implements Transferable {
+
+    private final Supplier<String> content;
+    private volatile byte[] bytes;
+
+    public LazyDockerfile(Supplier<String> content) {
+        this.content = content;
+    }
+
+    @Override
+    public byte[] getBytes() {
+        byte[] result = bytes;
+        if (result == null) {
+            synchronized (this) {
+                if (bytes == null)
+                    bytes = content.get().getBytes(StandardCharsets.UTF_8);
+                result = bytes;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long getSize() {
+        return getBytes().length;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Dockerfile: " + new String(getBytes(), StandardCharsets.UTF_8);
+    }
+
+}
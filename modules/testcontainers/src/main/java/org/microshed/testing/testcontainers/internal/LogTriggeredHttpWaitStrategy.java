@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.microshed.testing.internal.InternalLogger;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.containers.output.FrameConsumerResultCallback;
+import org.testcontainers.containers.output.OutputFrame;
+import org.testcontainers.containers.wait.strategy.AbstractWaitStrategy;
+
+import com.github.dockerjava.api.command.InspectContainerResponse;
+
+/**
+ * Waits for an HTTP endpoint of a container to return HTTP 200 (OK). Rather than polling the endpoint
+ * on a fixed interval, the container log is followed, and the endpoint is checked as soon as the runtime
+ * logs the message that indicates it is ready. Until then, the endpoint is polled with an increasing
+ * interval, in case the ready message is missed or the runtime does not log one.
+ * <p>
+ * The wait is aborted as soon as the container exits or the runtime logs a fatal error, rather than
+ * when the startup timeout elapses, and the last lines of the container log are included in the failure.
+ * Only the messages logged since the container was last started are considered, or since the wait began
+ * if the container was already running, so that messages of earlier starts or deployments are not misread.
+ */
+public class LogTriggeredHttpWaitStrategy extends AbstractWaitStrategy {
+
+    private static final InternalLogger LOG = InternalLogger.get(LogTriggeredHttpWaitStrategy.class);
+    private static final long MIN_POLL_MILLIS = 50;
+    private static final long MAX_POLL_MILLIS = 2000;
+    private static final long STATE_CHECK_MILLIS = 1000;
+    private static final int READ_TIMEOUT_MILLIS = 1000;
+    private static final int LOG_TAIL_LINES = 50;
+
+    private final String path;
+    private final Optional<Pattern> readyPattern;
+    private Optional<Pattern> fatalPattern = Optional.empty();
+    private Integer port;
+    private volatile boolean existingLogIgnored;
+    private volatile boolean anyStatus;
+    private volatile Instant logThreshold = Instant.MIN;
+
+    private final Deque<String> logTail = new ArrayDeque<>();
+    private final Semaphore logEvent = new Semaphore(0);
+    private volatile String fatalMessage;
+    private volatile boolean logEnded;
+
+    /**
+     * @param path The path of the HTTP endpoint to check
+     * @param readyPattern A pattern matching the log message that indicates the runtime is ready
+     */
+    public LogTriggeredHttpWaitStrategy(String path, Optional<Pattern> readyPattern) {
+        this.path = path;
+        this.readyPattern = readyPattern;
+    }
+
+    /**
+     * @param fatalPattern A pattern matching log messages that indicate the runtime or application failed to start
+     */
+    public LogTriggeredHttpWaitStrategy withFatalLogPattern(Optional<Pattern> fatalPattern) {
+        this.fatalPattern = fatalPattern;
+        return this;
+    }
+
+    /**
+     * @param port The container port of the HTTP endpoint. If unset, the first exposed port is used.
+     */
+    public LogTriggeredHttpWaitStrategy forPort(int port) {
+        this.port = port;
+        return this;
+    }
+
+    /**
+     * @param ignored true to ignore the messages that the container logged before the wait began, such as for
+     *            a container that was already running and is being reused
+     */
+    public LogTriggeredHttpWaitStrategy withExistingLogIgnored(boolean ignored) {
+        this.existingLogIgnored = ignored;
+        return this;
+    }
+
+    /**
+     * @param anyStatus true to consider the endpoint ready as soon as it returns any HTTP response, rather than
+     *            HTTP 200, such as when the application is only deployed after the runtime is ready
+     */
+    public LogTriggeredHttpWaitStrategy withAnyStatus(boolean anyStatus) {
+        this.anyStatus = anyStatus;
+        return this;
+    }
+
+    @Override
+    protected void waitUntilReady() {
+        final Integer mappedPort = port != null ? waitStrategyTarget.getMappedPort(port) : //
+                        waitStrategyTarget.getLivenessCheckPortNumbers().stream().findFirst().orElse(null);
+        if (mappedPort == null) {
+            LOG.warn("No port to check for readiness of container " + waitStrategyTarget.getContainerId() + ". Not waiting.");
+            return;
+        }
+        final String url = "http://" + waitStrategyTarget.getHost() + ':' + mappedPort + path;
+        final long start = System.nanoTime();
+        final long deadline = start + startupTimeout.toNanos();
+        synchronized (logTail) {
+            logTail.clear();
+        }
+        logEvent.drainPermits();
+        fatalMessage = null;
+        logEnded = false;
+        logThreshold = logThreshold();
+
+        try (FrameConsumerResultCallback callback = new FrameConsumerResultCallback()) {
+            callback.addConsumer(OutputFrame.OutputType.STDOUT, this::onLog);
+            callback.addConsumer(OutputFrame.OutputType.STDERR, this::onLog);
+            DockerClientFactory.instance().client()
+                            .logContainerCmd(waitStrategyTarget.getContainerId())
+                            .withFollowStream(true)
+                            .withTimestamps(true)
+                            .withSince((int) Math.max(0, logThreshold.getEpochSecond()))
+                            .withStdOut(true)
+                            .withStdErr(true)
+                            .exec(callback);
+
+            long pollMillis = MIN_POLL_MILLIS;
+            long lastStateCheck = System.nanoTime();
+            while (!isReady(url)) {
+                if (fatalMessage != null)
+                    throw new ContainerLaunchException("The runtime logged a fatal error before " + url + " became accessible: " +
+                                                       fatalMessage + logTail());
+                if (logEnded || System.nanoTime() - lastStateCheck > TimeUnit.MILLISECONDS.toNanos(STATE_CHECK_MILLIS)) {
+                    lastStateCheck = System.nanoTime();
+                    checkRunning(url);
+                }
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0)
+                    throw new ContainerLaunchException("Timed out waiting for URL to be accessible (" + url + " should return HTTP 200)" + logTail());
+                if (logEvent.tryAcquire(Math.min(pollMillis, remainingMillis), TimeUnit.MILLISECONDS)) {
+                    // The runtime reported that it is ready (or failed), so check again right away
+                    logEvent.drainPermits();
+                    pollMillis = MIN_POLL_MILLIS;
+                } else {
+                    pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ContainerLaunchException("Interrupted while waiting for URL to be accessible (" + url + ")", e);
+        } catch (IOException e) {
+            LOG.debug("Unable to stop following the container log", e);
+        }
+        LOG.debug("URL " + url + " became accessible after " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+    }
+
+    /**
+     * @return The time of the earliest log message to consider, according to the clock of the Docker daemon
+     */
+    private Instant logThreshold() {
+        try {
+            String time = existingLogIgnored ? DockerClientFactory.instance().client().infoCmd().exec().getSystemTime() : //
+                            waitStrategyTarget.getContainerInfo().getState().getStartedAt();
+            Instant threshold = parseTimestamp(time);
+            if (threshold != null)
+                return threshold;
+        } catch (RuntimeException e) {
+            LOG.debug("Unable to determine since when to follow the log of container " + waitStrategyTarget.getContainerId(), e);
+        }
+        return Instant.MIN;
+    }
+
+    private static Instant parseTimestamp(String timestamp) {
+        if (timestamp == null)
+            return null;
+        try {
+            return OffsetDateTime.parse(timestamp).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private void checkRunning(String url) {
+        InspectContainerResponse.ContainerState state = waitStrategyTarget.getCurrentContainerInfo().getState();
+        if (state != null && !Boolean.TRUE.equals(state.getRunning()))
+            throw new ContainerLaunchException("Container exited with code " + state.getExitCodeLong() + " before " + url +
+                                               " became accessible" + logTail());
+    }
+
+    private void onLog(OutputFrame frame) {
+        if (frame.getType() == OutputFrame.OutputType.END) {
+            logEnded = true;
+            logEvent.release();
+            return;
+        }
+        String text = frame.getUtf8String();
+        if (text == null || text.isEmpty())
+            return;
+        for (String line : text.split("\\r?\\n")) {
+            // Each line is prefixed with the time it was logged at
+            int separator = line.indexOf(' ');
+            Instant loggedAt = separator > 0 ? parseTimestamp(line.substring(0, separator)) : null;
+            if (loggedAt != null) {
+                if (loggedAt.isBefore(logThreshold))
+                    continue;
+                line = line.substring(separator + 1);
+            }
+            onLogLine(line);
+        }
+    }
+
+    private void onLogLine(String line) {
+        if (line.isEmpty())
+            return;
+        synchronized (logTail) {
+            if (logTail.size() == LOG_TAIL_LINES)
+                logTail.removeFirst();
+            logTail.addLast(line);
+        }
+        if (readyPattern.isPresent() && readyPattern.get().matcher(line).find()) {
+            LOG.debug("Found ready message in container log: " + line.trim());
+            logEvent.release();
+        }
+        if (fatalPattern.isPresent() && fatalPattern.get().matcher(line).find()) {
+            fatalMessage = line.trim();
+            logEvent.release();
+        }
+    }
+
+    private String logTail() {
+        synchronized (logTail) {
+            if (logTail.isEmpty())
+                return "";
+            return "\nLast " + logTail.size() + " lines of the container log:\n" + String.join("\n", logTail);
+        }
+    }
+
+    private boolean isReady(String url) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(READ_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            connection.setRequestMethod("GET");
+            int status = connection.getResponseCode();
+            return anyStatus ? status > 0 : status == HttpURLConnection.HTTP_OK;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (connection != null)
+                connection.disconnect();
+        }
+    }
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * A container that can stand in for an equivalent running container of the {@link ContainerPool}, by delegating
+ * its container state to the running container instead of starting a container itself
+ */
+public interface PoolableContainer {
+
+    /**
+     * Use the supplied running container in place of starting this container. Stopping this container afterwards
+     * must not stop the running container, since the pool owns it.
+     *
+     * @param running The equivalent container that is already running
+     */
+    void attachTo(GenericContainer<?> running);
+
+}
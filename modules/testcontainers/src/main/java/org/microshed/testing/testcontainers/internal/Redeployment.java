@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.microshed.testing.internal.InternalLogger;
+import org.microshed.testing.internal.InternalUtils;
+import org.testcontainers.containers.Container.ExecResult;
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Helpers for {@link org.microshed.testing.testcontainers.spi.ServerAdapter} implementations that redeploy an
+ * updated application archive into a running container, or update the configuration of a running container.
+ */
+public class Redeployment {
+
+    private static final InternalLogger LOG = InternalLogger.get(Redeployment.class);
+    private static final Map<String, String> hashes = new ConcurrentHashMap<>();
+
+    private Redeployment() {
+        // static utility
+    }
+
+    /**
+     * Copy a file into a running container, replacing the file at the target path in a single step, so that deployment
+     * scanners never observe a partially copied archive, or no archive at all. The file is copied to the parent of the
+     * deployment directory first, where scanners do not look, so that it is renamed within the same file system. An
+     * exploded directory at the target path can not be replaced in a single step, so it is removed first.
+     *
+     * @param container The running container
+     * @param file The file to copy
+     * @param targetPath The absolute path of the file in the container
+     */
+    public static void replaceFile(GenericContainer<?> container, File file, String targetPath) {
+        String deploymentDir = parentOf(targetPath);
+        String stagingDir = parentOf(deploymentDir).isEmpty() ? deploymentDir : parentOf(deploymentDir);
+        String staging = stagingDir + "/." + file.getName() + ".microshed";
+        container.copyFileToContainer(MountableFile.forHostPath(file.toPath()), staging);
+        ExecResult result = exec(container, "if [ -d '" + targetPath + "' ]; then rm -rf '" + targetPath + "'; fi && mv -f '" + staging + "' '" + targetPath + "'");
+        if (result.getExitCode() != 0)
+            throw new IllegalStateException("Unable to move " + file.getName() + " to " + targetPath + " in the container: " + result.getStderr());
+    }
+
+    /**
+     * Write a file in a running container, replacing any existing file at the target path in a single step, so
+     * that the runtime never reads a partially written file
+     *
+     * @param container The running container
+     * @param content The content of the file
+     * @param targetPath The absolute path of the file in the container
+     */
+    public static void writeFile(GenericContainer<?> container, String content, String targetPath) {
+        String staging = parentOf(targetPath) + "/." + targetPath.substring(targetPath.lastIndexOf('/') + 1) + ".microshed";
+        container.copyFileToContainer(Transferable.of(content), staging);
+        ExecResult result = exec(container, "mkdir -p '" + parentOf(targetPath) + "/' && mv -f '" + staging + "' '" + targetPath + "'");
+        if (result.getExitCode() != 0)
+            throw new IllegalStateException("Unable to write " + targetPath + " in the container: " + result.getStderr());
+    }
+
+    private static String parentOf(String path) {
+        return path.substring(0, Math.max(0, path.lastIndexOf('/')));
+    }
+
+    /**
+     * Run a shell command in a running container
+     *
+     * @return The standard output of the command
+     * @throws IllegalStateException If the command fails
+     */
+    public static String run(GenericContainer<?> container, String command) {
+        ExecResult result = exec(container, command);
+        if (result.getExitCode() != 0)
+            throw new IllegalStateException("Running '" + command + "' in the container failed with exit code " + result.getExitCode() + ": " +
+                                            result.getStderr() + result.getStdout());
+        return result.getStdout();
+    }
+
+    /**
+     * Delete files in a running container, such as deployment marker files of an earlier deployment
+     */
+    public static void delete(GenericContainer<?> container, String... paths) {
+        StringBuilder command = new StringBuilder("rm -rf");
+        for (String path : paths)
+            command.append(" '").append(path).append('\'');
+        ExecResult result = exec(container, command.toString());
+        if (result.getExitCode() != 0)
+            throw new IllegalStateException("Unable to delete " + String.join(", ", paths) + " in the container: " + result.getStderr());
+    }
+
+    /**
+     * Create or update an (empty) file in a running container, such as a deployment marker file
+     */
+    public static void touch(GenericContainer<?> container, String path) {
+        ExecResult result = exec(container, "touch '" + path + "'");
+        if (result.getExitCode() != 0)
+            throw new IllegalStateException("Unable to create " + path + " in the container: " + result.getStderr());
+    }
+
+    /**
+     * Wait until a message matching <code>success</code> or <code>failure</code> is logged by the container after
+     * the supplied offset into its logs
+     *
+     * @param logOffset The length of the container logs before the redeployment was started, see {@link #logLength(GenericContainer)}
+     * @throws ContainerLaunchException If a failure is logged, or no matching message is logged within the timeout
+     */
+    public static void awaitLog(GenericContainer<?> container, int logOffset, Pattern success, Pattern failure, Duration timeout) {
+        awaitLog(container, logOffset, Collections.singleton(success), failure, timeout);
+    }
+
+    /**
+     * Wait until a message matching each of the <code>success</code> patterns, or a message matching <code>failure</code>,
+     * is logged by the container after the supplied offset into its logs, such as when several applications are updated
+     *
+     * @param logOffset The length of the container logs before the redeployment was started, see {@link #logLength(GenericContainer)}
+     * @throws ContainerLaunchException If a failure is logged, or not every success pattern is matched within the timeout
+     */
+    public static void awaitLog(GenericContainer<?> container, int logOffset, Collection<Pattern> success, Pattern failure, Duration timeout) {
+        await(timeout, container, () -> {
+            String logs = container.getLogs();
+            String newLogs = logs.length() > logOffset ? logs.substring(logOffset) : "";
+            Matcher failed = failure.matcher(newLogs);
+            if (failed.find())
+                throw new ContainerLaunchException("Redeploying the application failed: " + line(newLogs, failed.start()));
+            return success.stream().allMatch(p -> p.matcher(newLogs).find());
+        });
+    }
+
+    /**
+     * Wait until a file exists at the <code>success</code> or <code>failure</code> path in a running container
+     *
+     * @throws ContainerLaunchException If the failure file appears, or neither file appears within the timeout
+     */
+    public static void awaitFile(GenericContainer<?> container, String success, String failure, Duration timeout) {
+        await(timeout, container, () -> {
+            ExecResult result = exec(container, "if [ -e '" + success + "' ]; then echo deployed; elif [ -e '" + failure + "' ]; then echo failed; fi");
+            String state = result.getStdout().trim();
+            if ("failed".equals(state))
+                throw new ContainerLaunchException("Redeploying the application failed, because " + failure + " was created");
+            return "deployed".equals(state);
+        });
+    }
+
+    /**
+     * @return The current length of the logs of the container, to be passed to
+     *         {@link #awaitLog(GenericContainer, int, Pattern, Pattern, Duration)}
+     */
+    public static int logLength(GenericContainer<?> container) {
+        return container.getLogs().length();
+    }
+
+    /**
+     * @return The lowercase hex encoded SHA-256 digest of the content of the supplied file. The result
+     *         is cached for as long as the size and modification time of the file are unchanged.
+     */
+    public static String hash(File file) {
+        try {
+            Path path = file.toPath().toAbsolutePath();
+            String key = path + ":" + Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis();
+            String cached = hashes.get(key);
+            if (cached != null)
+                return cached;
+            String hash = InternalUtils.sha256(path);
+            hashes.put(key, hash);
+            return hash;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to hash application archive " + file, e);
+        }
+    }
+
+    /**
+     * Create an empty web application with the same file name as the supplied war. Its content never changes, so
+     * images that contain it instead of the real application can be reused regardless of changes to the application.
+     */
+    public static File placeholderFor(File war) {
+        Path placeholder = Paths.get(System.getProperty("java.io.tmpdir"), "microshed-placeholder-apps", war.getName());
+        if (Files.isRegularFile(placeholder))
+            return placeholder.toFile();
+        try {
+            Files.createDirectories(placeholder.getParent());
+            Path staging = Files.createTempFile(placeholder.getParent(), "staging-", ".war");
+            try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(staging))) {
+                ZipEntry entry = new ZipEntry("WEB-INF/");
+                // A fixed timestamp keeps the archive byte-for-byte identical
+                entry.setTime(0);
+                zip.putNextEntry(entry);
+                zip.closeEntry();
+            }
+            Files.move(staging, placeholder, StandardCopyOption.REPLACE_EXISTING);
+            Files.setLastModifiedTime(placeholder, FileTime.fromMillis(0));
+            return placeholder.toFile();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to create placeholder application " + placeholder, e);
+        }
+    }
+
+    private interface Check {
+        boolean done() throws Exception;
+    }
+
+    private static void await(Duration timeout, GenericContainer<?> container, Check check) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long delay = 50;
+        while (true) {
+            try {
+                if (check.done())
+                    return;
+            } catch (ContainerLaunchException e) {
+                throw e;
+            } catch (Exception e) {
+                LOG.debug("Unable to check the redeployment state of " + container.getContainerId(), e);
+            }
+            if (System.nanoTime() > deadline)
+                throw new ContainerLaunchException("Timed out after " + timeout.getSeconds() + "s waiting for the application to be redeployed");
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ContainerLaunchException("Interrupted while waiting for the application to be redeployed", e);
+            }
+            delay = Math.min(delay * 2, 1000);
+        }
+    }
+
+    private static ExecResult exec(GenericContainer<?> container, String command) {
+        try {
+            return container.execInContainer("sh", "-c", command);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to run '" + command + "' in the container", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running '" + command + "' in the container", e);
+        }
+    }
+
+    private static String line(String text, int index) {
+        int start = text.lastIndexOf('\n', index) + 1;
+        int end = text.indexOf('\n', index);
+        return text.substring(start, end < 0 ? text.length() : end).trim();
+    }
+
+}
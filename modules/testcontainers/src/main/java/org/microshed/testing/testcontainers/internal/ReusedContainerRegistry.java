@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.microshed.testing.internal.InternalLogger;
+import org.microshed.testing.testcontainers.ApplicationContainer;
+import org.testcontainers.DockerClientFactory;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.model.Container;
+
+/**
+ * Keeps track of the reusable application containers that are in use, so that the containers that earlier runs
+ * started for the same application with another image or configuration can be removed without removing a container
+ * that another process is still using. Each process holds a shared lock on a file named after each reusable container
+ * it uses, in a directory shared by all processes on the machine, and a container is only removed by a process that
+ * can lock its file exclusively. The locks are held until the JVM exits, and are released by the operating system
+ * even if the JVM is killed.
+ */
+public class ReusedContainerRegistry {
+
+    /**
+     * The label that Testcontainers applies to reusable containers, holding a hash of their configuration
+     */
+    public static final String LABEL_CONFIG_HASH = "org.testcontainers.hash";
+
+    private static final InternalLogger LOG = InternalLogger.get(ReusedContainerRegistry.class);
+    // container ID -> shared lock held by this JVM
+    private static final Map<String, FileLock> inUse = new HashMap<>();
+
+    private ReusedContainerRegistry() {
+        // static utility
+    }
+
+    /**
+     * Record that this JVM uses the supplied reusable container, so that no process removes it
+     */
+    public static synchronized void markInUse(String containerId) {
+        if (inUse.containsKey(containerId))
+            return;
+        try {
+            Path file = lockFile(containerId);
+            Files.createDirectories(file.getParent());
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock(0, Long.MAX_VALUE, true);
+            if (lock == null) {
+                channel.close();
+                LOG.warn("Container " + containerId + " is being removed by another process because its image or configuration changed");
+                return;
+            }
+            inUse.put(containerId, lock);
+        } catch (IOException | OverlappingFileLockException e) {
+            LOG.debug("Unable to record that container " + containerId + " is in use", e);
+        }
+    }
+
+    /**
+     * Remove the containers with the same reuse key as the supplied container that have another image or configuration,
+     * and that no process is using
+     *
+     * @param reuseKey The value of the {@link ApplicationContainer#LABEL_REUSE_KEY} label of the container
+     * @param containerId The ID of the container that replaces the stale containers
+     * @param description A description of the container, for log messages
+     */
+    public static void removeStale(String reuseKey, String containerId, String description) {
+        DockerClient client = DockerClientFactory.instance().client();
+        List<Container> candidates = client.listContainersCmd()
+                        .withShowAll(true)
+                        .withLabelFilter(Collections.singletonMap(ApplicationContainer.LABEL_REUSE_KEY, reuseKey))
+                        .exec();
+        Optional<Container> current = candidates.stream().filter(c -> c.getId().equals(containerId)).findFirst();
+        if (!current.isPresent())
+            return;
+        for (Container c : candidates) {
+            if (c == current.get() || isInUse(c.getId()))
+                continue;
+            if (sameLabel(c, current.get(), ApplicationContainer.LABEL_IMAGE_ID) && sameLabel(c, current.get(), LABEL_CONFIG_HASH)) {
+                // An equivalent container, which another process may have started concurrently
+                continue;
+            }
+            remove(client, c.getId(), description);
+        }
+    }
+
+    private static synchronized boolean isInUse(String containerId) {
+        return inUse.containsKey(containerId);
+    }
+
+    private static void remove(DockerClient client, String containerId, String description) {
+        Path file = lockFile(containerId);
+        try {
+            Files.createDirectories(file.getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                            FileLock lock = channel.tryLock()) {
+                if (lock == null) {
+                    LOG.debug("Not removing container " + containerId + " because another process is using it");
+                    return;
+                }
+                LOG.info("Removing container " + containerId + " that an earlier run started for " + description +
+                         " because its image or configuration changed");
+                client.removeContainerCmd(containerId).withForce(true).withRemoveVolumes(true).exec();
+            }
+            Files.deleteIfExists(file);
+        } catch (IOException | OverlappingFileLockException e) {
+            LOG.debug("Not removing container " + containerId + " because it could not be locked", e);
+        }
+    }
+
+    private static boolean sameLabel(Container a, Container b, String label) {
+        Map<String, String> labelsA = a.getLabels() == null ? Collections.emptyMap() : a.getLabels();
+        Map<String, String> labelsB = b.getLabels() == null ? Collections.emptyMap() : b.getLabels();
+        return Objects.equals(labelsA.get(label), labelsB.get(label));
+    }
+
+    private static Path lockFile(String containerId) {
+        return Paths.get(System.getProperty("user.home"), ".microshed", "locks", "container-" + containerId.substring(0, Math.min(16, containerId.length())) + ".lock");
+    }
+
+}
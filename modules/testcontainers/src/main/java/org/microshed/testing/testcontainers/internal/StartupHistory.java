@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import org.microshed.testing.internal.InternalLogger;
+
+/**
+ * Records how long application containers take to become ready in a local history file, so that
+ * startup timeouts can be derived from the observed startup times, and so that startup time
+ * regressions can be detected.
+ * <p>
+ * The history file is shared by all test runs of the current user and is locked while it is updated.
+ */
+public class StartupHistory {
+
+    /**
+     * The name of the system property or environment variable that may be set to the location of the
+     * history file, or to <code>false</code> to disable the startup history
+     */
+    public static final String HISTORY_FILE = "microshed_startup_history";
+
+    /**
+     * The name of the system property or environment variable that defines the factor applied to the
+     * 99th percentile of the observed startup times to derive the startup timeout. Defaults to 3.
+     */
+    public static final String TIMEOUT_FACTOR = "microshed_startup_timeout_factor";
+
+    /**
+     * The name of the system property or environment variable that defines how many times slower than the
+     * median of the observed startup times a startup must be to be reported as a regression. Defaults to 1.5.
+     */
+    public static final String REGRESSION_THRESHOLD = "microshed_startup_regression_threshold";
+
+    /**
+     * The name of the system property or environment variable that may be set to <code>warn</code> (the default),
+     * <code>fail</code>, or <code>off</code> to control what happens when a startup time regression is detected
+     */
+    public static final String REGRESSION_ACTION = "microshed_startup_regression";
+
+    private static final InternalLogger LOG = InternalLogger.get(StartupHistory.class);
+    private static final int MAX_SAMPLES = 20;
+    private static final int MIN_SAMPLES = 5;
+    private static final long MIN_TIMEOUT_MILLIS = 10_000;
+    // Ignore regressions that are small in absolute terms, which are usually just noise
+    private static final long MIN_REGRESSION_MILLIS = 2_000;
+
+    private static volatile StartupHistory instance;
+
+    private final Path file;
+    private Properties history;
+
+    StartupHistory(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @return The startup history of the current user, or an empty Optional if it is disabled
+     */
+    public static Optional<StartupHistory> get() {
+        String location = resolveProperty(HISTORY_FILE);
+        if ("false".equalsIgnoreCase(location))
+            return Optional.empty();
+        if (instance == null) {
+            synchronized (StartupHistory.class) {
+                if (instance == null) {
+                    Path file = location.isEmpty() ? Paths.get(System.getProperty("user.home"), ".microshed", "startup-history.properties") : Paths.get(location);
+                    instance = new StartupHistory(file);
+                }
+            }
+        }
+        return Optional.of(instance);
+    }
+
+    /**
+     * @param key Identifies the container
+     * @return The observed startup times (in ms) of the container, oldest first
+     */
+    public synchronized List<Long> getSamples(String key) {
+        if (history == null)
+            history = read();
+        return parse(history.getProperty(key));
+    }
+
+    /**
+     * @param key Identifies the container
+     * @return A startup timeout derived from the observed startup times of the container, or an empty
+     *         Optional if the container has not been started often enough yet
+     */
+    public Optional<Duration> getLearnedTimeout(String key) {
+        return timeoutFor(getSamples(key), doubleProperty(TIMEOUT_FACTOR, 3));
+    }
+
+    /**
+     * Record the startup time of a container and check it for a regression against the earlier startup times
+     *
+     * @param key Identifies the container
+     * @param description Describes the container in messages
+     * @param startupMillis How long it took the container to start and become ready
+     * @throws IllegalStateException If the startup time regressed and regressions are configured to fail
+     */
+    public void record(String key, String description, long startupMillis) {
+        List<Long> samples = getSamples(key);
+        String action = resolveProperty(REGRESSION_ACTION).toLowerCase();
+        Optional<Long> baseline = samples.size() >= MIN_SAMPLES ? Optional.of(percentile(samples, 50)) : Optional.empty();
+        if (baseline.isPresent() && !"off".equals(action) &&
+            isRegression(baseline.get(), startupMillis, doubleProperty(REGRESSION_THRESHOLD, 1.5))) {
+            String msg = "Startup time of " + description + " regressed to " + startupMillis + "ms from a baseline of " + baseline.get() +
+                         "ms (median of the last " + samples.size() + " startups)";
+            if ("fail".equals(action))
+                // The regressed startup is not recorded, so that it does not become part of the baseline
+                throw new IllegalStateException(msg + ". Set " + REGRESSION_ACTION + "=warn to only report startup time regressions.");
+            LOG.warn(msg);
+        }
+        update(key, startupMillis);
+    }
+
+    private synchronized void update(String key, long startupMillis) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                            FileLock lock = channel.lock()) {
+                // Merge with samples recorded by other JVMs in the meantime
+                history = read();
+                List<Long> samples = new ArrayList<>(parse(history.getProperty(key)));
+                samples.add(startupMillis);
+                while (samples.size() > MAX_SAMPLES)
+                    samples.remove(0);
+                history.setProperty(key, samples.stream().map(String::valueOf).collect(Collectors.joining(",")));
+                Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    history.store(out, "Startup times (ms) of application containers observed by MicroShed Testing");
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            LOG.debug("Unable to update startup history " + file, e);
+        }
+    }
+
+    private Properties read() {
+        Properties props = new Properties();
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                props.load(in);
+            } catch (IOException | IllegalArgumentException e) {
+                LOG.debug("Unable to read startup history " + file, e);
+            }
+        }
+        return props;
+    }
+
+    static List<Long> parse(String value) {
+        if (value == null || value.trim().isEmpty())
+            return Collections.emptyList();
+        try {
+            return Arrays.stream(value.split(","))
+                            .map(String::trim)
+                            .map(Long::valueOf)
+                            .collect(Collectors.toList());
+        } catch (NumberFormatException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    static Optional<Duration> timeoutFor(List<Long> samples, double factor) {
+        if (samples.size() < MIN_SAMPLES)
+            return Optional.empty();
+        long millis = Math.max(MIN_TIMEOUT_MILLIS, (long) Math.ceil(percentile(samples, 99) * factor));
+        return Optional.of(Duration.ofMillis(millis));
+    }
+
+    static boolean isRegression(long baselineMillis, long startupMillis, double threshold) {
+        return startupMillis > baselineMillis * threshold && startupMillis - baselineMillis > MIN_REGRESSION_MILLIS;
+    }
+
+    /**
+     * @return The nearest-rank percentile of the supplied samples
+     */
+    static long percentile(List<Long> samples, double percentile) {
+        List<Long> sorted = samples.stream().sorted().collect(Collectors.toList());
+        int rank = (int) Math.ceil(percentile / 100 * sorted.size());
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, rank - 1)));
+    }
+
+    private static double doubleProperty(String key, double defaultValue) {
+        String value = resolveProperty(key);
+        if (value.isEmpty())
+            return defaultValue;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            LOG.warn("Ignoring invalid value for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+}
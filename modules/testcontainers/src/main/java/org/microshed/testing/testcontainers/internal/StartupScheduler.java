@@ -0,0 +1,402 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.microshed.testing.internal.InternalUtils.resolveProperty;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.microshed.testing.internal.InternalLogger;
+import org.microshed.testing.internal.LifecycleEvents;
+import org.microshed.testing.internal.LifecycleTimings;
+import org.microshed.testing.spi.LifecycleEvent;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.lifecycle.Startable;
+
+/**
+ * Starts a set of containers according to their dependency graph. The graph is made of the explicit
+ * <code>dependsOn</code> relationships plus edges inferred from environment variables of one container
+ * that reference the network alias of another container.
+ * <p>
+ * Containers whose dependencies are satisfied are started concurrently on a bounded executor, giving
+ * priority to the containers on the longest remaining dependency chain (the critical path).
+ */
+public class StartupScheduler {
+
+    /**
+     * The name of the system property or environment variable that defines the maximum number
+     * of containers to start concurrently. Defaults to the number of available processors.
+     */
+    public static final String STARTUP_PARALLELISM = "microshed_startup_parallelism";
+
+    private static final InternalLogger LOG = InternalLogger.get(StartupScheduler.class);
+
+    private final Map<Startable, Node> nodes = new IdentityHashMap<>();
+    private final List<Node> ordered = new ArrayList<>();
+    private final int parallelism;
+    private Class<?> testClass;
+    private long begin;
+
+    /**
+     * Timing information for a single container start
+     */
+    public static class Timing {
+        public final String name;
+        /** Time (in ms) between the scheduler starting and the container's dependencies being satisfied */
+        public final long queuedAt;
+        /** Time (in ms) the container waited for a free executor slot after being queued */
+        public final long queueWait;
+        /** Time (in ms) it took the container to start and become ready */
+        public final long startDuration;
+        /** Time (in ms) between the scheduler starting and the container being ready */
+        public final long readyAt;
+
+        Timing(String name, long queuedAt, long queueWait, long startDuration, long readyAt) {
+            this.name = name;
+            this.queuedAt = queuedAt;
+            this.queueWait = queueWait;
+            this.startDuration = startDuration;
+            this.readyAt = readyAt;
+        }
+    }
+
+    private static class Node {
+        final Startable startable;
+        final int index;
+        Runnable startAction;
+        final Set<Node> dependencies = new LinkedHashSet<>();
+        final Set<Node> dependents = new LinkedHashSet<>();
+        int remaining;
+        long criticalPath = -1;
+        long queuedAt = -1, startedAt = -1, readyAt = -1;
+        Throwable failure;
+        boolean skipped;
+
+        Node(Startable startable, int index) {
+            this.startable = startable;
+            this.index = index;
+        }
+
+        String name() {
+            if (startable instanceof GenericContainer) {
+                GenericContainer<?> c = (GenericContainer<?>) startable;
+                return c.getImage().isDone() ? c.getDockerImageName() : c.getClass().getSimpleName();
+            }
+            return startable.toString();
+        }
+
+        void recordTimings() {
+            String subject = timingSubject(startable);
+            LifecycleTimings.record(LifecycleTimings.CATEGORY_CONTAINER, subject, "queued", queuedAt, startedAt);
+            LifecycleTimings.recordParent(LifecycleTimings.CATEGORY_CONTAINER, subject, "scheduled start", startedAt, readyAt);
+        }
+    }
+
+    /**
+     * @return The name that the phases of the supplied container are recorded under in the {@link LifecycleTimings}
+     */
+    public static String timingSubject(Startable startable) {
+        if (!(startable instanceof GenericContainer))
+            return startable.toString();
+        GenericContainer<?> c = (GenericContainer<?>) startable;
+        String name = c.getClass().getSimpleName() + '[' + (c.getImage().isDone() ? c.getDockerImageName() : "?") + ']';
+        // Distinguish containers that use the same image
+        String id = c.getContainerId();
+        return id == null ? name : name + ' ' + id.substring(0, Math.min(12, id.length()));
+    }
+
+    public StartupScheduler(Collection<? extends Startable> startables) {
+        this(startables, defaultParallelism());
+    }
+
+    public StartupScheduler(Collection<? extends Startable> startables, int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        startables.forEach(this::addNode);
+        inferDependencies();
+        ordered.forEach(n -> n.remaining = n.dependencies.size());
+        ordered.forEach(n -> computeCriticalPath(n, Collections.newSetFromMap(new IdentityHashMap<>())));
+    }
+
+    private Node addNode(Startable startable) {
+        Node existing = nodes.get(startable);
+        if (existing != null)
+            return existing;
+        Node node = new Node(startable, nodes.size());
+        nodes.put(startable, node);
+        ordered.add(node);
+        for (Startable dep : startable.getDependencies()) {
+            Node depNode = addNode(dep);
+            node.dependencies.add(depNode);
+            depNode.dependents.add(node);
+        }
+        return node;
+    }
+
+    /**
+     * Replace the start action of the supplied startable, for example to attach it to an already running
+     * container instead of starting it. Startables with a custom start action are scheduled after regular
+     * startables that become ready at the same time.
+     */
+    public StartupScheduler withStartAction(Startable startable, Runnable action) {
+        Node node = nodes.get(startable);
+        if (node == null)
+            throw new IllegalArgumentException(startable + " is not scheduled by this instance");
+        node.startAction = action;
+        return this;
+    }
+
+    /**
+     * @param testClass The test class that the containers are started for, which is reported in {@link LifecycleEvent}s
+     */
+    public StartupScheduler withTestClass(Class<?> testClass) {
+        this.testClass = testClass;
+        return this;
+    }
+
+    /**
+     * Add an edge A->B whenever an environment variable of container A references a network alias
+     * of container B, unless B already (transitively) depends on A.
+     */
+    private void inferDependencies() {
+        for (Node node : ordered) {
+            if (!(node.startable instanceof GenericContainer))
+                continue;
+            Collection<String> envValues = ((GenericContainer<?>) node.startable).getEnvMap().values();
+            for (Node other : ordered) {
+                if (other == node || node.dependencies.contains(other) || !(other.startable instanceof GenericContainer))
+                    continue;
+                for (String alias : ((GenericContainer<?>) other.startable).getNetworkAliases()) {
+                    if (ContainerFingerprint.isDefaultAlias(alias))
+                        continue;
+                    Pattern aliasRef = Pattern.compile("(?<![\\w.-])" + Pattern.quote(alias) + "(?![\\w.-])");
+                    if (envValues.stream().anyMatch(v -> v != null && aliasRef.matcher(v).find()) && !dependsOn(other, node)) {
+                        LOG.debug("Inferred that " + node.name() + " depends on " + other.name() + " via network alias " + alias);
+                        node.dependencies.add(other);
+                        other.dependents.add(node);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean dependsOn(Node from, Node target) {
+        Deque<Node> toVisit = new ArrayDeque<>(from.dependencies);
+        Set<Node> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        while (!toVisit.isEmpty()) {
+            Node n = toVisit.pop();
+            if (n == target)
+                return true;
+            if (visited.add(n))
+                toVisit.addAll(n.dependencies);
+        }
+        return false;
+    }
+
+    /**
+     * The critical path of a node is the number of nodes on the longest chain of dependents
+     * that can only start once the node is ready, including the node itself.
+     */
+    private long computeCriticalPath(Node node, Set<Node> visiting) {
+        if (node.criticalPath >= 0)
+            return node.criticalPath;
+        if (!visiting.add(node))
+            throw new IllegalStateException("Circular container dependency detected involving " + node.name());
+        long longestDependent = 0;
+        for (Node dependent : node.dependents)
+            longestDependent = Math.max(longestDependent, computeCriticalPath(dependent, visiting));
+        visiting.remove(node);
+        return node.criticalPath = longestDependent + 1;
+    }
+
+    /**
+     * @return The dependencies (explicit and inferred) that the supplied startable will wait for
+     */
+    Set<Startable> getDependencies(Startable startable) {
+        return nodes.get(startable).dependencies.stream()
+                        .map(n -> n.startable)
+                        .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Start all containers, blocking until they are all ready or until a failure has occurred
+     * and all containers that were already starting have settled.
+     */
+    public void start() {
+        if (ordered.isEmpty())
+            return;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, ordered.size()), r -> {
+            Thread t = new Thread(r, "microshed-startup-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        PriorityQueue<Node> ready = new PriorityQueue<>(Comparator.comparing((Node n) -> n.startAction != null)
+                        .thenComparing(Comparator.comparingLong((Node n) -> n.criticalPath).reversed())
+                        .thenComparingInt(n -> n.index));
+        BlockingQueue<Node> completed = new LinkedBlockingQueue<>();
+        begin = System.nanoTime();
+        Throwable failure = null;
+        try {
+            for (Node n : ordered) {
+                if (n.remaining == 0) {
+                    n.queuedAt = System.nanoTime();
+                    ready.add(n);
+                }
+            }
+            int running = 0;
+            int settled = 0;
+            while (settled < ordered.size()) {
+                while (failure == null && running < parallelism && !ready.isEmpty()) {
+                    Node n = ready.poll();
+                    running++;
+                    executor.execute(() -> {
+                        String subject = n.name();
+                        LifecycleEvents.fire(LifecycleEvent.Type.CONTAINER_STARTING, testClass, subject);
+                        n.startedAt = System.nanoTime();
+                        try {
+                            if (n.startAction != null)
+                                n.startAction.run();
+                            else
+                                n.startable.start();
+                        } catch (Throwable t) {
+                            n.failure = t;
+                        }
+                        n.readyAt = System.nanoTime();
+                        n.recordTimings();
+                        if (n.failure == null)
+                            LifecycleEvents.fire(LifecycleEvent.Type.CONTAINER_READY, testClass, subject, timingSubject(n.startable), null);
+                        else
+                            LifecycleEvents.fire(LifecycleEvent.Type.CONTAINER_FAILED, testClass, subject, timingSubject(n.startable), n.failure);
+                        completed.add(n);
+                    });
+                }
+                if (running == 0) {
+                    // Nothing left that can start because of an earlier failure
+                    for (Node n : ordered) {
+                        if (n.startedAt < 0 && !n.skipped) {
+                            n.skipped = true;
+                            settled++;
+                        }
+                    }
+                    break;
+                }
+                Node done = completed.take();
+                running--;
+                settled++;
+                if (done.failure != null) {
+                    if (failure == null)
+                        failure = done.failure;
+                    LOG.error("Failed to start " + done.name() + ": " + done.failure.getMessage());
+                    continue;
+                }
+                for (Node dependent : done.dependents) {
+                    if (--dependent.remaining == 0) {
+                        dependent.queuedAt = System.nanoTime();
+                        ready.add(dependent);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        } finally {
+            executor.shutdown();
+        }
+
+        logTimings();
+        if (failure instanceof RuntimeException)
+            throw (RuntimeException) failure;
+        if (failure instanceof Error)
+            throw (Error) failure;
+        if (failure != null)
+            throw new IllegalStateException("Unable to start containers", failure);
+    }
+
+    /**
+     * @return The startables that failed to start, and the reason they failed
+     */
+    public Map<Startable, Throwable> getFailures() {
+        Map<Startable, Throwable> failures = new IdentityHashMap<>();
+        ordered.stream()
+                        .filter(n -> n.failure != null)
+                        .forEach(n -> failures.put(n.startable, n.failure));
+        return failures;
+    }
+
+    /**
+     * @return Timing information for all containers that were started, in the order they became ready
+     */
+    public List<Timing> getTimings() {
+        return ordered.stream()
+                        .filter(n -> n.readyAt >= 0)
+                        .sorted(Comparator.comparingLong(n -> n.readyAt))
+                        .map(n -> new Timing(n.name(),
+                                        millis(n.queuedAt - begin),
+                                        millis(n.startedAt - n.queuedAt),
+                                        millis(n.readyAt - n.startedAt),
+                                        millis(n.readyAt - begin)))
+                        .collect(Collectors.toList());
+    }
+
+    private void logTimings() {
+        LOG.info("Container startup timings (queued at / queue wait / start duration / ready at):");
+        for (Timing t : getTimings())
+            LOG.info("  " + t.name + ": " + t.queuedAt + "ms / " + t.queueWait + "ms / " + t.startDuration + "ms / " + t.readyAt + "ms");
+        ordered.stream()
+                        .filter(n -> n.skipped)
+                        .forEach(n -> LOG.info("  " + n.name() + ": not started because a dependency failed"));
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    private static int defaultParallelism() {
+        String value = resolveProperty(STARTUP_PARALLELISM);
+        if (!value.isEmpty()) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                LOG.warn("Ignoring invalid value for " + STARTUP_PARALLELISM + ": " + value);
+            }
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+}
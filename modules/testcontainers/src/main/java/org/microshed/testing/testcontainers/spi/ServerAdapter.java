@@ -22,6 +22,7 @@ import java.io.File;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import org.microshed.testing.testcontainers.ApplicationContainer;
 import org.testcontainers.containers.GenericContainer;
@@ -35,6 +36,10 @@ import org.testcontainers.images.builder.ImageFromDockerfile;
  * <li>Default startup timeout</li>
  * <li>Default Dockerfile</li>
  * <li>Default readiness path</li>
+ * <li>Log messages indicating readiness or a failed start</li>
+ * <li>Redeploying an updated application into a running container</li>
+ * <li>Updating the configuration of a running container</li>
+ * <li>Restarting the application in a running container</li>
  * </ul>
  *
  * @author aguibert
@@ -98,6 +103,23 @@ public interface ServerAdapter {
                                                 "Try enabling the appropriate runtime-specific module documented here: https://microshed.org/microshed-testing/features/SupportedRuntimes.html");
     }
 
+    /**
+     * @return The image that {@link #getDefaultImage(File)} builds on, so that it can be pulled in the background
+     *         before it is needed, or an empty Optional if there is no such image
+     */
+    default Optional<String> getBaseImage() {
+        return Optional.empty();
+    }
+
+    /**
+     * @return true if {@link #getDefaultImage(File)} needs a packaged application archive. Adapters that deploy the
+     *         application from the build output directories instead only use the name of the supplied file, which
+     *         then may not exist.
+     */
+    default boolean requiresApplicationArchive() {
+        return true;
+    }
+
     /**
      * Defines the readiness path for the Server which will be used by default when the developer did not specify such value.
      *
@@ -107,6 +129,90 @@ public interface ServerAdapter {
         return Optional.empty();
     }
 
+    /**
+     * Defines a pattern matching the log message that the runtime writes once it has started. When the message
+     * is logged, the readiness path is checked right away instead of waiting for the next poll, so that tests
+     * can begin as soon as possible.
+     *
+     * @return the pattern of the ready message, or an empty Optional if the runtime does not log one
+     */
+    default Optional<Pattern> getReadyLogPattern() {
+        return Optional.empty();
+    }
+
+    /**
+     * Defines a pattern matching log messages that indicate the runtime or the application failed to start.
+     * When such a message is logged, waiting for the container to become ready is aborted right away instead
+     * of when the startup timeout elapses.
+     *
+     * @return the pattern of fatal startup errors, or an empty Optional if none are defined
+     */
+    default Optional<Pattern> getFatalLogPattern() {
+        return Optional.empty();
+    }
+
+    /**
+     * @return true if this adapter can redeploy an updated application into a running container
+     *         with {@link #redeploy(ApplicationContainer, File)}
+     */
+    default boolean supportsRedeploy() {
+        return false;
+    }
+
+    /**
+     * Redeploys an updated application archive into the runtime of a running container, without restarting
+     * the container. Implementations return once the updated application has been started.
+     *
+     * @param app The running application container
+     * @param appFile The updated application file
+     */
+    default void redeploy(ApplicationContainer app, File appFile) {
+        throw new UnsupportedOperationException("Redeploying the application is not supported for the default (generic) ServerAdapter. " +
+                                                "Try enabling the appropriate runtime-specific module documented here: https://microshed.org/microshed-testing/features/SupportedRuntimes.html");
+    }
+
+    /**
+     * @return true if this adapter can update the configuration of the application in a running container
+     *         with {@link #setConfigProperties(ApplicationContainer, Map)}
+     */
+    default boolean supportsLiveConfig() {
+        return false;
+    }
+
+    /**
+     * Sets MicroProfile Config properties on the application in a running container, with a higher priority than
+     * the environment variables of the container. Calling this method replaces any properties previously set on the
+     * same container with this method. Implementations return once the application uses the new configuration, which
+     * usually requires restarting the application.
+     *
+     * @param app The running application container
+     * @param properties A map of key/value pairs that should be set on the application
+     */
+    default void setConfigProperties(ApplicationContainer app, Map<String, String> properties) {
+        throw new UnsupportedOperationException("Updating the configuration of a running container is not supported for the default (generic) ServerAdapter. " +
+                                                "Try enabling the appropriate runtime-specific module documented here: https://microshed.org/microshed-testing/features/SupportedRuntimes.html");
+    }
+
+    /**
+     * @return true if this adapter can restart the application in a running container
+     *         with {@link #resetApplication(ApplicationContainer)}
+     */
+    default boolean supportsApplicationReset() {
+        return false;
+    }
+
+    /**
+     * Restarts the application in a running container without restarting the runtime, so that the application
+     * discards any state left behind by earlier test classes. Implementations return once the application has
+     * been started again.
+     *
+     * @param app The running application container
+     */
+    default void resetApplication(ApplicationContainer app) {
+        throw new UnsupportedOperationException("Resetting the application is not supported for the default (generic) ServerAdapter. " +
+                                                "Try enabling the appropriate runtime-specific module documented here: https://microshed.org/microshed-testing/features/SupportedRuntimes.html");
+    }
+
     /**
      * An optional hook that may be implemented for the purposes of auto-wiring multiple
      * containers the the test environment together.
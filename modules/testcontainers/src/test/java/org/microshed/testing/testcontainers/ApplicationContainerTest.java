@@ -19,6 +19,7 @@
 package org.microshed.testing.testcontainers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -28,6 +29,7 @@ import java.util.Map;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 import org.junit.jupiter.api.Test;
 import org.microshed.testing.testcontainers.config.TestServerAdapter;
+import org.testcontainers.containers.GenericContainer;
 
 public class ApplicationContainerTest {
 
@@ -118,6 +120,35 @@ public class ApplicationContainerTest {
         assertTrue(app.getExposedPorts().containsAll(Arrays.asList(9081, 9444)));
     }
 
+    @Test
+    public void testConfigPropertiesFor() {
+        Map<String, String> props = ApplicationContainer.configPropertiesFor("FOO_BAR_BAZ", "1");
+        assertEquals("1", props.get("FOO_BAR_BAZ"));
+        assertEquals("1", props.get("foo.bar.baz"));
+        assertEquals(2, props.size());
+
+        props = ApplicationContainer.configPropertiesFor("com.example.Client/mp-rest/url", "http://example.com");
+        assertEquals(1, props.size());
+        assertEquals(1, ApplicationContainer.configPropertiesFor("FOO", "1").size());
+    }
+
+    @Test
+    public void testAttachToPooledContainer() {
+        GenericContainer<?> running = new GenericContainer<>("alpine:3.5") {
+            @Override
+            public String getContainerId() {
+                return "0123456789ab";
+            }
+        };
+        ApplicationContainer app = dummyApp();
+        assertNull(app.getContainerId());
+        app.attachTo(running);
+        assertEquals("0123456789ab", app.getContainerId());
+        // Stopping the attached container only detaches it from the running container
+        app.stop();
+        assertNull(app.getContainerId());
+    }
+
     public static ApplicationContainer dummyApp() {
         return new ApplicationContainer("alpine:3.5");
     }
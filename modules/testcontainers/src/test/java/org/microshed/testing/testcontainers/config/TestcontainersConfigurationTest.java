@@ -18,12 +18,15 @@
  */
 package org.microshed.testing.testcontainers.config;
 
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtensionConfigurationException;
 import org.microshed.testing.testcontainers.ApplicationContainer;
 import org.microshed.testing.testcontainers.ApplicationContainerTest;
+import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.junit.jupiter.Container;
 
 public class TestcontainersConfigurationTest {
@@ -36,6 +39,19 @@ public class TestcontainersConfigurationTest {
         public static ApplicationContainer app2 = ApplicationContainerTest.dummyApp();
     }
 
+    public static class ReusableAppClass {
+        @Container
+        public static ApplicationContainer app = ApplicationContainerTest.dummyApp().withReuse(true);
+    }
+
+    public static class ReusableAppWithDatabaseClass {
+        @Container
+        public static ApplicationContainer app = ApplicationContainerTest.dummyApp().withReuse(true);
+
+        @Container
+        public static GenericContainer<?> db = new GenericContainer<>("alpine:3.5");
+    }
+
     @Test
     public void testTwoApps() {
         assertThrows(ExtensionConfigurationException.class, () -> {
@@ -43,4 +59,15 @@ public class TestcontainersConfigurationTest {
         });
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testReusableAppNetwork() {
+        // A network created for each run would prevent reusing the application in later runs
+        new TestcontainersConfiguration().preConfigure(ReusableAppClass.class);
+        assertNull(ReusableAppClass.app.getNetwork());
+
+        // The application must still be able to reach other containers
+        new TestcontainersConfiguration().preConfigure(ReusableAppWithDatabaseClass.class);
+        assertNotNull(ReusableAppWithDatabaseClass.app.getNetwork());
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AppArchiveLocatorTest {
+
+    @TempDir
+    Path projectDir;
+
+    @Test
+    public void testOutputDirectoriesFirst() throws Exception {
+        Path war = Files.createFile(Files.createDirectories(projectDir.resolve("build/libs")).resolve("app.war"));
+        Files.createFile(Files.createDirectories(projectDir.resolve("build/tmp/nested/deeper")).resolve("other.war"));
+        assertEquals(Collections.singleton(war.toFile()), AppArchiveLocator.find(projectDir));
+    }
+
+    @Test
+    public void testBoundedSearch() throws Exception {
+        Path ear = Files.createFile(Files.createDirectories(projectDir.resolve("target/ear")).resolve("app.ear"));
+        Files.createFile(Files.createDirectories(projectDir.resolve("target/a/b/c/d")).resolve("too-deep.war"));
+        assertEquals(Collections.singleton(ear.toFile()), AppArchiveLocator.find(projectDir));
+    }
+
+    @Test
+    public void testRunnableJar() throws Exception {
+        Path libs = Files.createDirectories(projectDir.resolve("build/libs"));
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, "com.example.Main");
+        Path runnable = libs.resolve("app.jar");
+        new JarOutputStream(Files.newOutputStream(runnable), manifest).close();
+        new JarOutputStream(Files.newOutputStream(libs.resolve("app-plain.jar"))).close();
+        assertEquals(Collections.singleton(runnable.toFile()), AppArchiveLocator.find(projectDir));
+    }
+
+    @Test
+    public void testCacheInvalidatedByChange() throws Exception {
+        Path libs = Files.createDirectories(projectDir.resolve("build/libs"));
+        Path war = Files.createFile(libs.resolve("app-1.0.war"));
+        assertEquals(Collections.singleton(war.toFile()), AppArchiveLocator.find(projectDir));
+
+        Path renamed = Files.move(war, libs.resolve("app-1.1.war"));
+        Files.setLastModifiedTime(libs, FileTime.fromMillis(Files.getLastModifiedTime(libs).toMillis() + 1000));
+        File found = AppArchiveLocator.find(projectDir).iterator().next();
+        assertEquals(renamed.toFile(), found);
+        assertTrue(found.isFile());
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.microshed.testing.spi.LifecycleEvent;
+import org.testcontainers.utility.LazyFuture;
+
+public class BackgroundImageBuildTest {
+
+    @Test
+    public void testBuildStartsWithoutGet() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        LazyFuture<String> image = new LazyFuture<String>() {
+            @Override
+            protected String resolve() {
+                building.countDown();
+                return "testcontainers/mpapp";
+            }
+        };
+        BackgroundImageBuild build = BackgroundImageBuild.start(image);
+        assertTrue(building.await(10, TimeUnit.SECONDS), "Image build was not started in the background");
+        assertEquals("testcontainers/mpapp", build.get());
+        assertTrue(build.getBuildMillis() >= 0);
+        assertSame(build, BackgroundImageBuild.start(build));
+    }
+
+    @Test
+    public void testCancelledBuildIsInterrupted() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        LazyFuture<String> image = new LazyFuture<String>() {
+            @Override
+            protected String resolve() {
+                building.countDown();
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                throw new IllegalStateException("cancelled build");
+            }
+        };
+        BackgroundImageBuild build = BackgroundImageBuild.start(image);
+        assertTrue(building.await(10, TimeUnit.SECONDS), "Image build was not started in the background");
+        assertTrue(build.cancel(true));
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS), "Cancelling the build did not interrupt it");
+        assertTrue(build.isCancelled());
+
+        // A cancelled build is not reported as a failed build
+        Thread.sleep(200);
+        assertFalse(RecordingLifecycleListener.events.stream()
+                        .filter(event -> event.getType() == LifecycleEvent.Type.IMAGE_BUILD_FAILED)
+                        .anyMatch(event -> "cancelled build".equals(event.getFailure().get().getMessage())),
+                    "The cancelled build was reported as failed");
+    }
+
+    @Test
+    public void testCompletedImage() throws Exception {
+        BackgroundImageBuild build = BackgroundImageBuild.start(CompletableFuture.completedFuture("alpine:3.5"));
+        assertTrue(build.isDone());
+        assertEquals("alpine:3.5", build.get());
+        assertEquals(0, build.getBuildMillis());
+    }
+
+    @Test
+    public void testFailedBuild() {
+        LazyFuture<String> image = new LazyFuture<String>() {
+            @Override
+            protected String resolve() {
+                throw new IllegalStateException("bad Dockerfile");
+            }
+        };
+        ExecutionException e = assertThrows(ExecutionException.class, () -> BackgroundImageBuild.start(image).get());
+        assertEquals("bad Dockerfile", e.getCause().getMessage());
+        assertTrue(RecordingLifecycleListener.events.stream()
+                        .filter(event -> event.getType() == LifecycleEvent.Type.IMAGE_BUILD_FAILED)
+                        .anyMatch(event -> event.getFailure().get() == e.getCause()),
+                   "No IMAGE_BUILD_FAILED event was fired for the build failure");
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.microshed.testing.testcontainers.ApplicationContainer;
+import org.microshed.testing.testcontainers.ApplicationContainerTest;
+import org.testcontainers.containers.BindMode;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.utility.MountableFile;
+
+public class ContainerFingerprintTest {
+
+    @Test
+    public void testEquivalentDefinitions() {
+        ApplicationContainer app1 = ApplicationContainerTest.dummyApp()
+                        .withEnv("FOO", "bar")
+                        .withEnv("BAZ", "qux")
+                        .withNetworkAliases("myapp")
+                        .withExposedPorts(9080, 9443);
+        ApplicationContainer app2 = ApplicationContainerTest.dummyApp()
+                        .withEnv("BAZ", "qux")
+                        .withEnv("FOO", "bar")
+                        .withNetworkAliases("myapp")
+                        .withExposedPorts(9443, 9080);
+        // Each container has a different random default network alias, which must not matter
+        assertNotEquals(app1.getNetworkAliases(), app2.getNetworkAliases());
+        assertEquals(ContainerFingerprint.of(app1), ContainerFingerprint.of(app2));
+    }
+
+    @Test
+    public void testDifferentDefinitions() {
+        String base = ContainerFingerprint.of(ApplicationContainerTest.dummyApp().withEnv("FOO", "bar"));
+        assertNotEquals(base, ContainerFingerprint.of(ApplicationContainerTest.dummyApp().withEnv("FOO", "baz")));
+        assertNotEquals(base, ContainerFingerprint.of(ApplicationContainerTest.dummyApp().withEnv("FOO", "bar")
+                        .withNetworkAliases("other")));
+        assertNotEquals(base, ContainerFingerprint.of(ApplicationContainerTest.dummyApp().withEnv("FOO", "bar")
+                        .withCommand("run")));
+        assertNotEquals(base, ContainerFingerprint.of(ApplicationContainerTest.dummyApp().withEnv("FOO", "bar")
+                        .withExposedPorts(1234)));
+    }
+
+    @Test
+    public void testWithoutEnvValues() {
+        String base = ContainerFingerprint.of(ApplicationContainerTest.dummyApp().withEnv("FOO", "bar"), false);
+        assertEquals(base, ContainerFingerprint.of(ApplicationContainerTest.dummyApp().withEnv("FOO", "baz"), false));
+        assertNotEquals(base, ContainerFingerprint.of(ApplicationContainerTest.dummyApp().withEnv("FOO", "bar").withEnv("BAZ", "qux"), false));
+    }
+
+    @Test
+    public void testDifferentMounts(@TempDir Path dir) throws Exception {
+        Path data = Files.write(dir.resolve("data.sql"), "insert into foo values (1)".getBytes());
+        String base = ContainerFingerprint.of(new GenericContainer<>("postgres:16"));
+        assertEquals(base, ContainerFingerprint.of(new GenericContainer<>("postgres:16")));
+        assertNotEquals(base, ContainerFingerprint.of(new GenericContainer<>("postgres:16")
+                        .withCopyFileToContainer(MountableFile.forHostPath(data), "/docker-entrypoint-initdb.d/data.sql")));
+        assertNotEquals(ContainerFingerprint.of(new GenericContainer<>("postgres:16")
+                        .withCopyToContainer(Transferable.of("insert into foo values (1)"), "/docker-entrypoint-initdb.d/data.sql")),
+                        ContainerFingerprint.of(new GenericContainer<>("postgres:16")
+                                        .withCopyToContainer(Transferable.of("insert into foo values (2)"), "/docker-entrypoint-initdb.d/data.sql")));
+        assertNotEquals(base, ContainerFingerprint.of(new GenericContainer<>("postgres:16")
+                        .withFileSystemBind(dir.toString(), "/docker-entrypoint-initdb.d", BindMode.READ_ONLY)));
+        assertNotEquals(base, ContainerFingerprint.of(new GenericContainer<>("postgres:16")
+                        .withTmpFs(Collections.singletonMap("/var/lib/postgresql/data", "rw"))));
+    }
+
+    @Test
+    public void testDifferentWaitStrategies() {
+        String base = ContainerFingerprint.of(new GenericContainer<>("postgres:16").waitingFor(Wait.forLogMessage(".*ready.*", 1)));
+        assertEquals(base, ContainerFingerprint.of(new GenericContainer<>("postgres:16").waitingFor(Wait.forLogMessage(".*ready.*", 1))));
+        assertNotEquals(base, ContainerFingerprint.of(new GenericContainer<>("postgres:16").waitingFor(Wait.forLogMessage(".*ready.*", 2))));
+        assertNotEquals(base, ContainerFingerprint.of(new GenericContainer<>("postgres:16").waitingFor(Wait.forHttp("/health"))));
+        // The startup timeout may be learned from earlier startups and does not make containers different
+        assertEquals(base, ContainerFingerprint.of(new GenericContainer<>("postgres:16")
+                        .waitingFor(Wait.forLogMessage(".*ready.*", 1).withStartupTimeout(Duration.ofMinutes(5)))));
+    }
+
+    @Test
+    public void testDefaultAlias() {
+        assertTrue(ContainerFingerprint.isDefaultAlias("tc-a1B2c3D4"));
+        assertFalse(ContainerFingerprint.isDefaultAlias("testdb"));
+    }
+
+}
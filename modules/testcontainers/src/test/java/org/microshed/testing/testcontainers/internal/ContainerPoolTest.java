@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+
+public class ContainerPoolTest {
+
+    @Test
+    public void testSameConfig() {
+        ContainerPool pool = new ContainerPool();
+        assertTrue(pool.acquire(new DummyContainer(), "app", "app-a"));
+        assertFalse(pool.acquire(new DummyContainer(), "app", "app-a"));
+    }
+
+    @Test
+    public void testBusyWithOtherConfig() {
+        ContainerPool pool = new ContainerPool();
+        DummyContainer first = new DummyContainer();
+        DummyContainer second = new DummyContainer();
+        assertTrue(pool.acquire(first, "app", "app-a"));
+        pool.started(first);
+        // The equivalent container is in use with another configuration, so the second one gets its own entry
+        assertTrue(pool.acquire(second, "app", "app-b"));
+        pool.started(second);
+        DummyContainer third = new DummyContainer();
+        assertFalse(pool.acquire(third, "app", "app-a"));
+        assertFalse(pool.acquire(new DummyContainer(), "app", "app-b"));
+        // Once released, the first container may be reconfigured for yet another configuration
+        pool.release(first);
+        pool.release(third);
+        assertFalse(pool.acquire(new DummyContainer(), "app", "app-c"));
+        assertTrue(pool.acquire(new DummyContainer(), "app", "app-d"));
+    }
+
+    @Test
+    public void testSeparateEntriesAreStopped() throws Exception {
+        System.setProperty(ContainerPool.POOL_LINGER, "0");
+        try {
+            ContainerPool pool = new ContainerPool();
+            DummyContainer first = new DummyContainer();
+            DummyContainer second = new DummyContainer();
+            assertTrue(pool.acquire(first, "app", "app-a"));
+            pool.started(first);
+            assertTrue(pool.acquire(second, "app", "app-b"));
+            pool.started(second);
+            pool.release(second);
+            assertTrue(second.stopped.await(10, TimeUnit.SECONDS), "Container with its own entry was not stopped");
+            assertEquals(1, first.stopped.getCount());
+            pool.release(first);
+            assertTrue(first.stopped.await(10, TimeUnit.SECONDS), "Container was not stopped");
+        } finally {
+            System.clearProperty(ContainerPool.POOL_LINGER);
+        }
+    }
+
+    private static class DummyContainer extends GenericContainer<DummyContainer> {
+        final CountDownLatch stopped = new CountDownLatch(1);
+
+        DummyContainer() {
+            super("alpine:3.5");
+        }
+
+        @Override
+        public String getDockerImageName() {
+            return "alpine:3.5";
+        }
+
+        @Override
+        public void stop() {
+            stopped.countDown();
+        }
+    }
+}
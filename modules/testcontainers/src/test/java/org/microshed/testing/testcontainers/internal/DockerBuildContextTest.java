@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DockerBuildContextTest {
+
+    @TempDir
+    Path baseDir;
+
+    @Test
+    public void testDockerIgnorePatterns() {
+        DockerIgnore ignore = DockerIgnore.parse("# comment\n.git\n**/*.tmp\nbuild/*\n!build/libs\n/node_modules\n");
+        assertTrue(ignore.isIgnored(".git"));
+        assertTrue(ignore.isIgnored(".git/objects/ab/cdef"));
+        assertTrue(ignore.isIgnored("a.tmp"));
+        assertTrue(ignore.isIgnored("src/main/a.tmp"));
+        assertTrue(ignore.isIgnored("build/tmp/x.class"));
+        assertFalse(ignore.isIgnored("build/libs"));
+        assertFalse(ignore.isIgnored("build/libs/app.war"));
+        assertTrue(ignore.isIgnored("node_modules/lib/index.js"));
+        assertFalse(ignore.isIgnored("src/main/java/App.java"));
+        assertTrue(ignore.hasExclusions());
+    }
+
+    @Test
+    public void testMinimalContext() throws Exception {
+        Path dockerfile = Files.write(baseDir.resolve("Dockerfile"), "FROM scratch\nCOPY config/ /config/\nADD target/app.war /app/\n".getBytes());
+        Files.createDirectories(baseDir.resolve("config"));
+        Files.write(baseDir.resolve("config/server.xml"), "<server/>".getBytes());
+        Files.write(baseDir.resolve("config/notes.bak"), "old".getBytes());
+        Files.createDirectories(baseDir.resolve("target"));
+        Files.write(baseDir.resolve("target/app.war"), "war".getBytes());
+        Files.createDirectories(baseDir.resolve(".git"));
+        Files.write(baseDir.resolve(".git/HEAD"), "ref".getBytes());
+        Files.write(baseDir.resolve(".dockerignore"), "**/*.bak\n".getBytes());
+
+        DockerBuildContext context = DockerBuildContext.scan(dockerfile, baseDir);
+        assertTrue(context.isMinimal());
+        assertTrue(context.isComplete());
+        assertEquals(new HashSet<>(Arrays.asList("config/server.xml", "target/app.war")), context.getFiles().keySet());
+    }
+
+    @Test
+    public void testFullContextHonoursDockerIgnore() throws Exception {
+        Path dockerfile = Files.write(baseDir.resolve("Dockerfile"), "FROM scratch\nCOPY target/*.war /app/\n".getBytes());
+        Files.createDirectories(baseDir.resolve("target"));
+        Files.write(baseDir.resolve("target/app.war"), "war".getBytes());
+        Files.createDirectories(baseDir.resolve(".git"));
+        Files.write(baseDir.resolve(".git/HEAD"), "ref".getBytes());
+        Files.write(baseDir.resolve(".dockerignore"), ".git\n".getBytes());
+
+        DockerBuildContext context = DockerBuildContext.scan(dockerfile, baseDir);
+        assertFalse(context.isMinimal());
+        assertEquals(new HashSet<>(Arrays.asList(".dockerignore", "Dockerfile", "target/app.war")), context.getFiles().keySet());
+    }
+
+}
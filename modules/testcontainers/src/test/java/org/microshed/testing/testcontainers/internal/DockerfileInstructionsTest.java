@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import org.junit.jupiter.api.Test;
+
+public class DockerfileInstructionsTest {
+
+    @Test
+    public void testBaseImagesAndSources() {
+        DockerfileInstructions df = DockerfileInstructions.parse(
+                                                                 "# build stage\n" +
+                                                                 "FROM maven:3 AS build\n" +
+                                                                 "COPY pom.xml ./\n" +
+                                                                 "FROM openliberty/open-liberty:full\n" +
+                                                                 "COPY --chown=1001:0 src/main/liberty/config/ /config/\n" +
+                                                                 "COPY --from=build /target/app.war /config/dropins/\n" +
+                                                                 "ADD [\"target/my app.war\", \\\n" +
+                                                                 "     \"/config/apps/\"]\n" +
+                                                                 "RUN configure.sh\n");
+        assertEquals(new LinkedHashSet<>(Arrays.asList("maven:3", "openliberty/open-liberty:full")), df.getBaseImages());
+        assertEquals(new LinkedHashSet<>(Arrays.asList("pom.xml", "src/main/liberty/config", "target/my app.war")),
+                     df.getContextSources().get());
+    }
+
+    @Test
+    public void testStageReferenceIsNotBaseImage() {
+        DockerfileInstructions df = DockerfileInstructions.parse("FROM alpine:3 AS base\nFROM base\nFROM scratch\n");
+        assertEquals(new LinkedHashSet<>(Arrays.asList("alpine:3")), df.getBaseImages());
+    }
+
+    @Test
+    public void testUndeterminableSources() {
+        assertFalse(DockerfileInstructions.parse("FROM alpine\nCOPY target/*.war /app/\n").getContextSources().isPresent());
+        assertFalse(DockerfileInstructions.parse("FROM alpine\nCOPY ${APP} /app/\n").getContextSources().isPresent());
+        assertFalse(DockerfileInstructions.parse("FROM alpine\nADD https://example.com/a.jar /app/\n").getContextSources().isPresent());
+    }
+
+}
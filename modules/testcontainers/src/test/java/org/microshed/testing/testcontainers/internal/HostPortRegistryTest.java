@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.net.ServerSocket;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class HostPortRegistryTest {
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    public void setUp() {
+        System.setProperty(HostPortRegistry.REGISTRY_DIR, dir.toString());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty(HostPortRegistry.REGISTRY_DIR);
+    }
+
+    @Test
+    public void testPortInUse() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            int port = socket.getLocalPort();
+            int allocated = HostPortRegistry.allocate(port);
+            assertNotEquals(port, allocated);
+            // The same container port is always published on the same host port
+            assertEquals(allocated, HostPortRegistry.allocate(port));
+        }
+    }
+
+    @Test
+    public void testPortReservedByOtherProcess() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        try (FileChannel channel = FileChannel.open(dir.resolve(port + ".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                        FileLock lock = channel.lock()) {
+            assertNotEquals(port, HostPortRegistry.allocate(port));
+        }
+    }
+
+}
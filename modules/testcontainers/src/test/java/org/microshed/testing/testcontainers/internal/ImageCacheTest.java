@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ImageCacheTest {
+
+    @TempDir
+    Path baseDir;
+
+    @Test
+    public void testHashFollowsInputs() throws Exception {
+        Path dockerfile = Files.write(baseDir.resolve("Dockerfile"), "FROM scratch\nCOPY target/app.war /app/\n".getBytes());
+        Path war = Files.createDirectories(baseDir.resolve("target")).resolve("app.war");
+        Files.write(war, "v1".getBytes());
+        Files.write(baseDir.resolve("unrelated.txt"), "a".getBytes());
+
+        String first = ImageCache.hashDockerfileBuild(dockerfile, baseDir).get();
+        assertEquals(first, ImageCache.hashDockerfileBuild(dockerfile, baseDir).get());
+
+        // Files that are not copied into the image do not affect the hash
+        Files.write(baseDir.resolve("unrelated.txt"), "b".getBytes());
+        assertEquals(first, ImageCache.hashDockerfileBuild(dockerfile, baseDir).get());
+
+        Files.write(war, "v2-changed".getBytes());
+        assertNotEquals(first, ImageCache.hashDockerfileBuild(dockerfile, baseDir).get());
+    }
+
+    @Test
+    public void testUncacheableDockerfile() throws Exception {
+        Path dockerfile = Files.write(baseDir.resolve("Dockerfile"), "FROM scratch\nCOPY target/*.war /app/\n".getBytes());
+        assertFalse(ImageCache.hashDockerfileBuild(dockerfile, baseDir).isPresent());
+
+        Files.write(dockerfile, "FROM scratch\nCOPY missing.war /app/\n".getBytes());
+        assertFalse(ImageCache.hashDockerfileBuild(dockerfile, baseDir).isPresent());
+
+        Files.write(dockerfile, "FROM scratch\nCMD [\"/bin/true\"]\n".getBytes());
+        assertTrue(ImageCache.hashDockerfileBuild(dockerfile, baseDir).isPresent());
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LayeredApplicationImageTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testExplodeSeparatesLibraries() throws Exception {
+        Path war = tempDir.resolve("myservice.war");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(war))) {
+            add(zip, "index.html", "hello");
+            add(zip, "WEB-INF/classes/App.class", "classes");
+            add(zip, "WEB-INF/lib/dep.jar", "library");
+        }
+
+        Path exploded = LayeredApplicationImage.explode(war, tempDir.resolve("layers"));
+        assertEquals("hello", read(exploded.resolve("app/index.html")));
+        assertEquals("classes", read(exploded.resolve("app/WEB-INF/classes/App.class")));
+        assertEquals("library", read(exploded.resolve("lib/dep.jar")));
+        assertFalse(Files.exists(exploded.resolve("app/WEB-INF/lib/dep.jar")));
+
+        // An unchanged war is only exploded once
+        assertEquals(exploded, LayeredApplicationImage.explode(war, tempDir.resolve("layers")));
+    }
+
+    @Test
+    public void testExplodePrunesOlderVersions() throws Exception {
+        Path root = tempDir.resolve("layers");
+        Path otherWar = tempDir.resolve("other.war");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(otherWar))) {
+            add(zip, "index.html", "other");
+        }
+        Path other = LayeredApplicationImage.explode(otherWar, root);
+
+        Path war = tempDir.resolve("myservice.war");
+        List<Path> versions = new ArrayList<>();
+        for (int version = 0; version < 5; version++) {
+            try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(war))) {
+                add(zip, "index.html", "version " + version);
+            }
+            Files.setLastModifiedTime(war, FileTime.fromMillis(1_000_000L * (version + 1)));
+            Path exploded = LayeredApplicationImage.explode(war, root);
+            assertEquals("version " + version, read(exploded.resolve("app/index.html")));
+            // Make the versions distinguishable by age regardless of the file system timestamp resolution
+            Files.setLastModifiedTime(exploded, FileTime.fromMillis(System.currentTimeMillis() - 60_000L * (5 - version)));
+            versions.add(exploded);
+        }
+
+        assertTrue(versions.subList(5 - LayeredApplicationImage.KEEP_EXPLODED, 5).stream().allMatch(Files::isDirectory),
+                   "The most recent versions were removed");
+        assertFalse(versions.subList(0, 5 - LayeredApplicationImage.KEEP_EXPLODED).stream().anyMatch(Files::exists),
+                    "Earlier versions were not removed");
+        assertTrue(Files.isDirectory(other), "The exploded directory of another war was removed");
+    }
+
+    @Test
+    public void testOnlyEnabledForWars() throws Exception {
+        Path jar = Files.createFile(tempDir.resolve("myservice.jar"));
+        System.setProperty(LayeredApplicationImage.LAYERED_IMAGE_ENABLED, "true");
+        try {
+            assertFalse(LayeredApplicationImage.isEnabled(jar.toFile()));
+            assertTrue(LayeredApplicationImage.isEnabled(Files.createFile(tempDir.resolve("myservice.war")).toFile()));
+        } finally {
+            System.clearProperty(LayeredApplicationImage.LAYERED_IMAGE_ENABLED);
+        }
+    }
+
+    private static void add(ZipOutputStream zip, String name, String content) throws Exception {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.microshed.testing.spi.LifecycleEvent;
+import org.microshed.testing.spi.LifecycleListener;
+
+public class RecordingLifecycleListener implements LifecycleListener {
+
+    static final List<LifecycleEvent> events = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void onEvent(LifecycleEvent event) {
+        events.add(event);
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.ZipFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RedeploymentTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testHashChangesWithContent() throws Exception {
+        Path war = dir.resolve("app.war");
+        Files.write(war, new byte[] { 1, 2, 3 });
+        String first = Redeployment.hash(war.toFile());
+        assertEquals(64, first.length());
+        assertEquals(first, Redeployment.hash(war.toFile()));
+
+        Files.write(war, new byte[] { 1, 2, 3, 4 });
+        Files.setLastModifiedTime(war, FileTime.fromMillis(Files.getLastModifiedTime(war).toMillis() + 2000));
+        assertNotEquals(first, Redeployment.hash(war.toFile()));
+    }
+
+    @Test
+    public void testPlaceholderIsStable() throws Exception {
+        File war = dir.resolve("placeholder-test-" + System.nanoTime() + ".war").toFile();
+        File placeholder = Redeployment.placeholderFor(war);
+        assertEquals(war.getName(), placeholder.getName());
+        try (ZipFile zip = new ZipFile(placeholder)) {
+            assertTrue(zip.getEntry("WEB-INF/") != null, "Placeholder is not a web application");
+        }
+        // The placeholder must be identical every time, so that images containing it are too
+        String hash = Redeployment.hash(placeholder);
+        Files.delete(placeholder.toPath());
+        assertEquals(hash, Redeployment.hash(Redeployment.placeholderFor(war)));
+        Files.delete(placeholder.toPath());
+    }
+
+}
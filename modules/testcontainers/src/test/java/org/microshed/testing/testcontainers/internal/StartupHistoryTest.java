@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StartupHistoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testLearnedTimeout() {
+        assertEquals(Optional.empty(), StartupHistory.timeoutFor(Arrays.asList(5000L, 6000L), 3));
+        assertEquals(Optional.of(Duration.ofMillis(24000)),
+                     StartupHistory.timeoutFor(Arrays.asList(5000L, 6000L, 8000L, 7000L, 5500L), 3));
+        // Fast startups still get a sensible minimum timeout
+        assertEquals(Optional.of(Duration.ofSeconds(10)),
+                     StartupHistory.timeoutFor(Arrays.asList(100L, 120L, 90L, 110L, 100L), 3));
+    }
+
+    @Test
+    public void testPercentile() {
+        assertEquals(3, StartupHistory.percentile(Arrays.asList(5L, 1L, 3L, 2L, 4L), 50));
+        assertEquals(5, StartupHistory.percentile(Arrays.asList(5L, 1L, 3L, 2L, 4L), 99));
+    }
+
+    @Test
+    public void testRegression() {
+        assertFalse(StartupHistory.isRegression(10_000, 12_000, 1.5));
+        assertTrue(StartupHistory.isRegression(10_000, 16_000, 1.5));
+        // Small absolute differences are not considered regressions
+        assertFalse(StartupHistory.isRegression(1_000, 2_500, 1.5));
+    }
+
+    @Test
+    public void testRecord() {
+        StartupHistory history = new StartupHistory(tempDir.resolve("history.properties"));
+        for (int i = 0; i < 25; i++)
+            history.record("app", "app", 5000 + i);
+        assertEquals(20, history.getSamples("app").size());
+        assertEquals(5024L, history.getSamples("app").get(19).longValue());
+
+        // A new instance reads the samples from the file
+        assertEquals(history.getSamples("app"), new StartupHistory(tempDir.resolve("history.properties")).getSamples("app"));
+
+        System.setProperty(StartupHistory.REGRESSION_ACTION, "fail");
+        try {
+            assertThrows(IllegalStateException.class, () -> history.record("app", "app", 60_000));
+            assertEquals(5024L, history.getSamples("app").get(19).longValue());
+        } finally {
+            System.clearProperty(StartupHistory.REGRESSION_ACTION);
+        }
+    }
+
+}
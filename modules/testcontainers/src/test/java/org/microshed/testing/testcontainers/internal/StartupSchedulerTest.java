@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.microshed.testing.testcontainers.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.microshed.testing.spi.LifecycleEvent;
+import org.microshed.testing.testcontainers.ApplicationContainer;
+import org.microshed.testing.testcontainers.ApplicationContainerTest;
+import org.testcontainers.lifecycle.Startable;
+
+public class StartupSchedulerTest {
+
+    private final List<String> startOrder = new CopyOnWriteArrayList<>();
+
+    private class FakeStartable implements Startable {
+        final String name;
+        final Set<Startable> dependencies;
+        boolean fail;
+
+        FakeStartable(String name, Startable... dependencies) {
+            this.name = name;
+            this.dependencies = new HashSet<>(Arrays.asList(dependencies));
+        }
+
+        @Override
+        public void start() {
+            startOrder.add(name);
+            if (fail)
+                throw new IllegalStateException(name + " failed");
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public Set<Startable> getDependencies() {
+            return dependencies;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @Test
+    public void testDependencyOrder() {
+        FakeStartable db = new FakeStartable("db");
+        FakeStartable app = new FakeStartable("app", db);
+        // Only pass the app, the scheduler must discover the db through dependsOn
+        new StartupScheduler(Collections.singletonList(app), 4).start();
+        assertEquals(Arrays.asList("db", "app"), startOrder);
+    }
+
+    @Test
+    public void testCriticalPathFirst() {
+        FakeStartable standalone = new FakeStartable("standalone");
+        FakeStartable a = new FakeStartable("a");
+        FakeStartable b = new FakeStartable("b", a);
+        FakeStartable c = new FakeStartable("c", b);
+        // With a single slot, the head of the longest chain must start before the standalone container
+        StartupScheduler scheduler = new StartupScheduler(Arrays.asList(standalone, c), 1);
+        scheduler.start();
+        assertEquals(Arrays.asList("a", "b"), startOrder.subList(0, 2), startOrder.toString());
+        assertEquals(4, startOrder.size());
+        assertEquals(4, scheduler.getTimings().size());
+    }
+
+    @Test
+    public void testFailureSkipsDependents() {
+        FakeStartable db = new FakeStartable("db");
+        db.fail = true;
+        FakeStartable app = new FakeStartable("app", db);
+        StartupScheduler scheduler = new StartupScheduler(Collections.singletonList(app), 2);
+        IllegalStateException e = assertThrows(IllegalStateException.class, scheduler::start);
+        assertEquals("db failed", e.getMessage());
+        assertFalse(startOrder.contains("app"), "Dependent should not have been started: " + startOrder);
+        assertEquals(Collections.singleton(db), scheduler.getFailures().keySet());
+    }
+
+    @Test
+    public void testLifecycleEvents() {
+        FakeStartable db = new FakeStartable("events-db");
+        db.fail = true;
+        assertThrows(IllegalStateException.class,
+                     () -> new StartupScheduler(Collections.singletonList(db), 1).withTestClass(StartupSchedulerTest.class).start());
+
+        List<LifecycleEvent> events = RecordingLifecycleListener.events.stream()
+                        .filter(e -> "events-db".equals(e.getSubject()))
+                        .collect(Collectors.toList());
+        assertEquals(2, events.size(), "Unexpected events: " + events);
+        assertEquals(LifecycleEvent.Type.CONTAINER_STARTING, events.get(0).getType());
+        assertEquals(LifecycleEvent.Type.CONTAINER_FAILED, events.get(1).getType());
+        assertEquals(StartupSchedulerTest.class, events.get(1).getTestClass().get());
+        assertEquals("events-db failed", events.get(1).getFailure().get().getMessage());
+        assertTrue(events.get(1).getTimestamp() >= events.get(0).getTimestamp());
+    }
+
+    @Test
+    public void testInferredDependency() {
+        ApplicationContainer db = ApplicationContainerTest.dummyApp()
+                        .withNetworkAliases("db");
+        ApplicationContainer app = ApplicationContainerTest.dummyApp()
+                        .withEnv("DB_URL", "jdbc:postgresql://db:5432/test")
+                        .withEnv("NOT_A_REF", "mydb:5432");
+        StartupScheduler scheduler = new StartupScheduler(Arrays.asList(app, db));
+        assertTrue(scheduler.getDependencies(app).contains(db));
+        assertTrue(scheduler.getDependencies(db).isEmpty());
+    }
+
+}
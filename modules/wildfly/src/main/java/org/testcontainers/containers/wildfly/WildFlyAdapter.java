@@ -19,12 +19,33 @@
 package org.testcontainers.containers.wildfly;
 
 import java.io.File;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
+import org.microshed.testing.testcontainers.ApplicationContainer;
+import org.microshed.testing.testcontainers.internal.LayeredApplicationImage;
+import org.microshed.testing.testcontainers.internal.Redeployment;
 import org.microshed.testing.testcontainers.spi.ServerAdapter;
 import org.testcontainers.images.builder.ImageFromDockerfile;
 
 public class WildFlyAdapter implements ServerAdapter {
 
+    private static final String BASE_IMAGE = "quay.io/wildfly/wildfly:30.0.1.Final-jdk17";
+    private static final String DEPLOYMENT_DIR = "/opt/jboss/wildfly/standalone/deployments/";
+    private static final Pattern READY_MESSAGE = Pattern.compile("WFLYSRV0025");
+    private static final Pattern FATAL_MESSAGE = Pattern.compile("WFLYSRV0026|WFLYCTL0186");
+    private static final String CLI = "/opt/jboss/wildfly/bin/jboss-cli.sh";
+    private static final String LIVE_CONFIG_SCRIPT = "/tmp/microshed-live-config.cli";
+    private static final String RESET_SCRIPT = "/tmp/microshed-reset.cli";
+    // the names of the system properties set with setConfigProperties, by container ID
+    private static final Map<String, Set<String>> liveConfigKeys = new ConcurrentHashMap<>();
+
     @Override
     public int getPriority() {
         return PRIORITY_RUNTIME_MODULE;
@@ -40,17 +61,108 @@ public class WildFlyAdapter implements ServerAdapter {
         return 8443;
     }
 
+    @Override
+    public Optional<Pattern> getReadyLogPattern() {
+        // WFLYSRV0025: WildFly Full 30.0.1.Final (WildFly Core 22.0.2.Final) started in 4321ms
+        return Optional.of(READY_MESSAGE);
+    }
+
+    @Override
+    public Optional<Pattern> getFatalLogPattern() {
+        // WFLYSRV0026: WildFly Full 30.0.1.Final (WildFly Core 22.0.2.Final) started (with errors) in 4321ms
+        return Optional.of(FATAL_MESSAGE);
+    }
+
+    @Override
+    public Optional<String> getBaseImage() {
+        return Optional.of(BASE_IMAGE);
+    }
+
     @Override
     public ImageFromDockerfile getDefaultImage(File appFile) {
         String appName = appFile.getName();
+        if (LayeredApplicationImage.isEnabled(appFile)) {
+            // Exploded deployments are only deployed once a marker file is present
+            return new LayeredApplicationImage(appFile, DEPLOYMENT_DIR)
+                    .withBaseImage(BASE_IMAGE)
+                    .withDeploymentFile(appName + ".dodeploy", "")
+                    .build();
+        }
         // Compose a docker image equivalent to doing:
         // FROM quay.io/wildfly/wildfly:30.0.1.Final-jdk17
         // ADD target/myservice.war /opt/jboss/wildfly/standalone/deployments/
         return new ImageFromDockerfile()
                 .withDockerfileFromBuilder(builder -> builder
-                        .from("quay.io/wildfly/wildfly:30.0.1.Final-jdk17")
-                        .add(appName, "/opt/jboss/wildfly/standalone/deployments/")
+                        .from(BASE_IMAGE)
+                        .add(appName, DEPLOYMENT_DIR)
                         .build())
                 .withFileFromFile(appName, appFile);
     }
+
+    @Override
+    public boolean supportsRedeploy() {
+        return true;
+    }
+
+    @Override
+    public void redeploy(ApplicationContainer app, File appFile) {
+        // The deployment scanner (re)deploys an archive once its .dodeploy marker is created,
+        // and reports the outcome with a .deployed or .failed marker
+        String target = DEPLOYMENT_DIR + appFile.getName();
+        Redeployment.delete(app, target + ".deployed", target + ".failed");
+        Redeployment.replaceFile(app, appFile, target);
+        Redeployment.touch(app, target + ".dodeploy");
+        Redeployment.awaitFile(app, target + ".deployed", target + ".failed", Duration.ofSeconds(getDefaultAppStartTimeout()));
+    }
+
+    @Override
+    public boolean supportsLiveConfig() {
+        return true;
+    }
+
+    @Override
+    public void setConfigProperties(ApplicationContainer app, Map<String, String> properties) {
+        // MicroProfile Config reads system properties with a higher priority than environment variables. Applications
+        // read most of their configuration when they start, so the server is reloaded afterwards, which restarts the
+        // deployments in the same JVM.
+        Set<String> previous = liveConfigKeys.getOrDefault(app.getContainerId(), Collections.emptySet());
+        StringBuilder script = new StringBuilder();
+        for (String key : previous) {
+            if (!properties.containsKey(key))
+                script.append("/system-property=").append(quote(key)).append(":remove\n");
+        }
+        properties.forEach((k, v) -> {
+            if (previous.contains(k))
+                script.append("/system-property=").append(quote(k)).append(":write-attribute(name=value,value=").append(quote(v)).append(")\n");
+            else
+                script.append("/system-property=").append(quote(k)).append(":add(value=").append(quote(v)).append(")\n");
+        });
+        script.append("reload\n");
+
+        int logOffset = Redeployment.logLength(app);
+        Redeployment.writeFile(app, script.toString(), LIVE_CONFIG_SCRIPT);
+        Redeployment.run(app, CLI + " --connect --file=" + LIVE_CONFIG_SCRIPT);
+        liveConfigKeys.put(app.getContainerId(), new HashSet<>(properties.keySet()));
+        Redeployment.awaitLog(app, logOffset, READY_MESSAGE, FATAL_MESSAGE, Duration.ofSeconds(getDefaultAppStartTimeout()));
+    }
+
+    @Override
+    public boolean supportsApplicationReset() {
+        return true;
+    }
+
+    @Override
+    public void resetApplication(ApplicationContainer app) {
+        // The redeploy operation restarts a deployment from its existing content and only completes once
+        // the deployment has been started again
+        String script = "for deployment in :read-children-names(child-type=deployment)\n" +
+                        "/deployment=$deployment:redeploy\n" +
+                        "done\n";
+        Redeployment.writeFile(app, script, RESET_SCRIPT);
+        Redeployment.run(app, CLI + " --connect --file=" + RESET_SCRIPT);
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
 }